@@ -0,0 +1,153 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.config.CepLookupConfiguration;
+import co.facilite.devjr.config.WebConfig;
+import co.facilite.devjr.service.dto.CepLookupResultDTO;
+import co.facilite.devjr.service.impl.CepLookupServiceImpl;
+import co.facilite.devjr.service.impl.ViaCepProvider;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * End-to-end latency of resolving a batch of CEPs one after the other versus through
+ * {@link CepBatchLookupService}, against a local ViaCEP stub answering after a fixed delay.
+ * Caching is disabled so every CEP goes upstream.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=CepBatchLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CepBatchLookupBenchmark {
+
+    @Param({ "50" })
+    private int batchSize;
+
+    @Param({ "20" })
+    private int upstreamDelayMillis;
+
+    @Param({ "8" })
+    private int maxConcurrency;
+
+    private HttpServer stub;
+
+    private CloseableHttpClient httpClient;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private CepLookupService cepLookupService;
+
+    private CepBatchLookupService cepBatchLookupService;
+
+    private List<String> ceps;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/ws/", exchange -> {
+            String cep = exchange.getRequestURI().getPath().split("/")[2];
+            byte[] body = (
+                "{\"cep\":\"" + cep + "\",\"logradouro\":\"Avenida Paulista\",\"bairro\":\"Bela Vista\"," +
+                "\"localidade\":\"São Paulo\",\"uf\":\"SP\"}"
+            ).getBytes(StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(upstreamDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getViaCep().setUrl("http://127.0.0.1:" + stub.getAddress().getPort() + "/ws/{cep}/json/");
+        applicationProperties.getCep().getBatch().setMaxConcurrency(maxConcurrency);
+
+        WebConfig webConfig = new WebConfig();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        httpClient = webConfig.cepHttpClient(applicationProperties, meterRegistry);
+        executor = new CepLookupConfiguration().cepLookupExecutor(applicationProperties);
+        executor.initialize();
+
+        CepProviderChain cepProviderChain = new CepProviderChain(
+            List.of(new ViaCepProvider(webConfig.cepRestTemplate(new RestTemplateBuilder(), httpClient), applicationProperties)),
+            applicationProperties,
+            CircuitBreakerRegistry.ofDefaults(),
+            meterRegistry,
+            Runnable::run
+        );
+        cepLookupService = new CepLookupServiceImpl(
+            cepProviderChain,
+            new NoOpCacheManager(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            applicationProperties,
+            meterRegistry,
+            Runnable::run,
+            executor
+        );
+        cepBatchLookupService = new CepBatchLookupService(cepLookupService, executor, applicationProperties);
+
+        ceps = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            ceps.add(String.format("%08d", 1310100 + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdown();
+        httpClient.close();
+        stub.stop(0);
+    }
+
+    @Benchmark
+    public void sequential(Blackhole blackhole) {
+        for (String cep : ceps) {
+            blackhole.consume(cepLookupService.lookup(cep));
+        }
+    }
+
+    @Benchmark
+    public void batch(Blackhole blackhole) {
+        cepBatchLookupService.lookupAll(ceps, (CepLookupResultDTO result) -> blackhole.consume(result));
+    }
+}
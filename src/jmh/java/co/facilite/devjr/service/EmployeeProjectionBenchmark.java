@@ -0,0 +1,198 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.Employee;
+import co.facilite.devjr.repository.EmployeeRepository;
+import co.facilite.devjr.repository.EmployeeRepositoryWithProjectionsImpl;
+import co.facilite.devjr.service.criteria.EmployeeCriteria;
+import co.facilite.devjr.service.dto.EmployeeDTO;
+import co.facilite.devjr.service.mapper.EmployeeMapper;
+import co.facilite.devjr.service.mapper.EmployeeMapperImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.service.filter.BooleanFilter;
+
+/**
+ * Latency of reading a page of employees as entities mapped to DTOs, the way lists were read before, versus straight
+ * into DTOs by {@link EmployeeQueryService#findSliceByCriteria}; run with the GC profiler to compare the allocation
+ * per page too. Each page is read in its own read-only transaction, as a request would, filtered on active employees
+ * and sorted by last name.
+ * <p>
+ * Needs a PostgreSQL database with the application schema, by default the one of the dev profile; set
+ * {@code -Djdbc.url}, {@code -Djdbc.user} and {@code -Djdbc.password} for another. The employee table is topped up to
+ * {@code rows} employees, each in one of a hundred seeded departments.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=EmployeeProjectionBenchmark -PjmhArgs="-prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeProjectionBenchmark {
+
+    /**
+     * Seeded rows get ids from here on, clear of the ones the application's sequence hands out.
+     */
+    private static final long SEED_ID_BASE = 3_000_000_000L;
+
+    private static final int DEPARTMENTS = 100;
+
+    @Param({ "20", "100" })
+    private int size;
+
+    @Param({ "100000" })
+    private int rows;
+
+    private HikariDataSource dataSource;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private TransactionTemplate transaction;
+
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeMapper employeeMapper;
+
+    private EmployeeQueryService employeeQueryService;
+
+    private EmployeeCriteria criteria;
+
+    private Pageable page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("jdbc.url", "jdbc:postgresql://localhost:5432/devjr"));
+        dataSource.setUsername(System.getProperty("jdbc.user", "postgres"));
+        dataSource.setPassword(System.getProperty("jdbc.password", "root"));
+        seed(new JdbcTemplate(dataSource));
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(Employee.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(AvailableSettings.USE_SECOND_LEVEL_CACHE, false));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        employeeRepository = new JpaRepositoryFactory(entityManager).getRepository(
+            EmployeeRepository.class,
+            RepositoryFragments.just(new EmployeeRepositoryWithProjectionsImpl(entityManager))
+        );
+        employeeMapper = new EmployeeMapperImpl();
+        employeeQueryService = new EmployeeQueryService(
+            employeeRepository,
+            new ConcurrentMapCacheManager(EmployeeQueryService.EMPLOYEE_COUNT_CACHE),
+            Runnable::run,
+            transactionManager,
+            new ApplicationProperties()
+        );
+
+        criteria = new EmployeeCriteria();
+        criteria.setActive((BooleanFilter) new BooleanFilter().setEquals(true));
+        page = PageRequest.of(10, size, Sort.by("lastName", "id"));
+    }
+
+    /**
+     * Tops the department table up to a hundred seeded departments, and the employee table up to {@code rows}
+     * employees spread over them.
+     */
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update(
+            "insert into department (id, name) select ? + g, 'Benchmark ' || g from generate_series(1, ?) g on conflict do nothing",
+            SEED_ID_BASE,
+            DEPARTMENTS
+        );
+        Long existing = jdbc.queryForObject("select count(*) from employee", Long.class);
+        if (existing >= rows) {
+            return;
+        }
+        jdbc.update(
+            """
+            insert into employee (id, first_name, last_name, email, phone, hire_date, salary, active, department_id)
+            select ? + g,
+                   (array['Ana','Bruno','Carla','Diego','Elisa','Fabio','Gabriela','Hugo','Iara','Joao'])[1 + g % 10],
+                   (array['Almeida','Barbosa','Costa','Dias','Esteves','Ferreira','Gomes','Lima','Moraes','Silva'])[1 + (g / 10) % 10]
+                       || ' ' || md5(g::text),
+                   'projection' || (? + g) || '@example.com',
+                   '(11) 5555-' || lpad((g % 10000)::text, 4, '0'),
+                   timestamp '2000-01-01' + (g % 9000) * interval '1 day',
+                   1500 + (g % 20000),
+                   g % 7 <> 0,
+                   ? + 1 + g % ?
+            from generate_series(1, ?) g
+            on conflict do nothing
+            """,
+            SEED_ID_BASE + existing,
+            SEED_ID_BASE + existing,
+            SEED_ID_BASE,
+            DEPARTMENTS,
+            rows - existing
+        );
+        jdbc.execute("analyze department");
+        jdbc.execute("analyze employee");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    /**
+     * The entities of the page, then their departments, each loaded lazily by the mapper reading its name.
+     */
+    @Benchmark
+    public List<EmployeeDTO> entities() {
+        return transaction.execute(status -> {
+            Specification<Employee> specification = employeeQueryService.createSpecification(criteria);
+            Window<Employee> window = employeeRepository.findBy(specification, query ->
+                query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(page.toScrollPosition())
+            );
+            return employeeMapper.toDto(window.getContent());
+        });
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> projection() {
+        return transaction.execute(status -> employeeQueryService.findSliceByCriteria(criteria, page).getContent());
+    }
+}
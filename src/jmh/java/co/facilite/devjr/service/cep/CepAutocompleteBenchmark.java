@@ -0,0 +1,116 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of {@link CepAutocompleteIndex#suggest(String, int)} for the top 10 matches of digit prefixes and of one
+ * and two word prefixes, over a full index of generated addresses, and time of a {@link CepAutocompleteIndex#merge()}
+ * of 500 new addresses into it.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=CepAutocompleteBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CepAutocompleteBenchmark {
+
+    private static final String[] STREET_TYPES = { "Rua", "Avenida", "Travessa", "Alameda", "Praça" };
+
+    private static final String[] NAMES = {
+        "Paulista",
+        "Augusta",
+        "Independência",
+        "Brasil",
+        "Santos Dumont",
+        "Getúlio Vargas",
+        "Sete de Setembro",
+        "Tiradentes",
+        "Quinze de Novembro",
+        "Dom Pedro II",
+        "Marechal Deodoro",
+        "Rio Branco",
+    };
+
+    private static final String[] CITIES = { "São Paulo", "Rio de Janeiro", "Belo Horizonte", "Brasília", "Curitiba", "Recife" };
+
+    private static final String[] QUERIES_DIGITS = { "0", "013", "01310", "720062", "3013" };
+
+    private static final String[] QUERIES_WORDS = { "paul", "independ", "sete", "sao", "rio bran", "curitiba tira" };
+
+    private static final int LIMIT = 10;
+
+    @Param({ "100000" })
+    private int entries;
+
+    private CepAutocompleteIndex index;
+
+    private List<AddressDTO> newAddresses;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<AddressDTO> addresses = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            addresses.add(address(random));
+        }
+        index = new CepAutocompleteIndex(entries + 1000, 1000);
+        index.addAll(addresses);
+        newAddresses = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            newAddresses.add(address(random));
+        }
+    }
+
+    @Benchmark
+    public List<AddressDTO> cepPrefix() {
+        return index.suggest(QUERIES_DIGITS[next++ % QUERIES_DIGITS.length], LIMIT);
+    }
+
+    @Benchmark
+    public List<AddressDTO> wordPrefix() {
+        return index.suggest(QUERIES_WORDS[next++ % QUERIES_WORDS.length], LIMIT);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public int merge() {
+        newAddresses.forEach(index::add);
+        index.merge();
+        return index.size();
+    }
+
+    private static AddressDTO address(SplittableRandom random) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(CepCodec.formatHyphenated(random.nextInt(100000000)));
+        addressDTO.setStreet(STREET_TYPES[random.nextInt(STREET_TYPES.length)] + " " + NAMES[random.nextInt(NAMES.length)]);
+        addressDTO.setDistrict("Centro");
+        addressDTO.setCity(CITIES[random.nextInt(CITIES.length)]);
+        addressDTO.setUf(Uf.values()[random.nextInt(Uf.values().length)]);
+        return addressDTO;
+    }
+}
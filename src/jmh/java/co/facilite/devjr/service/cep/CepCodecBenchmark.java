@@ -0,0 +1,165 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the String path of the CEP lookup ({@code replaceAll("\\D", "")} then a String-keyed map
+ * of {@link AddressDTO}) with {@link CepCodec} and {@link PackedCepCache}: parse time, lookup time,
+ * and retained heap per cached entry ({@code footprint}, reported as the {@code bytesPerEntry} counter).
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=CepCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CepCodecBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    @Param({ "100000" })
+    private int entries;
+
+    private String[] rawCeps;
+
+    private String[] stringKeys;
+
+    private int[] intKeys;
+
+    private Map<String, AddressDTO> stringMap;
+
+    private PackedCepCache packedCache;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stringMap = fillStringMap(entries);
+        packedCache = fillPackedCache(entries);
+        rawCeps = new String[INPUTS];
+        stringKeys = new String[INPUTS];
+        intKeys = new int[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            int cep = cep((int) ((long) i * entries / INPUTS));
+            rawCeps[i] = CepCodec.formatHyphenated(cep);
+            stringKeys[i] = CepCodec.format(cep);
+            intKeys[i] = cep;
+        }
+    }
+
+    @Benchmark
+    public String parseRegex() {
+        String normalized = rawCeps[next++ & (INPUTS - 1)].replaceAll("\\D", "");
+        return normalized.length() == CepCodec.DIGITS ? normalized : null;
+    }
+
+    @Benchmark
+    public int parseCodec() {
+        return CepCodec.parse(rawCeps[next++ & (INPUTS - 1)]);
+    }
+
+    @Benchmark
+    public AddressDTO lookupStringMap() {
+        return stringMap.get(stringKeys[next++ & (INPUTS - 1)]);
+    }
+
+    @Benchmark
+    public AddressDTO lookupPackedCache() {
+        return packedCache.get(intKeys[next++ & (INPUTS - 1)]);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+
+        public long bytesPerEntry;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public Object footprintStringMap(Footprint footprint) {
+        return measure(footprint, this::fillStringMap);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public Object footprintPackedCache(Footprint footprint) {
+        return measure(footprint, this::fillPackedCache);
+    }
+
+    private Object measure(Footprint footprint, IntFunction<Object> fill) {
+        long before = usedHeap();
+        Object filled = fill.apply(entries);
+        footprint.bytesPerEntry = (usedHeap() - before) / entries;
+        return filled;
+    }
+
+    private Map<String, AddressDTO> fillStringMap(int count) {
+        Map<String, AddressDTO> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < count; i++) {
+            int cep = cep(i);
+            AddressDTO addressDTO = address(cep, i);
+            map.put(CepCodec.format(cep), addressDTO);
+        }
+        return map;
+    }
+
+    private PackedCepCache fillPackedCache(int count) {
+        PackedCepCache cache = new PackedCepCache(count, 3600);
+        for (int i = 0; i < count; i++) {
+            int cep = cep(i);
+            cache.put(cep, address(cep, i));
+        }
+        return cache;
+    }
+
+    private static int cep(int i) {
+        return 1000000 + i * 97;
+    }
+
+    /**
+     * Shaped like a ViaCEP answer; strings are built per entry, as they are when decoded from a response.
+     */
+    private static AddressDTO address(int cep, int i) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(CepCodec.formatHyphenated(cep));
+        addressDTO.setStreet("Rua " + i + " de Setembro");
+        addressDTO.setComplement(i % 3 == 0 ? "até " + i : "");
+        addressDTO.setDistrict("Bairro " + (i % 500));
+        addressDTO.setCity("Cidade " + (i % 50));
+        addressDTO.setUf(Uf.values()[i % Uf.values().length]);
+        return addressDTO;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
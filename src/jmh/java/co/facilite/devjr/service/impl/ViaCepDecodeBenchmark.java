@@ -0,0 +1,111 @@
+package co.facilite.devjr.service.impl;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.cep.ViaCepDecoder;
+import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.ViaCepResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Decoding a ViaCEP answer by binding it to {@link ViaCepResponse} and mapping that to {@link AddressDTO}
+ * ({@link ViaCepProvider#mapToAddressDTO}), as the message converters of the CEP RestTemplate do, versus
+ * {@link ViaCepDecoder}. Both read the same UTF-8 body from a stream, like a response body.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=ViaCepDecodeBenchmark -PjmhArgs="-prof gc"} to also get
+ * the bytes allocated per decode ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViaCepDecodeBenchmark {
+
+    private static final int BODIES = 256;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private byte[][] bodies;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        bodies = new byte[BODIES][];
+        for (int i = 0; i < BODIES; i++) {
+            bodies[i] = answer(i).getBytes(StandardCharsets.UTF_8);
+        }
+        if (!same(bindAndMap(bodies[1]), ViaCepDecoder.decode(new ByteArrayInputStream(bodies[1])))) {
+            throw new IllegalStateException("Both decoders must produce the same address");
+        }
+    }
+
+    @Benchmark
+    public AddressDTO bindAndMap() throws IOException {
+        return bindAndMap(nextBody());
+    }
+
+    @Benchmark
+    public AddressDTO decodeStreaming() throws IOException {
+        return ViaCepDecoder.decode(new ByteArrayInputStream(nextBody()));
+    }
+
+    private AddressDTO bindAndMap(byte[] body) throws IOException {
+        ViaCepResponse response = objectMapper.readValue(new ByteArrayInputStream(body), ViaCepResponse.class);
+        return ViaCepProvider.mapToAddressDTO(response);
+    }
+
+    private byte[] nextBody() {
+        return bodies[next++ & (BODIES - 1)];
+    }
+
+    /**
+     * Shaped like a current ViaCEP answer, including the fields the lookup does not use.
+     */
+    private static String answer(int i) {
+        Uf uf = Uf.values()[i % Uf.values().length];
+        return (
+            "{\n  \"cep\": \"" + String.format("%05d-%03d", 10000 + i * 37, i % 1000) + "\",\n" +
+            "  \"logradouro\": \"Rua " + i + " de Setembro\",\n" +
+            "  \"complemento\": \"" + (i % 3 == 0 ? "até " + i : "") + "\",\n" +
+            "  \"unidade\": \"\",\n" +
+            "  \"bairro\": \"Bairro " + (i % 500) + "\",\n" +
+            "  \"localidade\": \"Cidade " + (i % 50) + "\",\n" +
+            "  \"uf\": \"" + uf + "\",\n" +
+            "  \"estado\": \"Estado " + uf + "\",\n" +
+            "  \"regiao\": \"Sudeste\",\n" +
+            "  \"ibge\": \"" + (3550308 + i) + "\",\n" +
+            "  \"gia\": \"1004\",\n" +
+            "  \"ddd\": \"11\",\n" +
+            "  \"siafi\": \"7107\"\n}"
+        );
+    }
+
+    private static boolean same(AddressDTO a, AddressDTO b) {
+        return (
+            a.getCep().equals(b.getCep()) &&
+            a.getStreet().equals(b.getStreet()) &&
+            a.getComplement().equals(b.getComplement()) &&
+            a.getDistrict().equals(b.getDistrict()) &&
+            a.getCity().equals(b.getCity()) &&
+            a.getUf() == b.getUf()
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package co.facilite.devjr.web.filter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link SlidingWindowQuota#tryAcquire(CharSequence)}, the work {@link CepQuotaFilter} adds to each
+ * request, for a client drawn from {@code clients} IP addresses, on 4 threads. {@code hotClient} has every thread
+ * hit the same client, the worst case for contention on its slot.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhInclude=SlidingWindowQuotaBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class SlidingWindowQuotaBenchmark {
+
+    @Param({ "10000" })
+    private int clients;
+
+    private SlidingWindowQuota quota;
+
+    private String[] addresses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        quota = new SlidingWindowQuota(60000, TimeUnit.MINUTES.toNanos(1), clients);
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int next;
+    }
+
+    @Benchmark
+    public long manyClients(Cursor cursor) {
+        cursor.next = (cursor.next + 7919) % addresses.length;
+        return quota.tryAcquire(addresses[cursor.next]);
+    }
+
+    @Benchmark
+    public long hotClient() {
+        return quota.tryAcquire(addresses[0]);
+    }
+}
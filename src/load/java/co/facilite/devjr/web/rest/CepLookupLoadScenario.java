@@ -0,0 +1,186 @@
+package co.facilite.devjr.web.rest;
+
+import co.facilite.devjr.service.cep.FakeViaCepServer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Load scenario for {@code GET /api/cep/{cep}}: starts a {@link FakeViaCepServer} with the given latency,
+ * error and throttling conditions, sends requests to a running application configured to call it, and
+ * reports throughput and latency percentiles per response status.
+ * <p>
+ * Requests are sent at a fixed {@code --rate} (open loop), and latency is measured from the time each
+ * request was due rather than from when it could be sent, so a stalled application shows up in the
+ * percentiles instead of silently lowering the request rate. Requests due while {@code --max-in-flight}
+ * requests are open are counted as dropped.
+ * <p>
+ * Start the application with {@code APPLICATION_CEP_VIACEP_URL=http://127.0.0.1:8089/ws/{cep}/json/}, then run
+ * <pre>
+ * ./gradlew cepLoadTest -PcepLoadArgs="--rate=500 --duration=60s --latency=lognormal:40:0.5 --error-rate=0.01 --throttle=100:20"
+ * </pre>
+ * Options: {@code --target} (application base URL, {@code http://localhost:8080}), {@code --rate} (requests
+ * per second, 200), {@code --duration} (60s), {@code --warmup} (10s), {@code --max-in-flight} (1000),
+ * {@code --distinct-ceps} (CEPs requests are drawn from, 10000; fewer means hotter caches) and
+ * {@code --unknown-rate} (share of CEPs ViaCEP does not know, 0.01). Any other option goes to
+ * {@link FakeViaCepServer#main(String[])}, listening on {@code --port=8089} unless told otherwise.
+ */
+public class CepLookupLoadScenario {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final Map<Integer, Histogram> latencies = new ConcurrentHashMap<>();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private String target = "http://localhost:8080";
+
+    private double rate = 200;
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    private Duration warmup = Duration.ofSeconds(10);
+
+    private int maxInFlight = 1000;
+
+    private int distinctCeps = 10000;
+
+    private double unknownRate = 0.01;
+
+    private Semaphore inFlight;
+
+    private volatile boolean recording;
+
+    public static void main(String[] args) throws Exception {
+        CepLookupLoadScenario scenario = new CepLookupLoadScenario();
+        List<String> fakeViaCepArgs = new ArrayList<>(List.of("--port=8089"));
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            switch (option[0]) {
+                case "--target" -> scenario.target = option[1];
+                case "--rate" -> scenario.rate = Double.parseDouble(option[1]);
+                case "--duration" -> scenario.duration = Duration.parse("PT" + option[1]);
+                case "--warmup" -> scenario.warmup = Duration.parse("PT" + option[1]);
+                case "--max-in-flight" -> scenario.maxInFlight = Integer.parseInt(option[1]);
+                case "--distinct-ceps" -> scenario.distinctCeps = Integer.parseInt(option[1]);
+                case "--unknown-rate" -> scenario.unknownRate = Double.parseDouble(option[1]);
+                default -> fakeViaCepArgs.add(arg);
+            }
+        }
+        Thread fakeViaCep = new Thread(() -> {
+            try {
+                FakeViaCepServer.main(fakeViaCepArgs.toArray(String[]::new));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        fakeViaCep.setDaemon(true);
+        fakeViaCep.start();
+        scenario.run();
+        System.exit(0);
+    }
+
+    void run() throws InterruptedException {
+        inFlight = new Semaphore(maxInFlight);
+        SplittableRandom random = new SplittableRandom(7);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long warmupEnd = start + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        long sent = 0;
+        for (long due = start; due < end; due += intervalNanos) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            if (due >= warmupEnd) {
+                recording = true;
+                sent++;
+            }
+            send(nextCep(random), due);
+        }
+        // Requests still open are recorded as they complete, at worst after their own timeout.
+        inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS);
+        report(sent);
+    }
+
+    private String nextCep(SplittableRandom random) {
+        if (random.nextDouble() < unknownRate) {
+            return String.format("99%06d", random.nextInt(1000000));
+        }
+        return FakeViaCepServer.cep(random.nextInt(distinctCeps));
+    }
+
+    private void send(String cep, long dueNanos) {
+        if (!inFlight.tryAcquire()) {
+            if (recording) {
+                dropped.increment();
+            }
+            return;
+        }
+        boolean recorded = recording;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/cep/" + cep)).timeout(Duration.ofSeconds(30)).GET().build();
+        client
+            .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, e) -> {
+                inFlight.release();
+                if (!recorded) {
+                    return;
+                }
+                if (e != null) {
+                    failures.increment();
+                    return;
+                }
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueNanos);
+                latencies
+                    .computeIfAbsent(response.statusCode(), status -> new ConcurrentHistogram(MAX_LATENCY_MICROS, 3))
+                    .recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            });
+    }
+
+    private void report(long sent) {
+        double seconds = duration.toMillis() / 1000.0;
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        latencies.values().forEach(all::add);
+        System.out.printf("%nGET /api/cep/{cep} at %.0f req/s for %s, after %s of warm-up%n", rate, duration, warmup);
+        System.out.printf("%-8s %10s %10s %10s %10s %10s %10s%n", "status", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        latencies
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> print(String.valueOf(entry.getKey()), entry.getValue(), seconds));
+        print("all", all, seconds);
+        System.out.printf("sent: %d, dropped: %d, connection failures: %d%n", sent, dropped.sum(), failures.sum());
+    }
+
+    private static void print(String label, Histogram histogram, double seconds) {
+        System.out.printf(
+            "%-8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+            label,
+            histogram.getTotalCount(),
+            histogram.getTotalCount() / seconds,
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getValueAtPercentile(99.9) / 1000.0,
+            histogram.getMaxValue() / 1000.0
+        );
+    }
+}
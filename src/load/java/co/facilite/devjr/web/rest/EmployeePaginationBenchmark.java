@@ -0,0 +1,261 @@
+package co.facilite.devjr.web.rest;
+
+import co.facilite.devjr.service.EmployeeKeyset;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Benchmark of {@code GET /api/employees} paged by offset and by cursor, on page 1 and on page 10,000: seeds the
+ * employee table of the application's database up to {@code --rows} employees, then sends the same request
+ * {@code --requests} times per case, one at a time, and reports latency percentiles.
+ * <p>
+ * The cursor of page 10,000 is built from the keys of the last employee of page 9,999, read from the database, as the
+ * application would have returned it after walking there.
+ * <p>
+ * Start the application against a PostgreSQL database, then run, for example
+ * <pre>
+ * ./gradlew employeePaginationBenchmark -PemployeePaginationArgs="--rows=1000000"
+ * ./gradlew employeePaginationBenchmark -PemployeePaginationArgs="--rows=10000000"
+ * </pre>
+ * Options: {@code --target} (application base URL, {@code http://localhost:8080}), {@code --jdbc-url}
+ * ({@code jdbc:postgresql://localhost:5432/devjr}), {@code --db-user} and {@code --db-password} ({@code postgres} and
+ * {@code root}, as in the dev profile), {@code --username} and {@code --password} (application login, {@code admin}),
+ * {@code --rows} (1000000),
+ * {@code --size} (page size, 20), {@code --sort} ({@code lastName,asc}), {@code --requests} (200) and
+ * {@code --warmup} (50 requests per case).
+ * <p>
+ * {@code --filter} adds cases for filtered lists with an exact total, such as
+ * {@code --filter=active.equals=true&lastName.contains=silva}: the first page, where the total has to be counted,
+ * and the last page, where it does not. Run it at {@code --rows=5000000} before and after a change to the way pages
+ * are counted to compare their latencies.
+ */
+public class EmployeePaginationBenchmark {
+
+    private static final int DEEP_PAGE = 9999;
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * Seeded employees get ids from here on, clear of the ones the application's sequence hands out.
+     */
+    private static final long SEED_ID_BASE = 1_000_000_000L;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String target = "http://localhost:8080";
+
+    private String jdbcUrl = "jdbc:postgresql://localhost:5432/devjr";
+
+    private String dbUser = "postgres";
+
+    private String dbPassword = "root";
+
+    private String username = "admin";
+
+    private String password = "admin";
+
+    private long rows = 1_000_000;
+
+    private int size = 20;
+
+    private String sort = "lastName,asc";
+
+    private int requests = 200;
+
+    private int warmup = 50;
+
+    private String filter;
+
+    private String token;
+
+    public static void main(String[] args) throws Exception {
+        EmployeePaginationBenchmark benchmark = new EmployeePaginationBenchmark();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            switch (option[0]) {
+                case "--target" -> benchmark.target = option[1];
+                case "--jdbc-url" -> benchmark.jdbcUrl = option[1];
+                case "--db-user" -> benchmark.dbUser = option[1];
+                case "--db-password" -> benchmark.dbPassword = option[1];
+                case "--username" -> benchmark.username = option[1];
+                case "--password" -> benchmark.password = option[1];
+                case "--rows" -> benchmark.rows = Long.parseLong(option[1]);
+                case "--size" -> benchmark.size = Integer.parseInt(option[1]);
+                case "--sort" -> benchmark.sort = option[1];
+                case "--requests" -> benchmark.requests = Integer.parseInt(option[1]);
+                case "--warmup" -> benchmark.warmup = Integer.parseInt(option[1]);
+                case "--filter" -> benchmark.filter = option[1];
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        benchmark.run();
+    }
+
+    void run() throws Exception {
+        String deepCursor;
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+            seed(connection);
+            deepCursor = cursorOfPage(connection, DEEP_PAGE);
+        }
+        token = authenticate();
+        String query = "/api/employees?size=" + size + "&sort=" + sort;
+        System.out.printf("%nGET %s on %d employees, %d requests per case after %d of warm-up%n", query, rows, requests, warmup);
+        System.out.printf("%-24s %10s %10s %10s %10s%n", "case", "p50 ms", "p99 ms", "max ms", "rows");
+        measure("offset, page 1", query + "&page=0");
+        measure("offset, page 10000", query + "&page=" + DEEP_PAGE);
+        measure("cursor, page 1", query + "&cursor=");
+        measure("cursor, page 10000", query + "&cursor=" + deepCursor);
+        if (filter != null) {
+            String filtered = query + "&" + filter;
+            measure("filtered, page 1", filtered + "&page=0");
+            measure("filtered, last page", filtered + "&page=" + lastPage(filtered));
+        }
+    }
+
+    /**
+     * @return the number of the last page of the query, from its total count.
+     */
+    private long lastPage(String query) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + query + "&page=0"))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        long total = Long.parseLong(response.headers().firstValue("X-Total-Count").orElse("0"));
+        return Math.max(0, (total - 1) / size);
+    }
+
+    /**
+     * Tops the employee table up to {@code rows} employees, in one statement.
+     */
+    private void seed(Connection connection) throws SQLException {
+        long existing;
+        try (
+            Statement statement = connection.createStatement();
+            ResultSet count = statement.executeQuery("select count(*) from employee")
+        ) {
+            count.next();
+            existing = count.getLong(1);
+        }
+        if (existing >= rows) {
+            return;
+        }
+        System.out.printf("Seeding %d employees...%n", rows - existing);
+        String insert =
+            """
+            insert into employee (id, first_name, last_name, email, phone, hire_date, salary, active)
+            select ? + g,
+                   (array['Ana','Bruno','Carla','Diego','Elisa','Fabio','Gabriela','Hugo','Iara','Joao'])[1 + g % 10],
+                   (array['Almeida','Barbosa','Costa','Dias','Esteves','Ferreira','Gomes','Lima','Moraes','Silva'])[1 + (g / 10) % 10]
+                       || ' ' || md5(g::text),
+                   'bench' || (? + g) || '@example.com',
+                   null,
+                   timestamp '2000-01-01' + (g % 9000) * interval '1 day',
+                   1500 + (g % 20000),
+                   g % 7 <> 0
+            from generate_series(1, ?) g
+            on conflict do nothing
+            """;
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            statement.setLong(1, SEED_ID_BASE + existing);
+            statement.setLong(2, SEED_ID_BASE + existing);
+            statement.setLong(3, rows - existing);
+            statement.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze employee");
+        }
+    }
+
+    /**
+     * @return the cursor of the page, from the keys of the last employee of the page before it.
+     */
+    private String cursorOfPage(Connection connection, int page) throws SQLException {
+        String[] order = sort.split(",");
+        String property = order[0];
+        String column = property.replaceAll("([A-Z])", "_$1").toLowerCase();
+        String direction = order.length > 1 ? order[1] : "asc";
+        try (
+            PreparedStatement statement = connection.prepareStatement(
+                "select " + column + ", id from employee order by " + column + " " + direction + ", id asc offset ? limit 1"
+            )
+        ) {
+            statement.setLong(1, (long) page * size - 1);
+            try (ResultSet last = statement.executeQuery()) {
+                if (!last.next()) {
+                    throw new IllegalStateException("Fewer than " + page * size + " employees");
+                }
+                Sort keysetSort = EmployeeKeyset.sort(Sort.by(Sort.Direction.fromString(direction), property));
+                Map<String, Object> keys = new LinkedHashMap<>();
+                Object value = last.getObject(1);
+                keys.put(property, value instanceof Timestamp timestamp ? timestamp.toInstant() : value);
+                keys.put("id", last.getLong(2));
+                KeysetScrollPosition position = ScrollPosition.forward(keys);
+                return EmployeeKeyset.encode(position, keysetSort);
+            }
+        }
+    }
+
+    private String authenticate() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/authenticate"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Authentication failed with status " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("id_token").asText();
+    }
+
+    private void measure(String label, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + path))
+            .header("Authorization", "Bearer " + token)
+            .timeout(Duration.ofMinutes(1))
+            .GET()
+            .build();
+        Histogram histogram = new Histogram(MAX_LATENCY_MICROS, 3);
+        int returned = 0;
+        for (int i = 0; i < warmup + requests; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(label + " failed with status " + response.statusCode() + ": " + response.body());
+            }
+            if (i >= warmup) {
+                histogram.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            }
+            returned = objectMapper.readTree(response.body()).size();
+        }
+        System.out.printf(
+            "%-24s %10.2f %10.2f %10.2f %10d%n",
+            label,
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getMaxValue() / 1000.0,
+            returned
+        );
+    }
+}
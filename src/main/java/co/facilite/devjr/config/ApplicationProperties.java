@@ -1,5 +1,8 @@
 package co.facilite.devjr.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +16,24 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Cep cep = new Cep();
+
+    private final Employee employee = new Employee();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Cep getCep() {
+        return cep;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +48,806 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Cep {
+
+        private final Cache cache = new Cache();
+
+        private final Dataset dataset = new Dataset();
+
+        private final ViaCep viaCep = new ViaCep();
+
+        private final Http http = new Http();
+
+        private final Executor executor = new Executor();
+
+        private final Batch batch = new Batch();
+
+        private final Snapshot snapshot = new Snapshot();
+
+        private final SharedCache sharedCache = new SharedCache();
+
+        private final Prefetch prefetch = new Prefetch();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        private final BrasilApi brasilApi = new BrasilApi();
+
+        private final Providers providers = new Providers();
+
+        private final Autocomplete autocomplete = new Autocomplete();
+
+        private final Quota quota = new Quota();
+
+        private final Fallback fallback = new Fallback();
+
+        public Cache getCache() {
+            return cache;
+        }
+
+        public Dataset getDataset() {
+            return dataset;
+        }
+
+        public ViaCep getViaCep() {
+            return viaCep;
+        }
+
+        public Http getHttp() {
+            return http;
+        }
+
+        public Executor getExecutor() {
+            return executor;
+        }
+
+        public Batch getBatch() {
+            return batch;
+        }
+
+        public Snapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public SharedCache getSharedCache() {
+            return sharedCache;
+        }
+
+        public Prefetch getPrefetch() {
+            return prefetch;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public BrasilApi getBrasilApi() {
+            return brasilApi;
+        }
+
+        public Providers getProviders() {
+            return providers;
+        }
+
+        public Autocomplete getAutocomplete() {
+            return autocomplete;
+        }
+
+        public Quota getQuota() {
+            return quota;
+        }
+
+        public Fallback getFallback() {
+            return fallback;
+        }
+
+        public static class Cache {
+
+            private long maxEntries = 10000;
+
+            private long timeToLiveSeconds = 86400;
+
+            private long notFoundMaxEntries = 2000;
+
+            private long notFoundTimeToLiveSeconds = 600;
+
+            private long lastKnownGoodMaxEntries = 20000;
+
+            private long lastKnownGoodTimeToLiveSeconds = 2592000;
+
+            private int packedMaxEntries = 0;
+
+            public long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getNotFoundMaxEntries() {
+                return notFoundMaxEntries;
+            }
+
+            public void setNotFoundMaxEntries(long notFoundMaxEntries) {
+                this.notFoundMaxEntries = notFoundMaxEntries;
+            }
+
+            public long getNotFoundTimeToLiveSeconds() {
+                return notFoundTimeToLiveSeconds;
+            }
+
+            public void setNotFoundTimeToLiveSeconds(long notFoundTimeToLiveSeconds) {
+                this.notFoundTimeToLiveSeconds = notFoundTimeToLiveSeconds;
+            }
+
+            public long getLastKnownGoodMaxEntries() {
+                return lastKnownGoodMaxEntries;
+            }
+
+            public void setLastKnownGoodMaxEntries(long lastKnownGoodMaxEntries) {
+                this.lastKnownGoodMaxEntries = lastKnownGoodMaxEntries;
+            }
+
+            public long getLastKnownGoodTimeToLiveSeconds() {
+                return lastKnownGoodTimeToLiveSeconds;
+            }
+
+            public void setLastKnownGoodTimeToLiveSeconds(long lastKnownGoodTimeToLiveSeconds) {
+                this.lastKnownGoodTimeToLiveSeconds = lastKnownGoodTimeToLiveSeconds;
+            }
+
+            public int getPackedMaxEntries() {
+                return packedMaxEntries;
+            }
+
+            public void setPackedMaxEntries(int packedMaxEntries) {
+                this.packedMaxEntries = packedMaxEntries;
+            }
+        }
+
+        public static class Dataset {
+
+            private String path;
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+        }
+
+        public static class ViaCep {
+
+            private String url = "https://viacep.com.br/ws/{cep}/json/";
+
+            private boolean streamingDecode = false;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public boolean isStreamingDecode() {
+                return streamingDecode;
+            }
+
+            public void setStreamingDecode(boolean streamingDecode) {
+                this.streamingDecode = streamingDecode;
+            }
+        }
+
+        public static class Http {
+
+            private int maxConnections = 20;
+
+            private Duration connectTimeout = Duration.ofSeconds(2);
+
+            private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+            private Duration responseTimeout = Duration.ofSeconds(3);
+
+            private Duration idleTimeout = Duration.ofSeconds(30);
+
+            private Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+            public int getMaxConnections() {
+                return maxConnections;
+            }
+
+            public void setMaxConnections(int maxConnections) {
+                this.maxConnections = maxConnections;
+            }
+
+            public Duration getConnectTimeout() {
+                return connectTimeout;
+            }
+
+            public void setConnectTimeout(Duration connectTimeout) {
+                this.connectTimeout = connectTimeout;
+            }
+
+            public Duration getConnectionRequestTimeout() {
+                return connectionRequestTimeout;
+            }
+
+            public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+                this.connectionRequestTimeout = connectionRequestTimeout;
+            }
+
+            public Duration getResponseTimeout() {
+                return responseTimeout;
+            }
+
+            public void setResponseTimeout(Duration responseTimeout) {
+                this.responseTimeout = responseTimeout;
+            }
+
+            public Duration getIdleTimeout() {
+                return idleTimeout;
+            }
+
+            public void setIdleTimeout(Duration idleTimeout) {
+                this.idleTimeout = idleTimeout;
+            }
+
+            public Duration getConnectionTimeToLive() {
+                return connectionTimeToLive;
+            }
+
+            public void setConnectionTimeToLive(Duration connectionTimeToLive) {
+                this.connectionTimeToLive = connectionTimeToLive;
+            }
+        }
+
+        public static class Executor {
+
+            private int poolSize = 16;
+
+            private int queueCapacity = 1000;
+
+            private Duration timeout = Duration.ofSeconds(5);
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+
+        public static class Batch {
+
+            private int maxSize = 500;
+
+            private int maxConcurrency = 8;
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getMaxConcurrency() {
+                return maxConcurrency;
+            }
+
+            public void setMaxConcurrency(int maxConcurrency) {
+                this.maxConcurrency = maxConcurrency;
+            }
+        }
+
+        public static class Snapshot {
+
+            private String path;
+
+            private Duration interval = Duration.ofMinutes(1);
+
+            private int maxLogEntries = 10000;
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+
+            public int getMaxLogEntries() {
+                return maxLogEntries;
+            }
+
+            public void setMaxLogEntries(int maxLogEntries) {
+                this.maxLogEntries = maxLogEntries;
+            }
+        }
+
+        public static class SharedCache {
+
+            private boolean enabled = true;
+
+            private Duration flushInterval = Duration.ofSeconds(2);
+
+            private int maxPending = 10000;
+
+            private Duration refreshInterval = Duration.ofMinutes(1);
+
+            private Duration refreshAfter = Duration.ofHours(20);
+
+            private int refreshBatchSize = 100;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getFlushInterval() {
+                return flushInterval;
+            }
+
+            public void setFlushInterval(Duration flushInterval) {
+                this.flushInterval = flushInterval;
+            }
+
+            public int getMaxPending() {
+                return maxPending;
+            }
+
+            public void setMaxPending(int maxPending) {
+                this.maxPending = maxPending;
+            }
+
+            public Duration getRefreshInterval() {
+                return refreshInterval;
+            }
+
+            public void setRefreshInterval(Duration refreshInterval) {
+                this.refreshInterval = refreshInterval;
+            }
+
+            public Duration getRefreshAfter() {
+                return refreshAfter;
+            }
+
+            public void setRefreshAfter(Duration refreshAfter) {
+                this.refreshAfter = refreshAfter;
+            }
+
+            public int getRefreshBatchSize() {
+                return refreshBatchSize;
+            }
+
+            public void setRefreshBatchSize(int refreshBatchSize) {
+                this.refreshBatchSize = refreshBatchSize;
+            }
+        }
+
+        public static class Prefetch {
+
+            private boolean enabled = true;
+
+            private boolean onStartup = true;
+
+            private String cron = "0 30 5 * * *";
+
+            private int pageSize = 500;
+
+            private double ratePerSecond = 5;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public boolean isOnStartup() {
+                return onStartup;
+            }
+
+            public void setOnStartup(boolean onStartup) {
+                this.onStartup = onStartup;
+            }
+
+            public String getCron() {
+                return cron;
+            }
+
+            public void setCron(String cron) {
+                this.cron = cron;
+            }
+
+            public int getPageSize() {
+                return pageSize;
+            }
+
+            public void setPageSize(int pageSize) {
+                this.pageSize = pageSize;
+            }
+
+            public double getRatePerSecond() {
+                return ratePerSecond;
+            }
+
+            public void setRatePerSecond(double ratePerSecond) {
+                this.ratePerSecond = ratePerSecond;
+            }
+        }
+
+        public static class RateLimit {
+
+            private boolean enabled = true;
+
+            private double permitsPerSecond = 10;
+
+            private int burst = 20;
+
+            private int maxQueued = 200;
+
+            private Duration maxWait = Duration.ofSeconds(2);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public double getPermitsPerSecond() {
+                return permitsPerSecond;
+            }
+
+            public void setPermitsPerSecond(double permitsPerSecond) {
+                this.permitsPerSecond = permitsPerSecond;
+            }
+
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+
+            public int getMaxQueued() {
+                return maxQueued;
+            }
+
+            public void setMaxQueued(int maxQueued) {
+                this.maxQueued = maxQueued;
+            }
+
+            public Duration getMaxWait() {
+                return maxWait;
+            }
+
+            public void setMaxWait(Duration maxWait) {
+                this.maxWait = maxWait;
+            }
+        }
+
+
+        public static class BrasilApi {
+
+            private boolean enabled = false;
+
+            private String url = "https://brasilapi.com.br/api/cep/v1/{cep}";
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+        }
+
+
+        public static class Providers {
+
+            private List<String> order = new ArrayList<>(List.of("viacep", "brasilapi"));
+
+            private boolean hedge = true;
+
+            private Duration hedgeInitialDelay = Duration.ofMillis(300);
+
+            private Duration hedgeMinDelay = Duration.ofMillis(50);
+
+            private Duration hedgeMaxDelay = Duration.ofSeconds(1);
+
+            private Duration reorderInterval = Duration.ofSeconds(30);
+
+            public List<String> getOrder() {
+                return order;
+            }
+
+            public void setOrder(List<String> order) {
+                this.order = order;
+            }
+
+            public boolean isHedge() {
+                return hedge;
+            }
+
+            public void setHedge(boolean hedge) {
+                this.hedge = hedge;
+            }
+
+            public Duration getHedgeInitialDelay() {
+                return hedgeInitialDelay;
+            }
+
+            public void setHedgeInitialDelay(Duration hedgeInitialDelay) {
+                this.hedgeInitialDelay = hedgeInitialDelay;
+            }
+
+            public Duration getHedgeMinDelay() {
+                return hedgeMinDelay;
+            }
+
+            public void setHedgeMinDelay(Duration hedgeMinDelay) {
+                this.hedgeMinDelay = hedgeMinDelay;
+            }
+
+            public Duration getHedgeMaxDelay() {
+                return hedgeMaxDelay;
+            }
+
+            public void setHedgeMaxDelay(Duration hedgeMaxDelay) {
+                this.hedgeMaxDelay = hedgeMaxDelay;
+            }
+
+            public Duration getReorderInterval() {
+                return reorderInterval;
+            }
+
+            public void setReorderInterval(Duration reorderInterval) {
+                this.reorderInterval = reorderInterval;
+            }
+        }
+
+        public static class Autocomplete {
+
+            private boolean enabled = true;
+
+            private int maxEntries = 100000;
+
+            private int maxPending = 2000;
+
+            private Duration mergeInterval = Duration.ofSeconds(5);
+
+            private int defaultLimit = 10;
+
+            private int maxLimit = 50;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public int getMaxPending() {
+                return maxPending;
+            }
+
+            public void setMaxPending(int maxPending) {
+                this.maxPending = maxPending;
+            }
+
+            public Duration getMergeInterval() {
+                return mergeInterval;
+            }
+
+            public void setMergeInterval(Duration mergeInterval) {
+                this.mergeInterval = mergeInterval;
+            }
+
+            public int getDefaultLimit() {
+                return defaultLimit;
+            }
+
+            public void setDefaultLimit(int defaultLimit) {
+                this.defaultLimit = defaultLimit;
+            }
+
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+        }
+
+        public static class Quota {
+
+            private boolean enabled = true;
+
+            private int limit = 120;
+
+            private Duration window = Duration.ofMinutes(1);
+
+            private int maxClients = 100000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getLimit() {
+                return limit;
+            }
+
+            public void setLimit(int limit) {
+                this.limit = limit;
+            }
+
+            public Duration getWindow() {
+                return window;
+            }
+
+            public void setWindow(Duration window) {
+                this.window = window;
+            }
+
+            public int getMaxClients() {
+                return maxClients;
+            }
+
+            public void setMaxClients(int maxClients) {
+                this.maxClients = maxClients;
+            }
+        }
+
+        public static class Fallback {
+
+            private boolean partial = false;
+
+            public boolean isPartial() {
+                return partial;
+            }
+
+            public void setPartial(boolean partial) {
+                this.partial = partial;
+            }
+        }
+    }
+
+    public static class Employee {
+
+        private final Count count = new Count();
+
+        private final Search search = new Search();
+
+        public Count getCount() {
+            return count;
+        }
+
+        public Search getSearch() {
+            return search;
+        }
+
+        public static class Count {
+
+            private long cacheMaxEntries = 1000;
+
+            private long cacheTimeToLiveSeconds = 300;
+
+            private int executorPoolSize = 4;
+
+            private Duration headStart = Duration.ofMillis(50);
+
+            public long getCacheMaxEntries() {
+                return cacheMaxEntries;
+            }
+
+            public void setCacheMaxEntries(long cacheMaxEntries) {
+                this.cacheMaxEntries = cacheMaxEntries;
+            }
+
+            public long getCacheTimeToLiveSeconds() {
+                return cacheTimeToLiveSeconds;
+            }
+
+            public void setCacheTimeToLiveSeconds(long cacheTimeToLiveSeconds) {
+                this.cacheTimeToLiveSeconds = cacheTimeToLiveSeconds;
+            }
+
+            public int getExecutorPoolSize() {
+                return executorPoolSize;
+            }
+
+            public void setExecutorPoolSize(int executorPoolSize) {
+                this.executorPoolSize = executorPoolSize;
+            }
+
+            public Duration getHeadStart() {
+                return headStart;
+            }
+
+            public void setHeadStart(Duration headStart) {
+                this.headStart = headStart;
+            }
+        }
+
+        public static class Search {
+
+            private int maxResultWindow = 10000;
+
+            public int getMaxResultWindow() {
+                return maxResultWindow;
+            }
+
+            public void setMaxResultWindow(int maxResultWindow) {
+                this.maxResultWindow = maxResultWindow;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
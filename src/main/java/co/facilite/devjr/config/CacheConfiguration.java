@@ -22,17 +22,39 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
     private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> cepJcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> cepNotFoundJcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> cepLastKnownGoodJcacheConfiguration;
+    private final javax.cache.configuration.Configuration<Object, Object> employeeCountJcacheConfiguration;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+        ApplicationProperties.Cep.Cache cepCache = applicationProperties.getCep().getCache();
 
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(
-                Object.class,
-                Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries())
-            )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
+        jcacheConfiguration = buildJcacheConfiguration(ehcache.getMaxEntries(), ehcache.getTimeToLiveSeconds());
+        cepJcacheConfiguration = buildJcacheConfiguration(cepCache.getMaxEntries(), cepCache.getTimeToLiveSeconds());
+        cepNotFoundJcacheConfiguration = buildJcacheConfiguration(
+            cepCache.getNotFoundMaxEntries(),
+            cepCache.getNotFoundTimeToLiveSeconds()
+        );
+        cepLastKnownGoodJcacheConfiguration = buildJcacheConfiguration(
+            cepCache.getLastKnownGoodMaxEntries(),
+            cepCache.getLastKnownGoodTimeToLiveSeconds()
+        );
+        ApplicationProperties.Employee.Count employeeCount = applicationProperties.getEmployee().getCount();
+        employeeCountJcacheConfiguration = buildJcacheConfiguration(
+            employeeCount.getCacheMaxEntries(),
+            employeeCount.getCacheTimeToLiveSeconds()
+        );
+    }
+
+    private static javax.cache.configuration.Configuration<Object, Object> buildJcacheConfiguration(
+        long maxEntries,
+        long timeToLiveSeconds
+    ) {
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(timeToLiveSeconds)))
                 .build()
         );
     }
@@ -53,17 +75,31 @@ public class CacheConfiguration {
             createCache(cm, co.facilite.devjr.domain.Department.class.getName());
             createCache(cm, co.facilite.devjr.domain.Address.class.getName());
             createCache(cm, co.facilite.devjr.domain.Employee.class.getName());
+            createCache(cm, co.facilite.devjr.service.CepLookupService.CEP_CACHE, cepJcacheConfiguration);
+            createCache(cm, co.facilite.devjr.service.CepLookupService.CEP_NOT_FOUND_CACHE, cepNotFoundJcacheConfiguration);
+            createCache(cm, co.facilite.devjr.service.CepLookupService.CEP_LAST_KNOWN_GOOD_CACHE, cepLastKnownGoodJcacheConfiguration);
+            createCache(cm, co.facilite.devjr.service.EmployeeQueryService.EMPLOYEE_COUNT_CACHE, employeeCountJcacheConfiguration);
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration);
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
         }
+        // Exposes hits, misses and evictions through the cache meters registered by Spring Boot
+        cm.enableStatistics(cacheName, true);
     }
 
     @Autowired(required = false)
@@ -0,0 +1,65 @@
+package co.facilite.devjr.config;
+
+import co.facilite.devjr.service.cep.CepDataset;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Infrastructure used by the CEP lookup.
+ */
+@Configuration
+public class CepLookupConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepLookupConfiguration.class);
+
+    /**
+     * Opens the offline CEP dataset when {@code application.cep.dataset.path} is set.
+     */
+    @Bean
+    @ConditionalOnProperty("application.cep.dataset.path")
+    public CepDataset cepDataset(ApplicationProperties applicationProperties) throws IOException {
+        Path path = Path.of(applicationProperties.getCep().getDataset().getPath());
+        CepDataset cepDataset = CepDataset.open(path);
+        LOG.info("Offline CEP dataset {} mapped with {} CEPs", path, cepDataset.size());
+        return cepDataset;
+    }
+
+    /**
+     * Bounded pool running CEP lookups off the caller's thread, kept apart from the
+     * general task executor so a burst of lookups cannot starve other async work.
+     */
+    @Bean(name = "cepLookupExecutor")
+    public ThreadPoolTaskExecutor cepLookupExecutor(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cep.Executor properties = applicationProperties.getCep().getExecutor();
+        LOG.debug("Creating CEP lookup executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("cep-lookup-");
+        return executor;
+    }
+
+    /**
+     * Runs the CEP provider calls of a lookup that may be hedged, one thread per pooled HTTP connection.
+     * It has no queue, and rejects a call that finds every thread busy: the chain then runs it on the lookup's own
+     * thread, unhedged, since there is no thread left to race it on.
+     */
+    @Bean(name = "cepProviderExecutor")
+    public ThreadPoolTaskExecutor cepProviderExecutor(ApplicationProperties applicationProperties) {
+        int maxConnections = applicationProperties.getCep().getHttp().getMaxConnections();
+        LOG.debug("Creating CEP provider executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConnections);
+        executor.setMaxPoolSize(maxConnections);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("cep-provider-");
+        return executor;
+    }
+}
@@ -3,7 +3,9 @@ package co.facilite.devjr.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 
 import co.facilite.devjr.security.*;
+import co.facilite.devjr.web.filter.CepQuotaFilter;
 import co.facilite.devjr.web.filter.SpaWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -28,8 +30,18 @@ public class SecurityConfiguration {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public SecurityConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    public SecurityConfiguration(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -39,6 +51,10 @@ public class SecurityConfiguration {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, MvcRequestMatcher.Builder mvc) throws Exception {
+        ApplicationProperties.Cep.Quota cepQuota = applicationProperties.getCep().getQuota();
+        if (cepQuota.isEnabled()) {
+            http.addFilterBefore(new CepQuotaFilter(cepQuota, meterRegistry), BasicAuthenticationFilter.class);
+        }
         http
             .cors(withDefaults())
             .csrf(csrf -> csrf.disable())
@@ -1,14 +1,64 @@
 package co.facilite.devjr.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class WebConfig {
 
+    /**
+     * Outbound HTTP client for the CEP lookup: pooled keep-alive connections, bounded waits for a
+     * pooled connection, for connecting and for the response, and transparent gzip/deflate decoding.
+     * Pool utilisation is published under {@code httpcomponents.httpclient.pool.*} with {@code httpclient=cep}.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient cepHttpClient(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Cep.Http http = applicationProperties.getCep().getHttp();
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(http.getMaxConnections())
+            .setMaxConnPerRoute(http.getMaxConnections())
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(http.getConnectTimeout()))
+                    .setSocketTimeout(Timeout.of(http.getResponseTimeout()))
+                    .setTimeToLive(TimeValue.of(http.getConnectionTimeToLive()))
+                    .build()
+            )
+            .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "cep").bindTo(meterRegistry);
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.of(http.getConnectionRequestTimeout()))
+                    .setResponseTimeout(Timeout.of(http.getResponseTimeout()))
+                    .build()
+            )
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(http.getIdleTimeout()))
+            .build();
+    }
+
+    /**
+     * Built from the auto-configured {@link RestTemplateBuilder}, so upstream latency is recorded
+     * in the {@code http.client.requests} metric.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate cepRestTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient cepHttpClient) {
+        return restTemplateBuilder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(cepHttpClient)).build();
     }
 }
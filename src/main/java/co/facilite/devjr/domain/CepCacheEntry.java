@@ -0,0 +1,163 @@
+package co.facilite.devjr.domain;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A CEP resolved by any application node, shared through the {@code cep_cache} table.
+ * Deliberately not in the second-level cache: it is the cross-node layer behind the local caches.
+ */
+@Entity
+@Table(name = "cep_cache")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CepCacheEntry implements Serializable, Persistable<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "cep", nullable = false)
+    private Integer cep;
+
+    @Column(name = "street")
+    private String street;
+
+    @Column(name = "complement")
+    private String complement;
+
+    @Column(name = "district")
+    private String district;
+
+    @Column(name = "city")
+    private String city;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "uf")
+    private Uf uf;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    @org.springframework.data.annotation.Transient
+    @Transient
+    private boolean isPersisted;
+
+    public Integer getCep() {
+        return this.cep;
+    }
+
+    public CepCacheEntry cep(Integer cep) {
+        this.setCep(cep);
+        return this;
+    }
+
+    public void setCep(Integer cep) {
+        this.cep = cep;
+    }
+
+    public String getStreet() {
+        return this.street;
+    }
+
+    public void setStreet(String street) {
+        this.street = street;
+    }
+
+    public String getComplement() {
+        return this.complement;
+    }
+
+    public void setComplement(String complement) {
+        this.complement = complement;
+    }
+
+    public String getDistrict() {
+        return this.district;
+    }
+
+    public void setDistrict(String district) {
+        this.district = district;
+    }
+
+    public String getCity() {
+        return this.city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public Uf getUf() {
+        return this.uf;
+    }
+
+    public void setUf(Uf uf) {
+        this.uf = uf;
+    }
+
+    public Instant getFetchedAt() {
+        return this.fetchedAt;
+    }
+
+    public CepCacheEntry fetchedAt(Instant fetchedAt) {
+        this.setFetchedAt(fetchedAt);
+        return this;
+    }
+
+    public void setFetchedAt(Instant fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Override
+    public Integer getId() {
+        return this.cep;
+    }
+
+    @org.springframework.data.annotation.Transient
+    @Transient
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    public CepCacheEntry setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CepCacheEntry)) {
+            return false;
+        }
+        return getCep() != null && getCep().equals(((CepCacheEntry) o).getCep());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getCep());
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CepCacheEntry{" +
+            "cep=" + getCep() +
+            ", city='" + getCity() + "'" +
+            ", uf='" + getUf() + "'" +
+            ", fetchedAt='" + getFetchedAt() + "'" +
+            "}";
+    }
+}
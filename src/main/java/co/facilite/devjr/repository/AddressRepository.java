@@ -1,7 +1,10 @@
 package co.facilite.devjr.repository;
 
 import co.facilite.devjr.domain.Address;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,13 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {}
+public interface AddressRepository extends JpaRepository<Address, Long> {
+    /**
+     * Keyset-paged distinct CEPs, as stored: pass the last CEP of the previous page to get the next one.
+     */
+    @Query("select distinct address.cep from Address address where address.cep > :after order by address.cep")
+    List<String> findDistinctCepsAfter(@Param("after") String after, Pageable pageable);
+
+    @Query("select count(distinct address.cep) from Address address")
+    long countDistinctCeps();
+}
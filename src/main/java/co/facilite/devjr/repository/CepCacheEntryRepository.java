@@ -0,0 +1,23 @@
+package co.facilite.devjr.repository;
+
+import co.facilite.devjr.domain.CepCacheEntry;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the CepCacheEntry entity.
+ */
+@Repository
+public interface CepCacheEntryRepository extends JpaRepository<CepCacheEntry, Integer> {
+    List<CepCacheEntry> findByFetchedAtBeforeOrderByFetchedAtAsc(Instant fetchedAt, Pageable pageable);
+
+    List<CepCacheEntry> findByCepGreaterThanOrderByCepAsc(Integer cep, Pageable pageable);
+
+    @Modifying
+    @Query("delete from CepCacheEntry entry where entry.fetchedAt < :fetchedAt")
+    int deleteByFetchedAtBefore(@Param("fetchedAt") Instant fetchedAt);
+}
@@ -1,8 +1,12 @@
 package co.facilite.devjr.repository;
 
 import co.facilite.devjr.domain.Employee;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -13,7 +17,32 @@ import org.springframework.stereotype.Repository;
  * Spring Data JPA repository for the Employee entity.
  */
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee> {
+public interface EmployeeRepository
+    extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>, EmployeeRepositoryWithProjections {
+    String SEARCH_FIELDS_QUERY =
+        "select employee.id as id, employee.firstName as firstName, employee.lastName as lastName, employee.email as email," +
+        " employee.phone as phone, department.name as departmentName, address.city as city" +
+        " from Employee employee left join employee.department department left join employee.address address";
+
+    /**
+     * The searchable text of an employee, read without loading the entity.
+     */
+    interface SearchFields {
+        Long getId();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getEmail();
+
+        String getPhone();
+
+        String getDepartmentName();
+
+        String getCity();
+    }
+
     default Optional<Employee> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -37,4 +66,32 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSp
 
     @Query("select employee from Employee employee left join fetch employee.department where employee.id =:id")
     Optional<Employee> findOneWithToOneRelationships(@Param("id") Long id);
+
+    @Query("select employee from Employee employee left join fetch employee.department where employee.id in :ids")
+    List<Employee> findAllWithToOneRelationshipsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the searchable text of every employee, read from a cursor; the stream must be closed, and consumed
+     * within a transaction.
+     */
+    @Query(SEARCH_FIELDS_QUERY)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SearchFields> streamSearchFields();
+
+    @Query(SEARCH_FIELDS_QUERY + " where employee.id in :ids")
+    List<SearchFields> findSearchFieldsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SEARCH_FIELDS_QUERY + " where department.id in :departmentIds")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<SearchFields> streamSearchFieldsByDepartmentIdIn(@Param("departmentIds") Collection<Long> departmentIds);
+
+    @Query(SEARCH_FIELDS_QUERY + " where address.id in :addressIds")
+    List<SearchFields> findSearchFieldsByAddressIdIn(@Param("addressIds") Collection<Long> addressIds);
+
+    /**
+     * @return the number of employees the PostgreSQL planner assumes, as of the last vacuum or analyze of the table,
+     * or a negative number if there was none yet.
+     */
+    @Query(value = "select cast(reltuples as bigint) from pg_class where oid = cast('employee' as regclass)", nativeQuery = true)
+    long estimateCount();
 }
@@ -0,0 +1,34 @@
+package co.facilite.devjr.repository;
+
+import co.facilite.devjr.domain.Employee;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Reads of employees straight into flat projections, in one statement selecting only the columns they show, rather
+ * than as managed entities: nothing is hydrated nor tracked by the persistence context, and the department is joined
+ * instead of loaded employee by employee.
+ * <p>
+ * The projection type must have a public constructor taking, in order: the id, first name, last name, email, phone,
+ * hire date, salary and active flag of the employee, the id of its address, and the id and name of its department.
+ */
+public interface EmployeeRepositoryWithProjections {
+    /**
+     * @param type the projection type.
+     * @param specification the employees to read.
+     * @param sort the order, on properties of the employee, possibly nested such as {@code department.name}.
+     * @return every matching employee.
+     */
+    <T> List<T> findAllProjected(Class<T> type, Specification<Employee> specification, Sort sort);
+
+    /**
+     * @param type the projection type.
+     * @param specification the employees to read.
+     * @param sort the order, on properties of the employee, possibly nested such as {@code department.name}.
+     * @param offset the number of matching employees to skip.
+     * @param limit the maximum number of employees to read.
+     * @return the matching employees from the offset.
+     */
+    <T> List<T> findAllProjected(Class<T> type, Specification<Employee> specification, Sort sort, long offset, int limit);
+}
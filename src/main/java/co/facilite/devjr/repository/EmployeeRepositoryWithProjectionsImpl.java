@@ -0,0 +1,73 @@
+package co.facilite.devjr.repository;
+
+import co.facilite.devjr.domain.Address_;
+import co.facilite.devjr.domain.Department;
+import co.facilite.devjr.domain.Department_;
+import co.facilite.devjr.domain.Employee;
+import co.facilite.devjr.domain.Employee_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+/**
+ * Implementation of {@link EmployeeRepositoryWithProjections}, with the criteria API, so it shares its filters and
+ * sort handling with the entity queries.
+ */
+public class EmployeeRepositoryWithProjectionsImpl implements EmployeeRepositoryWithProjections {
+
+    private final EntityManager entityManager;
+
+    public EmployeeRepositoryWithProjectionsImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public <T> List<T> findAllProjected(Class<T> type, Specification<Employee> specification, Sort sort) {
+        return query(type, specification, sort).getResultList();
+    }
+
+    @Override
+    public <T> List<T> findAllProjected(Class<T> type, Specification<Employee> specification, Sort sort, long offset, int limit) {
+        return query(type, specification, sort).setFirstResult(Math.toIntExact(offset)).setMaxResults(limit).getResultList();
+    }
+
+    private <T> TypedQuery<T> query(Class<T> type, Specification<Employee> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<Employee> root = query.from(Employee.class);
+        // Sorting on department properties reuses this join.
+        Join<Employee, Department> department = root.join(Employee_.department, JoinType.LEFT);
+        query.select(
+            cb.construct(
+                type,
+                root.get(Employee_.id),
+                root.get(Employee_.firstName),
+                root.get(Employee_.lastName),
+                root.get(Employee_.email),
+                root.get(Employee_.phone),
+                root.get(Employee_.hireDate),
+                root.get(Employee_.salary),
+                root.get(Employee_.active),
+                // The foreign key column, without joining the address.
+                root.get(Employee_.address).get(Address_.id),
+                department.get(Department_.id),
+                department.get(Department_.name)
+            )
+        );
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+}
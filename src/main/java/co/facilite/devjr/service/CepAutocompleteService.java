@@ -0,0 +1,142 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.CepCacheEntry;
+import co.facilite.devjr.repository.CepCacheEntryRepository;
+import co.facilite.devjr.service.cep.CepAutocompleteIndex;
+import co.facilite.devjr.service.cep.CepCodec;
+import co.facilite.devjr.service.dto.AddressDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service suggesting addresses from the first digits of a CEP or the first letters of its street and city.
+ * <p>
+ * Suggestions come from a {@link CepAutocompleteIndex} loaded in the background from the {@code cep_cache} table
+ * once the application is ready, and fed with every address the CEP providers resolve afterwards. Those are
+ * merged into the index every {@code application.cep.autocomplete.merge-interval}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.cep.autocomplete", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CepAutocompleteService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepAutocompleteService.class);
+
+    public static final String ENTRIES_METER_NAME = "cep.autocomplete.entries";
+    public static final String PENDING_METER_NAME = "cep.autocomplete.pending";
+    public static final String REJECTED_METER_NAME = "cep.autocomplete.rejected";
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final CepCacheEntryRepository cepCacheEntryRepository;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ApplicationProperties.Cep.Autocomplete properties;
+
+    private final CepAutocompleteIndex index;
+
+    private final List<ScheduledFuture<?>> scheduled = new ArrayList<>();
+
+    public CepAutocompleteService(
+        CepCacheEntryRepository cepCacheEntryRepository,
+        CepProviderChain cepProviderChain,
+        TaskScheduler taskScheduler,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.cepCacheEntryRepository = cepCacheEntryRepository;
+        this.taskScheduler = taskScheduler;
+        this.properties = applicationProperties.getCep().getAutocomplete();
+        this.index = new CepAutocompleteIndex(properties.getMaxEntries(), properties.getMaxPending());
+        cepProviderChain.onResolved(index::add);
+        Gauge.builder(ENTRIES_METER_NAME, index, CepAutocompleteIndex::size)
+            .description("Addresses in the CEP autocomplete index")
+            .register(meterRegistry);
+        Gauge.builder(PENDING_METER_NAME, index, CepAutocompleteIndex::pendingSize)
+            .description("Addresses resolved since the CEP autocomplete index was last merged")
+            .register(meterRegistry);
+        FunctionCounter.builder(REJECTED_METER_NAME, index, CepAutocompleteIndex::rejected)
+            .description("Addresses left out of the CEP autocomplete index because it was full")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        scheduled.add(taskScheduler.schedule(this::load, Instant.now()));
+        scheduled.add(taskScheduler.scheduleWithFixedDelay(index::merge, properties.getMergeInterval()));
+    }
+
+    /**
+     * @param query the first digits of a CEP, or the first letters of words of its street or city.
+     * @param limit the maximum number of addresses, {@code application.cep.autocomplete.default-limit} when
+     * {@code null}, and at most {@code application.cep.autocomplete.max-limit}.
+     * @return the matching addresses.
+     */
+    public List<AddressDTO> suggest(String query, Integer limit) {
+        int effectiveLimit = limit == null ? properties.getDefaultLimit() : Math.min(limit, properties.getMaxLimit());
+        return index.suggest(query, effectiveLimit);
+    }
+
+    /**
+     * Reads the {@code cep_cache} table in keyset pages, up to {@code application.cep.autocomplete.max-entries} rows,
+     * and loads them into the index at once.
+     */
+    void load() {
+        long start = System.nanoTime();
+        List<AddressDTO> addresses = new ArrayList<>();
+        int after = -1;
+        try {
+            while (addresses.size() < properties.getMaxEntries()) {
+                List<CepCacheEntry> page = cepCacheEntryRepository.findByCepGreaterThanOrderByCepAsc(
+                    after,
+                    PageRequest.of(0, LOAD_PAGE_SIZE)
+                );
+                page.forEach(entry -> addresses.add(toAddressDTO(entry)));
+                if (page.size() < LOAD_PAGE_SIZE) {
+                    break;
+                }
+                after = page.get(page.size() - 1).getCep();
+            }
+        } catch (DataAccessException e) {
+            LOG.warn("Could not load the CEP autocomplete index from the shared cache: {}", e.getMessage());
+        }
+        index.addAll(addresses);
+        LOG.info("Loaded {} addresses into the CEP autocomplete index in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        scheduled.forEach(future -> future.cancel(false));
+    }
+
+    CepAutocompleteIndex index() {
+        return index;
+    }
+
+    private static AddressDTO toAddressDTO(CepCacheEntry entry) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(CepCodec.formatHyphenated(entry.getCep()));
+        addressDTO.setStreet(entry.getStreet());
+        addressDTO.setComplement(entry.getComplement());
+        addressDTO.setDistrict(entry.getDistrict());
+        addressDTO.setCity(entry.getCity());
+        addressDTO.setUf(entry.getUf());
+        return addressDTO;
+    }
+}
@@ -0,0 +1,116 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.service.dto.CepLookupResultDTO;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Service resolving many CEPs at once through {@link CepLookupService}.
+ */
+@Service
+public class CepBatchLookupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepBatchLookupService.class);
+
+    private final CepLookupService cepLookupService;
+
+    private final Executor cepLookupExecutor;
+
+    private final int maxConcurrency;
+
+    public CepBatchLookupService(
+        CepLookupService cepLookupService,
+        @Qualifier("cepLookupExecutor") Executor cepLookupExecutor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cepLookupService = cepLookupService;
+        this.cepLookupExecutor = cepLookupExecutor;
+        this.maxConcurrency = applicationProperties.getCep().getBatch().getMaxConcurrency();
+    }
+
+    /**
+     * Normalizes and deduplicates the given CEPs, then looks them up concurrently, at most
+     * {@code application.cep.batch.max-concurrency} at a time.
+     * <p>
+     * Each result is handed to {@code consumer} as soon as it is available, always from the calling thread.
+     * Invalid CEPs are reported with status {@code 400} under the value that was sent.
+     *
+     * @param ceps the CEPs to look up, in any format accepted by {@link CepLookupService#normalizeCep(String)}.
+     * @param consumer receives one result per distinct CEP, in completion order.
+     */
+    public void lookupAll(Collection<String> ceps, Consumer<CepLookupResultDTO> consumer) {
+        LOG.debug("Request to look up a batch of {} CEPs", ceps.size());
+        Set<String> normalizedCeps = new LinkedHashSet<>();
+        Set<String> invalidCeps = new HashSet<>();
+        for (String cep : ceps) {
+            try {
+                normalizedCeps.add(cepLookupService.normalizeCep(cep));
+            } catch (ResponseStatusException e) {
+                if (invalidCeps.add(cep)) {
+                    consumer.accept(CepLookupResultDTO.failed(cep, e.getStatusCode().value(), e.getReason()));
+                }
+            }
+        }
+
+        CompletionService<CepLookupResultDTO> completionService = new ExecutorCompletionService<>(cepLookupExecutor);
+        Semaphore permits = new Semaphore(maxConcurrency);
+        int pending = 0;
+        try {
+            for (String cep : normalizedCeps) {
+                permits.acquire();
+                try {
+                    completionService.submit(() -> {
+                        try {
+                            return lookup(cep);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                    pending++;
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    consumer.accept(CepLookupResultDTO.failed(cep, HttpStatus.SERVICE_UNAVAILABLE.value(), "CEP lookup busy"));
+                }
+                for (Future<CepLookupResultDTO> done; (done = completionService.poll()) != null; pending--) {
+                    consumer.accept(done.get());
+                }
+            }
+            for (; pending > 0; pending--) {
+                consumer.accept(completionService.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "CEP batch interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unexpected CEP lookup failure", e.getCause());
+        }
+    }
+
+    private CepLookupResultDTO lookup(String cep) {
+        try {
+            return CepLookupResultDTO.found(cep, cepLookupService.lookup(cep));
+        } catch (ResponseStatusException e) {
+            return CepLookupResultDTO.failed(cep, e.getStatusCode().value(), e.getReason());
+        } catch (RuntimeException e) {
+            LOG.warn("Unexpected failure looking up CEP {}", cep, e);
+            return CepLookupResultDTO.failed(cep, HttpStatus.INTERNAL_SERVER_ERROR.value(), "CEP lookup failed");
+        }
+    }
+}
@@ -1,8 +1,32 @@
 package co.facilite.devjr.service;
 
 import co.facilite.devjr.service.dto.AddressDTO;
+import java.util.concurrent.CompletableFuture;
 
 public interface CepLookupService {
+    String CEP_CACHE = "cepByCode";
+
+    String CEP_NOT_FOUND_CACHE = "cepNotFound";
+
+    String CEP_LAST_KNOWN_GOOD_CACHE = "cepLastKnownGood";
+
     String normalizeCep(String raw);
     AddressDTO lookup(String cep);
+
+    /**
+     * Same as {@link #lookup(String)}, but a lookup that has to wait on the network runs on the CEP
+     * lookup executor instead of the calling thread.
+     *
+     * @param cep the normalized CEP.
+     * @return the address, or a future failed with the {@link org.springframework.web.server.ResponseStatusException}
+     * {@link #lookup(String)} would have thrown.
+     */
+    CompletableFuture<AddressDTO> lookupAsync(String cep);
+
+    /**
+     * Looks the CEP up in the CEP providers again, bypassing every cache, and stores the answer. Failures are only logged.
+     *
+     * @param cep the normalized CEP.
+     */
+    void refresh(String cep);
 }
@@ -0,0 +1,223 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.repository.AddressRepository;
+import co.facilite.devjr.service.dto.PartialAddressDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Service warming the CEP lookup with the CEPs already stored in the {@code address} table.
+ * <p>
+ * Distinct CEPs are read in keyset pages and resolved through {@link CepLookupService} on a single
+ * background thread, at most {@code application.cep.prefetch.rate-per-second} a second. A run starts once
+ * the application is ready and on {@code application.cep.prefetch.cron}, and is interrupted on shutdown.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.cep.prefetch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CepPrefetchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepPrefetchService.class);
+
+    public static final String CEPS_METER_NAME = "cep.prefetch.ceps";
+    public static final String TOTAL_METER_NAME = "cep.prefetch.total";
+    public static final String PROCESSED_METER_NAME = "cep.prefetch.processed";
+    public static final String RUNNING_METER_NAME = "cep.prefetch.running";
+
+    private final AddressRepository addressRepository;
+
+    private final CepLookupService cepLookupService;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ApplicationProperties.Cep.Prefetch properties;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cep-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final Counter resolvedCounter;
+
+    private final Counter notFoundCounter;
+
+    private final Counter invalidCounter;
+
+    private final Counter failedCounter;
+
+    private volatile boolean stopped;
+
+    private volatile ScheduledFuture<?> scheduledRuns;
+
+    public CepPrefetchService(
+        AddressRepository addressRepository,
+        CepLookupService cepLookupService,
+        TaskScheduler taskScheduler,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.addressRepository = addressRepository;
+        this.cepLookupService = cepLookupService;
+        this.taskScheduler = taskScheduler;
+        this.properties = applicationProperties.getCep().getPrefetch();
+        this.resolvedCounter = cepsCounter("resolved").register(meterRegistry);
+        this.notFoundCounter = cepsCounter("not-found").register(meterRegistry);
+        this.invalidCounter = cepsCounter("invalid").register(meterRegistry);
+        this.failedCounter = cepsCounter("failed").register(meterRegistry);
+        Gauge.builder(TOTAL_METER_NAME, total, AtomicLong::get)
+            .description("Distinct CEPs of the address table when the current or last prefetch started")
+            .register(meterRegistry);
+        Gauge.builder(PROCESSED_METER_NAME, processed, AtomicLong::get)
+            .description("CEPs looked up by the current or last prefetch")
+            .register(meterRegistry);
+        Gauge.builder(RUNNING_METER_NAME, running, flag -> flag.get() ? 1 : 0)
+            .description("Whether a CEP prefetch is running")
+            .register(meterRegistry);
+    }
+
+    private static Counter.Builder cepsCounter(String outcome) {
+        return Counter.builder(CEPS_METER_NAME).description("CEPs of the address table looked up by the prefetch").tag("outcome", outcome);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isOnStartup()) {
+            trigger();
+        }
+        String cron = properties.getCron();
+        if (StringUtils.hasText(cron) && !ScheduledTaskRegistrar.CRON_DISABLED.equals(cron)) {
+            scheduledRuns = taskScheduler.schedule(this::trigger, new CronTrigger(cron));
+        }
+    }
+
+    /**
+     * Starts a prefetch in the background.
+     *
+     * @return {@code false} if one is already running or the service is stopped.
+     */
+    public boolean trigger() {
+        if (stopped || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            worker.execute(() -> {
+                try {
+                    prefetch();
+                } catch (RuntimeException e) {
+                    LOG.warn("CEP prefetch aborted", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            return false;
+        }
+    }
+
+    void prefetch() {
+        long start = System.nanoTime();
+        total.set(addressRepository.countDistinctCeps());
+        processed.set(0);
+        LOG.info("Prefetching {} CEPs of the address table", total.get());
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getRatePerSecond());
+        long next = System.nanoTime();
+        String after = "";
+        while (!stopped) {
+            List<String> page = addressRepository.findDistinctCepsAfter(after, PageRequest.of(0, properties.getPageSize()));
+            for (String cep : page) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        stopped = true;
+                    }
+                }
+                if (stopped) {
+                    break;
+                }
+                next = Math.max(next, System.nanoTime() - interval) + interval;
+                lookup(cep);
+                processed.incrementAndGet();
+            }
+            if (page.size() < properties.getPageSize()) {
+                break;
+            }
+            after = page.get(page.size() - 1);
+        }
+        LOG.info(
+            "{} CEP prefetch after {} of {} CEPs in {} s",
+            stopped ? "Stopped" : "Finished",
+            processed.get(),
+            total.get(),
+            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)
+        );
+    }
+
+    private void lookup(String cep) {
+        String normalizedCep;
+        try {
+            normalizedCep = cepLookupService.normalizeCep(cep);
+        } catch (ResponseStatusException e) {
+            invalidCounter.increment();
+            return;
+        }
+        try {
+            if (cepLookupService.lookup(normalizedCep) instanceof PartialAddressDTO) {
+                // Not cached, so the CEP is still to be resolved.
+                failedCounter.increment();
+            } else {
+                resolvedCounter.increment();
+            }
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                notFoundCounter.increment();
+            } else {
+                failedCounter.increment();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        ScheduledFuture<?> scheduled = scheduledRuns;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        worker.shutdownNow();
+    }
+}
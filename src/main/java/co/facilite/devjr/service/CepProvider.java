@@ -0,0 +1,21 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.service.dto.AddressDTO;
+
+/**
+ * A remote service resolving CEPs, called through the {@link CepProviderChain} once the caches missed.
+ */
+public interface CepProvider {
+    /**
+     * @return the name tagging the provider's metrics and naming its circuit breaker, as listed in
+     * {@code application.cep.providers.order}.
+     */
+    String name();
+
+    /**
+     * @param cep the normalized CEP.
+     * @return the address, or {@code null} when the provider does not know the CEP.
+     * @throws org.springframework.web.client.RestClientException when the provider could not answer.
+     */
+    AddressDTO fetch(String cep);
+}
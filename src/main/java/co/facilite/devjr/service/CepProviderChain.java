@@ -0,0 +1,553 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.service.cep.LatencyTracker;
+import co.facilite.devjr.service.cep.TokenBucket;
+import co.facilite.devjr.service.dto.AddressDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Resolves CEPs through the {@link CepProvider}s, each behind its own circuit breaker and rate limit.
+ * <p>
+ * The best ranked provider is called first. When it fails, or no rate limit token is available, the next
+ * one is called right away; when it is only slow, still running after its own p95 latency, the next one is
+ * called as well and the first answer wins. The losing call is left to finish, so its latency is recorded
+ * like any other. A "not found" answer is final: the providers publish the same Correios data, and asking
+ * another one would only add load.
+ * <p>
+ * Every {@code application.cep.providers.reorder-interval} the providers are ranked again by p95 latency,
+ * success rate and share of the hedged races they won. A new leader must score 20% better than the current
+ * one, so two providers of similar speed do not swap places at every interval.
+ */
+@Service
+public class CepProviderChain {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepProviderChain.class);
+
+    public static final String UPSTREAM_METER_NAME = "cep.upstream.requests";
+
+    public static final String WINS_METER_NAME = "cep.upstream.wins";
+
+    public static final String HEDGES_METER_NAME = "cep.upstream.hedges";
+
+    public static final String RANK_METER_NAME = "cep.upstream.rank";
+
+    public static final String HEDGE_DELAY_METER_NAME = "cep.upstream.hedge-delay";
+
+    public static final String RATE_LIMIT_QUEUED_METER_NAME = "cep.upstream.rate-limit.queued";
+
+    public static final String RATE_LIMIT_WAIT_METER_NAME = "cep.upstream.rate-limit.wait";
+
+    public static final String RATE_LIMIT_REJECTED_METER_NAME = "cep.upstream.rate-limit.rejected";
+
+    public static final String UPSTREAM_SUCCESS = "success";
+    public static final String UPSTREAM_NOT_FOUND = "not-found";
+    public static final String UPSTREAM_TIMEOUT = "timeout";
+    public static final String UPSTREAM_CONNECTION_ERROR = "connection-error";
+    public static final String UPSTREAM_DECODE_ERROR = "decode-error";
+    public static final String UPSTREAM_THROTTLED = "throttled";
+    public static final String UPSTREAM_CLIENT_ERROR = "client-error";
+    public static final String UPSTREAM_SERVER_ERROR = "server-error";
+    public static final String UPSTREAM_ERROR = "error";
+
+    private static final List<String> UPSTREAM_OUTCOMES = List.of(
+        UPSTREAM_SUCCESS,
+        UPSTREAM_NOT_FOUND,
+        UPSTREAM_TIMEOUT,
+        UPSTREAM_CONNECTION_ERROR,
+        UPSTREAM_DECODE_ERROR,
+        UPSTREAM_THROTTLED,
+        UPSTREAM_CLIENT_ERROR,
+        UPSTREAM_SERVER_ERROR,
+        UPSTREAM_ERROR
+    );
+
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private static final double HEDGE_QUANTILE = 0.95;
+
+    /**
+     * Weight of the latest call in the success and win rates, which then mostly reflect the last hundred calls.
+     */
+    private static final double RATE_WEIGHT = 0.02;
+
+    private static final double REORDER_MARGIN = 0.8;
+
+    private final List<Upstream> upstreams;
+
+    private final Executor cepProviderExecutor;
+
+    private final boolean hedge;
+
+    private final long hedgeInitialDelayNanos;
+
+    private final long hedgeMinDelayNanos;
+
+    private final long hedgeMaxDelayNanos;
+
+    private final long reorderIntervalNanos;
+
+    private final long rateLimitMaxWaitNanos;
+
+    private final AtomicLong rankedAt;
+
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<AddressDTO>> resolvedListeners = new CopyOnWriteArrayList<>();
+
+    private volatile List<Upstream> ranking;
+
+    public CepProviderChain(
+        List<CepProvider> cepProviders,
+        ApplicationProperties applicationProperties,
+        CircuitBreakerRegistry circuitBreakerRegistry,
+        MeterRegistry meterRegistry,
+        @Qualifier("cepProviderExecutor") Executor cepProviderExecutor
+    ) {
+        ApplicationProperties.Cep.Providers providers = applicationProperties.getCep().getProviders();
+        ApplicationProperties.Cep.RateLimit rateLimit = applicationProperties.getCep().getRateLimit();
+        this.cepProviderExecutor = cepProviderExecutor;
+        this.hedge = providers.isHedge();
+        this.hedgeInitialDelayNanos = providers.getHedgeInitialDelay().toNanos();
+        this.hedgeMinDelayNanos = providers.getHedgeMinDelay().toNanos();
+        this.hedgeMaxDelayNanos = providers.getHedgeMaxDelay().toNanos();
+        this.reorderIntervalNanos = providers.getReorderInterval().toNanos();
+        this.rateLimitMaxWaitNanos = rateLimit.getMaxWait().toNanos();
+        List<Upstream> ordered = new ArrayList<>();
+        for (CepProvider provider : inConfiguredOrder(cepProviders, providers.getOrder())) {
+            ordered.add(new Upstream(provider, circuitBreakerRegistry, rateLimit, meterRegistry));
+        }
+        if (ordered.isEmpty()) {
+            throw new IllegalStateException("No CEP provider is enabled");
+        }
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.get(i).rank = i + 1;
+        }
+        this.upstreams = List.copyOf(ordered);
+        this.ranking = upstreams;
+        this.rankedAt = new AtomicLong(System.nanoTime());
+        LOG.info("CEP providers: {}", names(ranking));
+    }
+
+    private static List<CepProvider> inConfiguredOrder(List<CepProvider> cepProviders, List<String> order) {
+        List<CepProvider> ordered = new ArrayList<>(cepProviders);
+        ordered.sort(
+            Comparator.comparingInt(provider -> order.contains(provider.name()) ? order.indexOf(provider.name()) : order.size())
+        );
+        return ordered;
+    }
+
+    /**
+     * @param cep the normalized CEP.
+     * @return the address, or {@code null} when the provider that answered first does not know the CEP.
+     * @throws ResponseStatusException with {@code 503} when every provider was rate limited, and {@code 502}
+     * when every provider failed or had its circuit open.
+     */
+    public AddressDTO resolve(String cep) {
+        List<Upstream> order = currentRanking();
+        BlockingQueue<Answer> answers = new LinkedBlockingQueue<>();
+        int launched = 0;
+        int pending = 0;
+        boolean rateLimitedOnly = true;
+        try {
+            while (pending > 0 || launched < order.size()) {
+                Answer answer;
+                if (pending == 0 && (!hedge || launched == order.size() - 1)) {
+                    // Nothing left to race against, so there is no point in handing the call to another thread.
+                    answer = call(order.get(launched++), cep);
+                } else {
+                    if (pending == 0) {
+                        launch(order.get(launched++), cep, answers);
+                        pending++;
+                    }
+                    if (hedge && launched < order.size()) {
+                        answer = answers.poll(hedgeDelayNanos(order.get(launched - 1)), TimeUnit.NANOSECONDS);
+                        if (answer == null) {
+                            Upstream next = order.get(launched++);
+                            next.hedges.increment();
+                            launch(next, cep, answers);
+                            pending++;
+                            continue;
+                        }
+                    } else {
+                        answer = answers.take();
+                    }
+                    pending--;
+                }
+                if (answer.answered) {
+                    settle(answer.upstream, order.subList(0, launched));
+                    if (answer.address != null) {
+                        for (Consumer<AddressDTO> listener : resolvedListeners) {
+                            listener.accept(answer.address);
+                        }
+                    }
+                    return answer.address;
+                }
+                rateLimitedOnly &= answer.rateLimited;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "CEP lookup interrupted");
+        }
+        if (rateLimitedOnly) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "CEP service busy");
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "CEP service unavailable");
+    }
+
+    /**
+     * @return {@code true} when the circuit of at least one provider is closed.
+     */
+    public boolean isAvailable() {
+        return upstreams.stream().anyMatch(upstream -> upstream.circuitBreaker.getState() == CircuitBreaker.State.CLOSED);
+    }
+
+    /**
+     * Runs {@code listener} whenever the circuit of a provider closes again.
+     */
+    public void onRecovery(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    /**
+     * Runs {@code listener} with every address a provider resolved, on the thread that asked for it.
+     */
+    public void onResolved(Consumer<AddressDTO> listener) {
+        resolvedListeners.add(listener);
+    }
+
+    /**
+     * @return the provider names, best ranked first.
+     */
+    public List<String> ranking() {
+        return ranking.stream().map(upstream -> upstream.name).toList();
+    }
+
+    private void launch(Upstream upstream, String cep, BlockingQueue<Answer> answers) {
+        try {
+            cepProviderExecutor.execute(() -> answers.add(call(upstream, cep)));
+        } catch (RejectedExecutionException e) {
+            // Every provider thread is busy: the call runs here, so it can be failed over but not hedged.
+            LOG.debug("CEP provider executor full, calling {} for CEP {} on the lookup thread", upstream.name, cep);
+            answers.add(call(upstream, cep));
+        }
+    }
+
+    private Answer call(Upstream upstream, String cep) {
+        CircuitBreaker circuitBreaker = upstream.circuitBreaker;
+        // Asked before the rate limit, so an open circuit neither spends a token nor waits for one.
+        if (!circuitBreaker.tryAcquirePermission()) {
+            LOG.debug("CEP provider {} skipped for CEP {}: circuit {}", upstream.name, cep, circuitBreaker.getState());
+            return new Answer(upstream, null, false, false);
+        }
+        if (!upstream.acquireRateLimitToken()) {
+            circuitBreaker.releasePermission();
+            return new Answer(upstream, null, false, true);
+        }
+        // What CircuitBreaker.executeSupplier does, past the permission already acquired above.
+        long start = circuitBreaker.getCurrentTimestamp();
+        try {
+            AddressDTO addressDTO = upstream.fetch(cep);
+            circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), addressDTO);
+            return new Answer(upstream, addressDTO, true, false);
+        } catch (RestClientException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            if (e instanceof HttpClientErrorException.TooManyRequests && upstream.rateLimiter != null) {
+                upstream.rateLimiter.drain();
+            }
+            LOG.debug("CEP provider {} failed for CEP {}: {}", upstream.name, cep, e.getMessage());
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            LOG.warn("CEP provider {} failed for CEP {}", upstream.name, cep, e);
+        }
+        return new Answer(upstream, null, false, false);
+    }
+
+    /**
+     * Credits the win to {@code winner}, and when more than one provider was called, moves the win rates
+     * of the racers towards the outcome.
+     */
+    private static void settle(Upstream winner, List<Upstream> racers) {
+        winner.wins.increment();
+        if (racers.size() > 1) {
+            for (Upstream racer : racers) {
+                racer.winRate += RATE_WEIGHT * ((racer == winner ? 1 : 0) - racer.winRate);
+            }
+        }
+    }
+
+    private long hedgeDelayNanos(Upstream upstream) {
+        if (upstream.latency.count() < MIN_LATENCY_SAMPLES) {
+            return hedgeInitialDelayNanos;
+        }
+        return Math.min(hedgeMaxDelayNanos, Math.max(hedgeMinDelayNanos, upstream.latency.percentile(HEDGE_QUANTILE)));
+    }
+
+    private List<Upstream> currentRanking() {
+        long now = System.nanoTime();
+        long last = rankedAt.get();
+        if (now - last >= reorderIntervalNanos && rankedAt.compareAndSet(last, now)) {
+            rank();
+        }
+        return ranking;
+    }
+
+    private void rank() {
+        List<Upstream> current = ranking;
+        Map<Upstream, Double> scores = new HashMap<>();
+        for (Upstream upstream : current) {
+            scores.put(upstream, score(upstream));
+        }
+        List<Upstream> ranked = new ArrayList<>(current);
+        ranked.sort(Comparator.comparing(scores::get));
+        Upstream leader = current.get(0);
+        if (ranked.get(0) != leader && scores.get(ranked.get(0)) > REORDER_MARGIN * scores.get(leader)) {
+            ranked.remove(leader);
+            ranked.add(0, leader);
+        }
+        if (!ranked.equals(current)) {
+            LOG.info("CEP providers re-ranked: {}", names(ranked));
+        }
+        for (int i = 0; i < ranked.size(); i++) {
+            ranked.get(i).rank = i + 1;
+        }
+        ranking = List.copyOf(ranked);
+    }
+
+    /**
+     * Lower is better: the expected latency, inflated by the failure rate and by losing hedged races.
+     */
+    private double score(Upstream upstream) {
+        CircuitBreaker.State state = upstream.circuitBreaker.getState();
+        if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double latency = upstream.latency.count() < MIN_LATENCY_SAMPLES
+            ? hedgeInitialDelayNanos
+            : upstream.latency.percentile(HEDGE_QUANTILE);
+        return (latency / Math.max(upstream.successRate, 0.01)) * (1.5 - upstream.winRate);
+    }
+
+    private static String names(List<Upstream> upstreams) {
+        return upstreams.stream().map(upstream -> upstream.name).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Sorts a failed provider call into the {@code outcome} tag of {@value #UPSTREAM_METER_NAME}.
+     */
+    public static String upstreamOutcome(RestClientException e) {
+        if (e instanceof HttpStatusCodeException statusCodeException) {
+            if (statusCodeException.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                return UPSTREAM_THROTTLED;
+            }
+            return statusCodeException.getStatusCode().is5xxServerError() ? UPSTREAM_SERVER_ERROR : UPSTREAM_CLIENT_ERROR;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpMessageConversionException || cause instanceof JsonProcessingException) {
+                return UPSTREAM_DECODE_ERROR;
+            }
+            if (cause instanceof InterruptedIOException) {
+                return UPSTREAM_TIMEOUT;
+            }
+            if (cause instanceof IOException) {
+                return UPSTREAM_CONNECTION_ERROR;
+            }
+        }
+        return UPSTREAM_ERROR;
+    }
+
+    /**
+     * A provider with its circuit breaker, rate limit, latency samples and meters.
+     */
+    private final class Upstream {
+
+        final String name;
+
+        final CepProvider provider;
+
+        final CircuitBreaker circuitBreaker;
+
+        /**
+         * {@code null} when {@code application.cep.rate-limit.enabled} is {@code false}.
+         */
+        final TokenBucket rateLimiter;
+
+        final LatencyTracker latency = new LatencyTracker(LATENCY_SAMPLES);
+
+        final Map<String, Timer> timers = new HashMap<>();
+
+        final Timer rateLimitWait;
+
+        final Counter wins;
+
+        final Counter hedges;
+
+        volatile double successRate = 1;
+
+        volatile double winRate = 0.5;
+
+        volatile int rank;
+
+        Upstream(
+            CepProvider provider,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            ApplicationProperties.Cep.RateLimit rateLimit,
+            MeterRegistry meterRegistry
+        ) {
+            this.name = provider.name();
+            this.provider = provider;
+            for (String outcome : UPSTREAM_OUTCOMES) {
+                timers.put(
+                    outcome,
+                    Timer.builder(UPSTREAM_METER_NAME)
+                        .description("CEP provider calls, by outcome; rate-limited and circuit-broken calls are not made and not timed")
+                        .tag("provider", name)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                );
+            }
+            this.wins = Counter.builder(WINS_METER_NAME)
+                .description("CEP lookups answered by each provider, first when several were called")
+                .tag("provider", name)
+                .register(meterRegistry);
+            this.hedges = Counter.builder(HEDGES_METER_NAME)
+                .description("Calls made to each provider because the previous one was slower than its p95 latency")
+                .tag("provider", name)
+                .register(meterRegistry);
+            Gauge.builder(RANK_METER_NAME, this, upstream -> upstream.rank)
+                .description("Position of each provider in the calling order, 1 being called first")
+                .tag("provider", name)
+                .register(meterRegistry);
+            Gauge.builder(HEDGE_DELAY_METER_NAME, this, upstream -> hedgeDelayNanos(upstream) / 1e9)
+                .description("Time after which the next provider is called as well")
+                .tag("provider", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+            this.rateLimitWait = Timer.builder(RATE_LIMIT_WAIT_METER_NAME)
+                .description("Time CEP provider calls waited for a rate limit token")
+                .tag("provider", name)
+                .register(meterRegistry);
+            if (rateLimit.isEnabled()) {
+                this.rateLimiter = new TokenBucket(rateLimit.getPermitsPerSecond(), rateLimit.getBurst(), rateLimit.getMaxQueued());
+                Gauge.builder(RATE_LIMIT_QUEUED_METER_NAME, rateLimiter, TokenBucket::queued)
+                    .description("CEP provider calls waiting for a rate limit token")
+                    .tag("provider", name)
+                    .register(meterRegistry);
+                FunctionCounter.builder(RATE_LIMIT_REJECTED_METER_NAME, rateLimiter, TokenBucket::queueFullRejections)
+                    .description("CEP provider calls rejected by the rate limit")
+                    .tag("provider", name)
+                    .tag("reason", "queue-full")
+                    .register(meterRegistry);
+                FunctionCounter.builder(RATE_LIMIT_REJECTED_METER_NAME, rateLimiter, TokenBucket::deadlineRejections)
+                    .description("CEP provider calls rejected by the rate limit")
+                    .tag("provider", name)
+                    .tag("reason", "deadline")
+                    .register(meterRegistry);
+            } else {
+                this.rateLimiter = null;
+            }
+            this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+            this.circuitBreaker.getEventPublisher().onStateTransition(event -> {
+                LOG.info("CEP provider {} circuit breaker: {}", name, event.getStateTransition());
+                if (event.getStateTransition().getToState() == CircuitBreaker.State.CLOSED) {
+                    recoveryListeners.forEach(Runnable::run);
+                }
+            });
+        }
+
+        boolean acquireRateLimitToken() {
+            if (rateLimiter == null) {
+                return true;
+            }
+            try {
+                long waited = rateLimiter.acquire(rateLimitMaxWaitNanos);
+                if (waited == TokenBucket.REJECTED) {
+                    return false;
+                }
+                rateLimitWait.record(waited, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        AddressDTO fetch(String cep) {
+            long start = System.nanoTime();
+            String outcome = UPSTREAM_ERROR;
+            try {
+                AddressDTO addressDTO = provider.fetch(cep);
+                outcome = addressDTO == null ? UPSTREAM_NOT_FOUND : UPSTREAM_SUCCESS;
+                return addressDTO;
+            } catch (RestClientException e) {
+                outcome = upstreamOutcome(e);
+                throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                timers.get(outcome).record(elapsed, TimeUnit.NANOSECONDS);
+                boolean answered = UPSTREAM_SUCCESS.equals(outcome) || UPSTREAM_NOT_FOUND.equals(outcome);
+                if (answered) {
+                    latency.record(elapsed);
+                }
+                // Racing updates may lose one sample, which a moving average can afford.
+                successRate += RATE_WEIGHT * ((answered ? 1 : 0) - successRate);
+            }
+        }
+    }
+
+    /**
+     * Outcome of one provider call: an answer, found or not, or a failure.
+     */
+    private static final class Answer {
+
+        final Upstream upstream;
+
+        final AddressDTO address;
+
+        final boolean answered;
+
+        final boolean rateLimited;
+
+        Answer(Upstream upstream, AddressDTO address, boolean answered, boolean rateLimited) {
+            this.upstream = upstream;
+            this.address = address;
+            this.answered = answered;
+            this.rateLimited = rateLimited;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.CepCacheEntry;
+import co.facilite.devjr.repository.CepCacheEntryRepository;
+import co.facilite.devjr.service.cep.CepCodec;
+import co.facilite.devjr.service.dto.AddressDTO;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for the {@code cep_cache} table, which lets every application node reuse the CEPs resolved by the others.
+ * <p>
+ * Reads go straight to the table. Writes are queued and flushed in one transaction every
+ * {@code application.cep.shared-cache.flush-interval}, so lookups never wait on them. Rows fetched longer ago than
+ * {@code application.cep.shared-cache.refresh-after} are refreshed from ViaCEP in the background.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.cep.shared-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CepSharedCacheService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepSharedCacheService.class);
+
+    private final CepCacheEntryRepository cepCacheEntryRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ObjectProvider<CepLookupService> cepLookupService;
+
+    private final ApplicationProperties.Cep.SharedCache properties;
+
+    private final Duration timeToLive;
+
+    private final Duration lastKnownGoodTimeToLive;
+
+    /**
+     * Addresses to write, or {@link Optional#empty()} for CEPs that no longer exist.
+     */
+    private final Map<Integer, Optional<CepCacheEntry>> pending = new ConcurrentHashMap<>();
+
+    private final List<ScheduledFuture<?>> scheduled = new ArrayList<>();
+
+    public CepSharedCacheService(
+        CepCacheEntryRepository cepCacheEntryRepository,
+        TransactionTemplate transactionTemplate,
+        TaskScheduler taskScheduler,
+        ObjectProvider<CepLookupService> cepLookupService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cepCacheEntryRepository = cepCacheEntryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.cepLookupService = cepLookupService;
+        this.properties = applicationProperties.getCep().getSharedCache();
+        this.timeToLive = Duration.ofSeconds(applicationProperties.getCep().getCache().getTimeToLiveSeconds());
+        this.lastKnownGoodTimeToLive = Duration.ofSeconds(applicationProperties.getCep().getCache().getLastKnownGoodTimeToLiveSeconds());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        scheduled.add(taskScheduler.scheduleWithFixedDelay(this::flush, properties.getFlushInterval()));
+        scheduled.add(taskScheduler.scheduleWithFixedDelay(this::refreshStale, properties.getRefreshInterval()));
+    }
+
+    /**
+     * @param cep the normalized CEP.
+     * @return the address from the table, unless it was fetched longer ago than the CEP cache time to live.
+     */
+    public Optional<AddressDTO> find(String cep) {
+        int code = CepCodec.parse(cep);
+        if (code == CepCodec.INVALID) {
+            return Optional.empty();
+        }
+        Instant notBefore = Instant.now().minus(timeToLive);
+        try {
+            return cepCacheEntryRepository
+                .findById(code)
+                .filter(entry -> !entry.getFetchedAt().isBefore(notBefore))
+                .map(CepSharedCacheService::toAddressDTO);
+        } catch (DataAccessException e) {
+            LOG.warn("Could not read CEP {} from the shared cache: {}", cep, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Queues an address fetched from ViaCEP for the next batch write.
+     */
+    public void save(String cep, AddressDTO addressDTO) {
+        int code = CepCodec.parse(cep);
+        if (code != CepCodec.INVALID && hasRoomFor(code)) {
+            pending.put(code, Optional.of(toEntry(code, addressDTO)));
+        }
+    }
+
+    /**
+     * Queues the removal of a CEP that ViaCEP no longer knows.
+     */
+    public void remove(String cep) {
+        int code = CepCodec.parse(cep);
+        if (code != CepCodec.INVALID && hasRoomFor(code)) {
+            pending.put(code, Optional.empty());
+        }
+    }
+
+    private boolean hasRoomFor(int code) {
+        return pending.size() < properties.getMaxPending() || pending.containsKey(code);
+    }
+
+    /**
+     * Writes the queued changes in a single transaction. Rows inserted meanwhile by another node are
+     * updated on a second attempt.
+     */
+    public void flush() {
+        Map<Integer, Optional<CepCacheEntry>> changes = new HashMap<>();
+        for (Integer cep : pending.keySet()) {
+            Optional<CepCacheEntry> change = pending.remove(cep);
+            if (change != null) {
+                changes.put(cep, change);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(changes));
+                LOG.debug("Wrote {} CEPs to the shared cache", changes.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == 2) {
+                    LOG.warn("Could not write {} CEPs to the shared cache: {}", changes.size(), e.getMessage());
+                    return;
+                }
+            } catch (DataAccessException e) {
+                LOG.warn("Could not write {} CEPs to the shared cache: {}", changes.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void write(Map<Integer, Optional<CepCacheEntry>> changes) {
+        Map<Integer, CepCacheEntry> existing = cepCacheEntryRepository
+            .findAllById(changes.keySet())
+            .stream()
+            .collect(Collectors.toMap(CepCacheEntry::getCep, Function.identity()));
+        List<CepCacheEntry> saved = new ArrayList<>();
+        Set<Integer> removed = new HashSet<>();
+        changes.forEach((cep, change) -> {
+            if (change.isEmpty()) {
+                if (existing.containsKey(cep)) {
+                    removed.add(cep);
+                }
+                return;
+            }
+            CepCacheEntry entry = existing.get(cep);
+            if (entry == null) {
+                saved.add(change.get());
+            } else {
+                copy(change.get(), entry);
+                saved.add(entry);
+            }
+        });
+        cepCacheEntryRepository.saveAll(saved);
+        cepCacheEntryRepository.deleteAllByIdInBatch(removed);
+    }
+
+    /**
+     * Looks the oldest rows up again through {@link CepLookupService#refresh(String)}, which writes the
+     * fresh address back here, and drops rows older than the last-known-good time to live.
+     */
+    public void refreshStale() {
+        try {
+            Instant now = Instant.now();
+            List<CepCacheEntry> stale = cepCacheEntryRepository.findByFetchedAtBeforeOrderByFetchedAtAsc(
+                now.minus(properties.getRefreshAfter()),
+                PageRequest.of(0, properties.getRefreshBatchSize())
+            );
+            CepLookupService lookupService = cepLookupService.getObject();
+            for (CepCacheEntry entry : stale) {
+                lookupService.refresh(CepCodec.format(entry.getCep()));
+            }
+            int purged = transactionTemplate.execute(status ->
+                cepCacheEntryRepository.deleteByFetchedAtBefore(now.minus(lastKnownGoodTimeToLive))
+            );
+            LOG.debug("Refreshed {} shared CEP cache rows, purged {}", stale.size(), purged);
+        } catch (DataAccessException e) {
+            LOG.warn("Could not refresh the shared CEP cache: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        scheduled.forEach(future -> future.cancel(false));
+        flush();
+    }
+
+    private static CepCacheEntry toEntry(int cep, AddressDTO addressDTO) {
+        CepCacheEntry entry = new CepCacheEntry().cep(cep).fetchedAt(Instant.now());
+        entry.setStreet(addressDTO.getStreet());
+        entry.setComplement(addressDTO.getComplement());
+        entry.setDistrict(addressDTO.getDistrict());
+        entry.setCity(addressDTO.getCity());
+        entry.setUf(addressDTO.getUf());
+        return entry;
+    }
+
+    private static void copy(CepCacheEntry from, CepCacheEntry to) {
+        to.setStreet(from.getStreet());
+        to.setComplement(from.getComplement());
+        to.setDistrict(from.getDistrict());
+        to.setCity(from.getCity());
+        to.setUf(from.getUf());
+        to.setFetchedAt(from.getFetchedAt());
+    }
+
+    private static AddressDTO toAddressDTO(CepCacheEntry entry) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(CepCodec.formatHyphenated(entry.getCep()));
+        addressDTO.setStreet(entry.getStreet());
+        addressDTO.setComplement(entry.getComplement());
+        addressDTO.setDistrict(entry.getDistrict());
+        addressDTO.setCity(entry.getCity());
+        addressDTO.setUf(entry.getUf());
+        return addressDTO;
+    }
+}
@@ -0,0 +1,190 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.service.cep.CepCodec;
+import co.facilite.devjr.service.cep.CepSnapshot;
+import co.facilite.devjr.service.dto.AddressDTO;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service keeping resolved CEPs in a {@link CepSnapshot} on the local disk, enabled by {@code application.cep.snapshot.path}.
+ * <p>
+ * Once the application is ready, the snapshot is read in the background and its entries are put back into
+ * the CEP caches, so readiness is never delayed and lookups simply go upstream until the load completes.
+ * Resolved CEPs are then appended to the snapshot log every {@code application.cep.snapshot.interval}.
+ */
+@Service
+@ConditionalOnProperty("application.cep.snapshot.path")
+public class CepSnapshotService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepSnapshotService.class);
+
+    private static final int MAX_PENDING = 10000;
+
+    private final CepSnapshot snapshot;
+
+    private final CacheManager cacheManager;
+
+    private final Executor taskExecutor;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Duration interval;
+
+    private final int maxLogEntries;
+
+    private final long timeToLiveMillis;
+
+    private final long lastKnownGoodTimeToLiveMillis;
+
+    private final Map<Integer, CepSnapshot.Entry> pending = new ConcurrentHashMap<>();
+
+    private final AtomicInteger logEntries = new AtomicInteger();
+
+    private volatile ScheduledFuture<?> flushes;
+
+    public CepSnapshotService(
+        ApplicationProperties applicationProperties,
+        CacheManager cacheManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        TaskScheduler taskScheduler
+    ) {
+        ApplicationProperties.Cep.Snapshot properties = applicationProperties.getCep().getSnapshot();
+        ApplicationProperties.Cep.Cache cache = applicationProperties.getCep().getCache();
+        this.snapshot = new CepSnapshot(Path.of(properties.getPath()));
+        this.cacheManager = cacheManager;
+        this.taskExecutor = taskExecutor;
+        this.taskScheduler = taskScheduler;
+        this.interval = properties.getInterval();
+        this.maxLogEntries = properties.getMaxLogEntries();
+        this.timeToLiveMillis = TimeUnit.SECONDS.toMillis(cache.getTimeToLiveSeconds());
+        this.lastKnownGoodTimeToLiveMillis = TimeUnit.SECONDS.toMillis(cache.getLastKnownGoodTimeToLiveSeconds());
+    }
+
+    /**
+     * Queues a CEP for the next append to the snapshot log.
+     *
+     * @param cep the normalized CEP.
+     * @param addressDTO the address just fetched, or {@code null} when ViaCEP no longer knows the CEP.
+     */
+    public void record(String cep, AddressDTO addressDTO) {
+        int code = CepCodec.parse(cep);
+        if (code == CepCodec.INVALID || (pending.size() >= MAX_PENDING && !pending.containsKey(code))) {
+            return;
+        }
+        pending.put(code, new CepSnapshot.Entry(code, System.currentTimeMillis(), addressDTO));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        taskExecutor.execute(() -> {
+            try {
+                warmUp();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not warm the CEP cache from the snapshot", e);
+            } finally {
+                // Resolved CEPs are still worth snapshotting when the previous snapshot could not be used.
+                flushes = taskScheduler.scheduleWithFixedDelay(this::flush, interval);
+            }
+        });
+    }
+
+    /**
+     * Puts the snapshotted CEPs that are still fresh enough back into the caches, without overwriting
+     * anything resolved since startup, then compacts the snapshot.
+     */
+    void warmUp() {
+        long start = System.currentTimeMillis();
+        Collection<CepSnapshot.Entry> entries;
+        try {
+            entries = snapshot.load();
+        } catch (IOException e) {
+            LOG.warn("Could not read the CEP snapshot: {}", e.getMessage());
+            return;
+        }
+        Cache cepCache = Objects.requireNonNull(cacheManager.getCache(CepLookupService.CEP_CACHE));
+        Cache lastKnownGoodCache = Objects.requireNonNull(cacheManager.getCache(CepLookupService.CEP_LAST_KNOWN_GOOD_CACHE));
+        int warmed = 0;
+        for (CepSnapshot.Entry entry : entries) {
+            long age = start - entry.getFetchedAt();
+            String cep = CepCodec.format(entry.getCep());
+            if (age < lastKnownGoodTimeToLiveMillis) {
+                lastKnownGoodCache.putIfAbsent(cep, entry.getAddress());
+            }
+            if (age < timeToLiveMillis) {
+                cepCache.putIfAbsent(cep, entry.getAddress());
+                warmed++;
+            }
+        }
+        LOG.info("Warmed the CEP cache with {} of {} snapshotted CEPs in {} ms", warmed, entries.size(), System.currentTimeMillis() - start);
+        compact();
+    }
+
+    /**
+     * Appends the CEPs resolved since the last call to the snapshot log, and compacts the snapshot
+     * once the log holds {@code application.cep.snapshot.max-log-entries} entries.
+     */
+    public void flush() {
+        List<CepSnapshot.Entry> entries = new ArrayList<>(pending.size());
+        for (Integer cep : pending.keySet()) {
+            CepSnapshot.Entry entry = pending.remove(cep);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            snapshot.append(entries);
+        } catch (IOException e) {
+            LOG.warn("Could not append {} CEPs to the snapshot log: {}", entries.size(), e.getMessage());
+            return;
+        }
+        if (logEntries.addAndGet(entries.size()) >= maxLogEntries) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        try {
+            int kept = snapshot.compact(System.currentTimeMillis() - lastKnownGoodTimeToLiveMillis);
+            logEntries.set(0);
+            LOG.debug("Compacted the CEP snapshot to {} CEPs", kept);
+        } catch (IOException e) {
+            LOG.warn("Could not compact the CEP snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        ScheduledFuture<?> scheduled = flushes;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        flush();
+    }
+}
@@ -0,0 +1,48 @@
+package co.facilite.devjr.service;
+
+/**
+ * A number of employees, and whether it was just counted, or estimated or counted earlier.
+ */
+public final class EmployeeCount {
+
+    private final long total;
+
+    private final boolean exact;
+
+    private EmployeeCount(long total, boolean exact) {
+        this.total = total;
+        this.exact = exact;
+    }
+
+    public static EmployeeCount exact(long total) {
+        return new EmployeeCount(total, true);
+    }
+
+    public static EmployeeCount estimate(long total) {
+        return new EmployeeCount(total, false);
+    }
+
+    /**
+     * @return a total counted earlier: writes the application did not see, made on another node or outside it, may
+     * have changed it since.
+     */
+    public static EmployeeCount cached(long total) {
+        return new EmployeeCount(total, false);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return {@code false} if the total is an estimate, which can be off by a few percent, or was counted earlier.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    @Override
+    public String toString() {
+        return (exact ? "" : "~") + total;
+    }
+}
@@ -0,0 +1,184 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.domain.Employee;
+import co.facilite.devjr.domain.Employee_;
+import co.facilite.devjr.service.dto.EmployeeDTO;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Keyset pagination of {@link Employee}s: a page starts right after the sort keys of the last employee of the
+ * previous one, instead of skipping an offset, so its cost does not grow with how deep the page is.
+ * <p>
+ * Sort keys must be non-null properties, and the {@code id} is always added as the last key, so the order is total
+ * and a page never repeats or skips an employee. Positions travel as opaque cursors, bound to the sort they were
+ * created for.
+ */
+public final class EmployeeKeyset {
+
+    private static final byte VERSION = 1;
+
+    private static final Map<String, Key> KEYS = Map.of(
+        Employee_.ID,
+        new Key(EmployeeDTO::getId, Long::valueOf),
+        Employee_.FIRST_NAME,
+        new Key(EmployeeDTO::getFirstName, value -> value),
+        Employee_.LAST_NAME,
+        new Key(EmployeeDTO::getLastName, value -> value),
+        Employee_.EMAIL,
+        new Key(EmployeeDTO::getEmail, value -> value),
+        Employee_.HIRE_DATE,
+        new Key(EmployeeDTO::getHireDate, Instant::parse),
+        Employee_.SALARY,
+        new Key(EmployeeDTO::getSalary, BigDecimal::new),
+        Employee_.ACTIVE,
+        new Key(EmployeeDTO::getActive, Boolean::valueOf)
+    );
+
+    private EmployeeKeyset() {}
+
+    private static final class Key {
+
+        private final Function<EmployeeDTO, Object> getter;
+
+        private final Function<String, Object> parser;
+
+        private Key(Function<EmployeeDTO, Object> getter, Function<String, Object> parser) {
+            this.getter = getter;
+            this.parser = parser;
+        }
+    }
+
+    /**
+     * @param sort the requested sort, possibly unsorted.
+     * @return the sort with the {@code id} as last key, ascending unless given.
+     * @throws IllegalArgumentException if a sort key is not a non-null property of the employee, or ignores case.
+     */
+    public static Sort sort(Sort sort) {
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            if (!KEYS.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot page by cursor sorting on " + order.getProperty());
+            }
+            if (order.isIgnoreCase()) {
+                throw new IllegalArgumentException("Cannot page by cursor sorting on " + order.getProperty() + " ignoring case");
+            }
+            byId |= Employee_.ID.equals(order.getProperty());
+        }
+        return byId ? sort : sort.and(Sort.by(Employee_.ID));
+    }
+
+    /**
+     * @param position where the page starts.
+     * @param sort the sort, as returned by {@link #sort(Sort)}.
+     * @return the employees after the position in the sort, or {@code null} for the initial position.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static Specification<Employee> seek(KeysetScrollPosition position, Sort sort) {
+        if (position.isInitial()) {
+            return null;
+        }
+        Map<String, Object> keys = position.getKeys();
+        return (root, query, cb) -> {
+            List<Predicate> after = new ArrayList<>();
+            List<Predicate> equal = new ArrayList<>();
+            for (Sort.Order order : sort) {
+                Expression<Comparable> path = root.get(order.getProperty());
+                Comparable value = (Comparable) keys.get(order.getProperty());
+                Predicate beyond = order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+                equal.add(beyond);
+                after.add(cb.and(equal.toArray(Predicate[]::new)));
+                equal.set(equal.size() - 1, cb.equal(path, value));
+            }
+            Predicate seek = cb.or(after.toArray(Predicate[]::new));
+            // Redundant with the disjunction, but a range on the first key the planner can start an index scan from.
+            Sort.Order first = sort.iterator().next();
+            Expression<Comparable> path = root.get(first.getProperty());
+            Comparable value = (Comparable) keys.get(first.getProperty());
+            return cb.and(first.isAscending() ? cb.greaterThanOrEqualTo(path, value) : cb.lessThanOrEqualTo(path, value), seek);
+        };
+    }
+
+    /**
+     * @return the position right after the employee, in the sort.
+     */
+    static KeysetScrollPosition positionOf(EmployeeDTO employee, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), KEYS.get(order.getProperty()).getter.apply(employee));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * @param position a position, as returned with a page.
+     * @param sort the sort of the page, as returned by {@link #sort(Sort)}.
+     * @return the opaque cursor of the position, URL-safe.
+     */
+    public static String encode(KeysetScrollPosition position, Sort sort) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(sort.toString().hashCode());
+            for (Sort.Order order : sort) {
+                Object value = position.getKeys().get(order.getProperty());
+                out.writeUTF(value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @param cursor a cursor, as returned by {@link #encode(KeysetScrollPosition, Sort)}, or an empty one for the first page.
+     * @param sort the sort, as returned by {@link #sort(Sort)}.
+     * @return the position of the cursor.
+     * @throws IllegalArgumentException if the cursor is malformed, or was created for another sort.
+     */
+    public static KeysetScrollPosition decode(String cursor, Sort sort) {
+        if (cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readByte() != VERSION || in.readInt() != sort.toString().hashCode()) {
+                throw new IllegalArgumentException("The cursor was not created for this sort");
+            }
+            for (Sort.Order order : sort) {
+                keys.put(order.getProperty(), KEYS.get(order.getProperty()).parser.apply(in.readUTF()));
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+        } catch (IOException | DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -1,44 +1,120 @@
 package co.facilite.devjr.service;
 
+import co.facilite.devjr.config.ApplicationProperties;
 import co.facilite.devjr.domain.*; // for static metamodels
 import co.facilite.devjr.domain.Employee;
 import co.facilite.devjr.repository.EmployeeRepository;
 import co.facilite.devjr.service.criteria.EmployeeCriteria;
 import co.facilite.devjr.service.dto.EmployeeDTO;
-import co.facilite.devjr.service.mapper.EmployeeMapper;
 import jakarta.persistence.criteria.JoinType;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.service.QueryService;
 
 /**
  * Service for executing complex queries for {@link Employee} entities in the database.
  * The main input is a {@link EmployeeCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
- * It returns a {@link Page} of {@link EmployeeDTO} which fulfills the criteria.
+ * It returns a {@link Page} of {@link EmployeeDTO} which fulfills the criteria, read straight into the DTOs by a single
+ * statement that joins the department, without loading the entities.
  */
 @Service
 @Transactional(readOnly = true)
 public class EmployeeQueryService extends QueryService<Employee> {
 
+    public static final String EMPLOYEE_COUNT_CACHE = "employeeCountByCriteria";
+
     private static final Logger LOG = LoggerFactory.getLogger(EmployeeQueryService.class);
 
+    /**
+     * How the total of a list of employees is obtained.
+     */
+    public enum CountMode {
+        /**
+         * Counted for each request.
+         */
+        EXACT,
+        /**
+         * Counted once per filter, until the next employee write through this node; reused counts are not exact.
+         */
+        CACHED,
+        /**
+         * Estimated from the table statistics of the database when nothing is filtered, cached otherwise.
+         */
+        ESTIMATE,
+        /**
+         * Not counted.
+         */
+        NONE,
+    }
+
     private final EmployeeRepository employeeRepository;
 
-    private final EmployeeMapper employeeMapper;
+    private final CacheManager cacheManager;
 
-    public EmployeeQueryService(EmployeeRepository employeeRepository, EmployeeMapper employeeMapper) {
+    private final Executor countExecutor;
+
+    private final TransactionTemplate countTransaction;
+
+    private final Duration countHeadStart;
+
+    /**
+     * Bumped by each employee write, once it is committed; cached counts taken in an earlier generation are stale.
+     */
+    private final AtomicLong countGeneration = new AtomicLong();
+
+    public EmployeeQueryService(
+        EmployeeRepository employeeRepository,
+        CacheManager cacheManager,
+        @Qualifier("employeeCountExecutor") Executor countExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
         this.employeeRepository = employeeRepository;
-        this.employeeMapper = employeeMapper;
+        this.cacheManager = cacheManager;
+        this.countExecutor = countExecutor;
+        this.countTransaction = new TransactionTemplate(transactionManager);
+        this.countTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.countTransaction.setReadOnly(true);
+        this.countHeadStart = applicationProperties.getEmployee().getCount().getHeadStart();
     }
 
     /**
      * Return a {@link Page} of {@link EmployeeDTO} which matches the criteria from the database.
+     * <p>
+     * The entities are counted only when the page does not tell the total on its own, as the last page does. A page
+     * query slower than {@code application.employee.count.head-start} is overlapped with the count, on another
+     * read-only connection; a faster one is counted after, on the same connection.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -47,7 +123,73 @@ public class EmployeeQueryService extends QueryService<Employee> {
     public Page<EmployeeDTO> findByCriteria(EmployeeCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Employee> specification = createSpecification(criteria);
-        return employeeRepository.findAll(specification, page).map(employeeMapper::toDto);
+        if (page.isUnpaged()) {
+            return new PageImpl<>(employeeRepository.findAllProjected(EmployeeDTO.class, specification, page.getSort()));
+        }
+        ParallelCount count = new ParallelCount(specification);
+        try {
+            List<EmployeeDTO> employees = findPage(specification, page);
+            boolean hasNext = employees.size() > page.getPageSize();
+            List<EmployeeDTO> content = hasNext ? employees.subList(0, page.getPageSize()) : employees;
+            // The last page tells the total, unless it is past the end.
+            if (!hasNext && (!content.isEmpty() || page.getOffset() == 0)) {
+                return new PageImpl<>(content, page, page.getOffset() + content.size());
+            }
+            return new PageImpl<>(content, page, count.get());
+        } finally {
+            count.abandon();
+        }
+    }
+
+    /**
+     * Return a {@link Slice} of {@link EmployeeDTO} which matches the criteria from the database, without counting them.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<EmployeeDTO> findSliceByCriteria(EmployeeCriteria criteria, Pageable page) {
+        LOG.debug("find slice by criteria : {}, page: {}", criteria, page);
+        final Specification<Employee> specification = createSpecification(criteria);
+        List<EmployeeDTO> employees = findPage(specification, page);
+        boolean hasNext = employees.size() > page.getPageSize();
+        return new SliceImpl<>(hasNext ? employees.subList(0, page.getPageSize()) : employees, page, hasNext);
+    }
+
+    /**
+     * @return the page, plus the first employee of the next one if any: whether another page follows is known from
+     * that single extra row rather than a count.
+     */
+    private List<EmployeeDTO> findPage(Specification<Employee> specification, Pageable page) {
+        return employeeRepository.findAllProjected(
+            EmployeeDTO.class,
+            specification,
+            page.getSort(),
+            page.getOffset(),
+            page.getPageSize() + 1
+        );
+    }
+
+    /**
+     * Return a {@link Window} of {@link EmployeeDTO} which matches the criteria from the database, starting after a
+     * keyset position rather than at a page offset.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param position The position the window starts after, initial for the first one.
+     * @param page The size and sort of the window; its page number is ignored.
+     * @return the matching entities, each with the position right after it.
+     * @throws IllegalArgumentException if the sort is not one {@link EmployeeKeyset} can page by.
+     */
+    @Transactional(readOnly = true)
+    public Window<EmployeeDTO> findByCriteria(EmployeeCriteria criteria, KeysetScrollPosition position, Pageable page) {
+        LOG.debug("find by criteria : {}, position: {}, page: {}", criteria, position, page);
+        final Sort sort = EmployeeKeyset.sort(page.getSort());
+        final Specification<Employee> specification = createSpecification(criteria).and(EmployeeKeyset.seek(position, sort));
+        final int size = page.getPageSize();
+        // One more than the window, to know whether there is a next one without counting.
+        List<EmployeeDTO> employees = employeeRepository.findAllProjected(EmployeeDTO.class, specification, sort, 0, size + 1);
+        boolean hasNext = employees.size() > size;
+        List<EmployeeDTO> content = hasNext ? employees.subList(0, size) : employees;
+        return Window.from(content, index -> EmployeeKeyset.positionOf(content.get(index), sort), hasNext);
     }
 
     /**
@@ -62,6 +204,82 @@ public class EmployeeQueryService extends QueryService<Employee> {
         return employeeRepository.count(specification);
     }
 
+    /**
+     * Return the number of matching entities, counted or estimated as the mode asks.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param mode How to obtain the number, other than {@link CountMode#NONE}.
+     * @return the number of matching entities, and whether it is exact.
+     */
+    @Transactional(readOnly = true)
+    public EmployeeCount countByCriteria(EmployeeCriteria criteria, CountMode mode) {
+        LOG.debug("count by criteria : {}, mode: {}", criteria, mode);
+        return switch (mode) {
+            case EXACT -> EmployeeCount.exact(countByCriteria(criteria));
+            case CACHED -> cachedCount(criteria);
+            case ESTIMATE -> isUnfiltered(criteria) ? estimatedCount() : cachedCount(criteria);
+            case NONE -> throw new IllegalArgumentException("A count mode is required");
+        };
+    }
+
+    private EmployeeCount cachedCount(EmployeeCriteria criteria) {
+        EmployeeCriteria key = normalize(criteria);
+        long generation = countGeneration.get();
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(EMPLOYEE_COUNT_CACHE));
+        long[] cached = cache.get(key, long[].class);
+        if (cached != null && cached[0] == generation) {
+            // Only writes through this node make it stale, so it is not reported exact.
+            return EmployeeCount.cached(cached[1]);
+        }
+        long count = employeeRepository.count(createSpecification(key));
+        // Tagged with the generation it started in, so a write committed meanwhile makes it stale rather than current.
+        cache.put(key, new long[] { generation, count });
+        return EmployeeCount.exact(count);
+    }
+
+    private EmployeeCount estimatedCount() {
+        long estimate = employeeRepository.estimateCount();
+        // Negative until the table is first vacuumed or analyzed.
+        return estimate < 0 ? EmployeeCount.exact(employeeRepository.count()) : EmployeeCount.estimate(estimate);
+    }
+
+    private static boolean isUnfiltered(EmployeeCriteria criteria) {
+        return normalize(criteria).equals(new EmployeeCriteria());
+    }
+
+    /**
+     * @return a copy of the criteria, without what does not change the count: employees only have to-one relationships,
+     * which a join cannot duplicate, so {@code distinct} is dropped.
+     */
+    private static EmployeeCriteria normalize(EmployeeCriteria criteria) {
+        EmployeeCriteria normalized = criteria == null ? new EmployeeCriteria() : criteria.copy();
+        normalized.setDistinct(null);
+        return normalized;
+    }
+
+    /**
+     * Make the cached counts stale once the current transaction completes, or now without one.
+     * To be called on every employee write.
+     */
+    public void invalidateCounts() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bumpCountGeneration();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bumpCountGeneration();
+                }
+            }
+        );
+    }
+
+    private void bumpCountGeneration() {
+        countGeneration.incrementAndGet();
+        Objects.requireNonNull(cacheManager.getCache(EMPLOYEE_COUNT_CACHE)).clear();
+    }
+
     /**
      * Function to convert {@link EmployeeCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -87,4 +305,78 @@ public class EmployeeQueryService extends QueryService<Employee> {
         }
         return specification;
     }
+
+    /**
+     * A count of employees on the count executor, in its own read-only transaction, once the page query has had a head
+     * start: a page that comes back first, as small lists do, is counted on the caller's connection if at all, and
+     * never takes a second one.
+     * <p>
+     * The caller only waits for a count that already holds its connection. One still waiting for the executor, its
+     * head start or the pool is abandoned, and the caller counts on its own connection instead, so requests holding
+     * every connection of the pool cannot wait on counts that need one more.
+     */
+    private final class ParallelCount {
+
+        private final Specification<Employee> specification;
+
+        private final CountDownLatch pageDone = new CountDownLatch(1);
+
+        private final AtomicReference<CountState> state = new AtomicReference<>(CountState.PENDING);
+
+        private final CompletableFuture<Long> future;
+
+        private ParallelCount(Specification<Employee> specification) {
+            this.specification = specification;
+            CompletableFuture<Long> started;
+            try {
+                started = CompletableFuture.supplyAsync(this::countAfterHeadStart, countExecutor);
+            } catch (RejectedExecutionException e) {
+                started = null;
+            }
+            this.future = started;
+        }
+
+        private Long countAfterHeadStart() {
+            try {
+                if (pageDone.await(countHeadStart.toNanos(), TimeUnit.NANOSECONDS)) {
+                    return null;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            return countTransaction.execute(status ->
+                state.compareAndSet(CountState.PENDING, CountState.RUNNING) ? employeeRepository.count(specification) : null
+            );
+        }
+
+        private long get() {
+            pageDone.countDown();
+            if (future == null || state.compareAndSet(CountState.PENDING, CountState.ABANDONED)) {
+                return employeeRepository.count(specification);
+            }
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Drops the count if it has not started; one already running is left to finish, its result unused.
+         */
+        private void abandon() {
+            pageDone.countDown();
+            state.compareAndSet(CountState.PENDING, CountState.ABANDONED);
+        }
+    }
+
+    private enum CountState {
+        PENDING,
+        RUNNING,
+        ABANDONED,
+    }
 }
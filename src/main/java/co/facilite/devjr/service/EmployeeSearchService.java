@@ -0,0 +1,352 @@
+package co.facilite.devjr.service;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.Employee;
+import co.facilite.devjr.repository.EmployeeRepository;
+import co.facilite.devjr.service.dto.EmployeeDTO;
+import co.facilite.devjr.service.mapper.EmployeeMapper;
+import co.facilite.devjr.service.search.EmployeeSearchEntry;
+import co.facilite.devjr.service.search.EmployeeSearchIndex;
+import co.facilite.devjr.service.search.EmployeeSearchListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service searching employees by free text over their name, email, phone, department name and address city,
+ * tolerating typos and completing the words being typed.
+ * <p>
+ * Searches run on an {@link EmployeeSearchIndex} held in memory, filled from the database in one streaming pass once
+ * the application is ready, and kept in sync near-real-time by an {@link EmployeeSearchListener}: after each commit
+ * touching employees, or the departments or addresses they show, the affected employees are read again and indexed
+ * in the background, typically within milliseconds. Writes that bypass Hibernate, such as bulk SQL, are only seen
+ * after a {@link #rebuild()}.
+ */
+@Service
+public class EmployeeSearchService implements EmployeeSearchListener.Changes {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeSearchService.class);
+
+    public static final String ENTRIES_METER_NAME = "employee.search.entries";
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * How long a failed rebuild or sync waits before it is tried again.
+     */
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EmployeeMapper employeeMapper;
+
+    private final TaskScheduler taskScheduler;
+
+    private final TransactionTemplate readTransaction;
+
+    private final ApplicationProperties.Employee.Search properties;
+
+    private final Set<Long> changedEmployees = ConcurrentHashMap.newKeySet();
+
+    private final Set<Long> changedDepartments = ConcurrentHashMap.newKeySet();
+
+    private final Set<Long> changedAddresses = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean syncScheduled = new AtomicBoolean();
+
+    /**
+     * Held while the index is written, so changes are applied one batch at a time, in order, and not during a rebuild.
+     */
+    private final Object writeLock = new Object();
+
+    private volatile EmployeeSearchIndex index = new EmployeeSearchIndex();
+
+    public EmployeeSearchService(
+        EmployeeRepository employeeRepository,
+        EmployeeMapper employeeMapper,
+        TaskScheduler taskScheduler,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.employeeRepository = employeeRepository;
+        this.employeeMapper = employeeMapper;
+        this.taskScheduler = taskScheduler;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.properties = applicationProperties.getEmployee().getSearch();
+        EmployeeSearchListener listener = new EmployeeSearchListener(this);
+        EventListenerRegistry listeners = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        Gauge.builder(ENTRIES_METER_NAME, this, service -> service.index.size())
+            .description("Employees in the employee search index")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts a {@link #rebuild()} on the task scheduler, as done once the application is ready, and tries it again
+     * until it succeeds.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        taskScheduler.schedule(this::rebuildOrRetry, Instant.now());
+    }
+
+    private void rebuildOrRetry() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not index employees for search, trying again in {} s: {}", RETRY_DELAY.toSeconds(), e.getMessage());
+            taskScheduler.schedule(this::rebuildOrRetry, Instant.now().plus(RETRY_DELAY));
+        }
+    }
+
+    /**
+     * A page of matching employees, and whether its total is exact.
+     */
+    public static final class Results {
+
+        private final Page<EmployeeDTO> page;
+
+        private final boolean totalExact;
+
+        public Results(Page<EmployeeDTO> page, boolean totalExact) {
+            this.page = page;
+            this.totalExact = totalExact;
+        }
+
+        public Page<EmployeeDTO> getPage() {
+            return page;
+        }
+
+        /**
+         * @return whether the total of the page is exact, rather than a lower bound, as matches are only counted up
+         * to a thousand or so.
+         */
+        public boolean isTotalExact() {
+            return totalExact;
+        }
+    }
+
+    /**
+     * @param query the words to look for, in any order; the last one may be incomplete, and any misspelled.
+     * @param pageable the page, within the first {@code application.employee.search.max-result-window} matches;
+     * its sort is ignored, employees come most relevant first.
+     * @return the page of matching employees.
+     * @throws IllegalArgumentException if the page is beyond the maximum result window.
+     */
+    public Results search(String query, Pageable pageable) {
+        LOG.debug("Request to search Employees for query : {}", query);
+        long offset = pageable.getOffset();
+        int limit = (int) Math.min(pageable.getPageSize(), properties.getMaxResultWindow() - offset);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Search results are limited to the first " + properties.getMaxResultWindow());
+        }
+        EmployeeSearchIndex.Hits hits = searchIndex(query, (int) offset, limit);
+        if (hits.getIds().isEmpty()) {
+            return new Results(new PageImpl<>(List.of(), pageable, hits.getTotal()), hits.isExact());
+        }
+        Map<Long, EmployeeDTO> found = readTransaction.execute(status ->
+            employeeRepository
+                .findAllWithToOneRelationshipsByIdIn(hits.getIds())
+                .stream()
+                .collect(Collectors.toMap(Employee::getId, employeeMapper::toDto))
+        );
+        // In the order of relevance; an employee deleted since it was indexed is left out.
+        List<EmployeeDTO> content = hits.getIds().stream().map(found::get).filter(Objects::nonNull).toList();
+        return new Results(new PageImpl<>(content, pageable, hits.getTotal()), hits.isExact());
+    }
+
+    private EmployeeSearchIndex.Hits searchIndex(String query, int offset, int limit) {
+        try {
+            return index.search(query, offset, limit);
+        } catch (AlreadyClosedException e) {
+            // A rebuild replaced the index meanwhile.
+            return index.search(query, offset, limit);
+        }
+    }
+
+    /**
+     * Replaces the index with a new one filled from the database in one streaming pass. Searches keep using the
+     * current index until the new one is complete, and changes made meanwhile are applied to the new one afterwards.
+     */
+    public void rebuild() {
+        synchronized (writeLock) {
+            long start = System.nanoTime();
+            EmployeeSearchIndex rebuilt = new EmployeeSearchIndex();
+            try {
+                readTransaction.executeWithoutResult(status -> {
+                    try (Stream<EmployeeRepository.SearchFields> rows = employeeRepository.streamSearchFields()) {
+                        rows.forEach(row -> rebuilt.add(toEntry(row)));
+                    }
+                });
+                rebuilt.refresh();
+            } catch (RuntimeException e) {
+                close(rebuilt);
+                throw e;
+            }
+            EmployeeSearchIndex previous = index;
+            index = rebuilt;
+            close(previous);
+            LOG.info("Indexed {} employees for search in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        scheduleSync();
+    }
+
+    @Override
+    public void employeeChanged(Long id) {
+        changedEmployees.add(id);
+        scheduleSync();
+    }
+
+    @Override
+    public void departmentChanged(Long id) {
+        changedDepartments.add(id);
+        scheduleSync();
+    }
+
+    @Override
+    public void addressChanged(Long id) {
+        changedAddresses.add(id);
+        scheduleSync();
+    }
+
+    private void scheduleSync() {
+        scheduleSync(Instant.now());
+    }
+
+    private void scheduleSync(Instant at) {
+        if (syncScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::sync, at);
+        }
+    }
+
+    /**
+     * Indexes again the employees changed since the last call, in batches, reading them from the database. When the
+     * database cannot be read, the changes are kept and tried again later.
+     */
+    void sync() {
+        syncScheduled.set(false);
+        synchronized (writeLock) {
+            List<Long> employees = drain(changedEmployees);
+            List<Long> departments = drain(changedDepartments);
+            List<Long> addresses = drain(changedAddresses);
+            if (employees.isEmpty() && departments.isEmpty() && addresses.isEmpty()) {
+                return;
+            }
+            EmployeeSearchIndex target = index;
+            try {
+                readTransaction.executeWithoutResult(status -> {
+                    for (List<Long> batch : batches(employees)) {
+                        Set<Long> deleted = new HashSet<>(batch);
+                        for (EmployeeRepository.SearchFields row : employeeRepository.findSearchFieldsByIdIn(batch)) {
+                            target.update(toEntry(row));
+                            deleted.remove(row.getId());
+                        }
+                        deleted.forEach(target::delete);
+                    }
+                    for (List<Long> batch : batches(addresses)) {
+                        employeeRepository.findSearchFieldsByAddressIdIn(batch).forEach(row -> target.update(toEntry(row)));
+                    }
+                    for (List<Long> batch : batches(departments)) {
+                        try (Stream<EmployeeRepository.SearchFields> rows = employeeRepository.streamSearchFieldsByDepartmentIdIn(batch)) {
+                            rows.forEach(row -> target.update(toEntry(row)));
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                LOG.warn("Could not index changed employees for search, trying again in {} s: {}", RETRY_DELAY.toSeconds(), e.getMessage());
+                // Indexing the ones already done again is harmless.
+                changedEmployees.addAll(employees);
+                changedDepartments.addAll(departments);
+                changedAddresses.addAll(addresses);
+                scheduleSync(Instant.now().plus(RETRY_DELAY));
+            }
+            target.refresh();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        synchronized (writeLock) {
+            close(index);
+        }
+    }
+
+    EmployeeSearchIndex index() {
+        return index;
+    }
+
+    private static List<Long> drain(Set<Long> ids) {
+        List<Long> drained = new ArrayList<>();
+        for (Iterator<Long> iterator = ids.iterator(); iterator.hasNext();) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+
+    private static EmployeeSearchEntry toEntry(EmployeeRepository.SearchFields row) {
+        return new EmployeeSearchEntry(
+            row.getId(),
+            row.getFirstName(),
+            row.getLastName(),
+            row.getEmail(),
+            row.getPhone(),
+            row.getDepartmentName(),
+            row.getCity()
+        );
+    }
+
+    private static void close(EmployeeSearchIndex index) {
+        try {
+            index.close();
+        } catch (IOException e) {
+            LOG.warn("Could not close an employee search index: {}", e.getMessage());
+        }
+    }
+}
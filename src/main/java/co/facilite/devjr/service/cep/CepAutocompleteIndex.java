@@ -0,0 +1,554 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory prefix index of known addresses, answering autocomplete queries on the CEP digits or on
+ * the words of the street and city.
+ * <p>
+ * Entries live in an immutable snapshot made of two sorted primitive arrays, searched by binary search:
+ * <ul>
+ *     <li>the CEPs as {@code int}s, so a digit prefix is the contiguous range between the smallest and the
+ *     largest CEP starting with it;</li>
+ *     <li>one {@code long} per distinct word of an entry, holding the first {@value #KEY_CHARS} characters of the
+ *     word folded to lower-case ASCII in base 37, followed by the entry's position in the snapshot, so a word
+ *     prefix is also a contiguous range, in alphabetical order of the words.</li>
+ * </ul>
+ * Newly resolved addresses are kept in a small pending table, searched linearly, until {@link #merge()} rebuilds
+ * the snapshot with them. Readers never block: they work on whichever snapshot was current when they started.
+ * The number of entries is capped at {@code maxEntries}, and the pending table at {@code maxPending}; addresses
+ * that do not fit are rejected, and counted, rather than evicting known ones.
+ */
+public class CepAutocompleteIndex {
+
+    /**
+     * Characters of each word held by its key. Longer query words are also checked against the entry's text.
+     */
+    static final int KEY_CHARS = 7;
+
+    private static final int ENTRY_BITS = 24;
+
+    /**
+     * Entry positions share a key with the word code, which bounds the number of entries.
+     */
+    public static final int MAX_ENTRIES = 1 << ENTRY_BITS;
+
+    private static final int RADIX = 37;
+
+    private static final long[] RADIX_POWERS = new long[KEY_CHARS + 1];
+
+    /**
+     * Candidates looked at by a word query, bounding its cost when its longest word is very common and the
+     * others rare.
+     */
+    private static final int MAX_SCANNED = 20000;
+
+    static {
+        RADIX_POWERS[0] = 1;
+        for (int i = 1; i <= KEY_CHARS; i++) {
+            RADIX_POWERS[i] = RADIX_POWERS[i - 1] * RADIX;
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(new Entry[0], new int[0], new long[0]);
+
+    private final int maxEntries;
+
+    private final int maxPending;
+
+    private final Map<Integer, Entry> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile Snapshot snapshot = EMPTY;
+
+    public CepAutocompleteIndex(int maxEntries, int maxPending) {
+        if (maxEntries < 0 || maxEntries > MAX_ENTRIES) {
+            throw new IllegalArgumentException("maxEntries must be between 0 and " + MAX_ENTRIES);
+        }
+        this.maxEntries = maxEntries;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Adds or replaces the address of a CEP. It can be found right away, and is moved into the snapshot by the
+     * next {@link #merge()}.
+     *
+     * @return {@code false} if the address was rejected because the index or its pending table is full.
+     */
+    public boolean add(AddressDTO addressDTO) {
+        Entry entry = Entry.of(addressDTO);
+        if (entry == null) {
+            return false;
+        }
+        boolean known = pending.containsKey(entry.cep) || snapshot.indexOf(entry.cep) >= 0;
+        if (!known && (pending.size() >= maxPending || snapshot.entries.length + pending.size() >= maxEntries)) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        pending.put(entry.cep, entry);
+        return true;
+    }
+
+    /**
+     * Adds many addresses at once, rebuilding the snapshot a single time. Meant for loading the index.
+     *
+     * @return the number of addresses rejected because the index is full.
+     */
+    public synchronized int addAll(Collection<AddressDTO> addresses) {
+        List<Entry> entries = new ArrayList<>(addresses.size());
+        for (AddressDTO addressDTO : addresses) {
+            Entry entry = Entry.of(addressDTO);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        int dropped = rebuild(entries);
+        rejected.addAndGet(dropped);
+        return dropped;
+    }
+
+    /**
+     * Moves the pending addresses into a new snapshot.
+     */
+    public synchronized void merge() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Entry> merged = new ArrayList<>(pending.values());
+        rebuild(merged);
+        // Only entries left untouched since they were read; the others are merged next time.
+        merged.forEach(entry -> pending.remove(entry.cep, entry));
+    }
+
+    /**
+     * @param entries entries to add, replacing the snapshot's entries of the same CEPs; the last one wins when a CEP
+     * appears more than once.
+     * @return the number of entries dropped because the index is full.
+     */
+    private int rebuild(List<Entry> entries) {
+        Snapshot current = snapshot;
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingInt(entry -> entry.cep));
+        List<Entry> accepted = new ArrayList<>(sorted.size());
+        int room = maxEntries - current.entries.length;
+        int dropped = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            Entry entry = sorted.get(i);
+            if (i + 1 < sorted.size() && sorted.get(i + 1).cep == entry.cep) {
+                continue;
+            }
+            if (current.indexOf(entry.cep) >= 0) {
+                accepted.add(entry);
+            } else if (room > 0) {
+                accepted.add(entry);
+                room--;
+            } else {
+                dropped++;
+            }
+        }
+        snapshot = current.with(accepted.toArray(Entry[]::new));
+        return dropped;
+    }
+
+    /**
+     * @param query the first digits of a CEP, with or without punctuation, or the first letters of one or more
+     * words of the street or city, in any order, case and accents ignored.
+     * @param limit the maximum number of addresses returned.
+     * @return the matching addresses, in CEP order for a digit query and otherwise in alphabetical order of the
+     * words matched by the longest query word.
+     */
+    public List<AddressDTO> suggest(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return List.of();
+        }
+        int digits = countCepDigits(query);
+        if (digits > 0) {
+            return digits <= CepCodec.DIGITS ? suggestCeps(query, digits, limit) : List.of();
+        }
+        String[] words = words(query);
+        return words.length == 0 ? List.of() : suggestWords(words, limit);
+    }
+
+    /**
+     * @return the number of indexed addresses, pending ones included.
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        int size = current.entries.length;
+        for (Integer cep : pending.keySet()) {
+            if (current.indexOf(cep) < 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public int pendingSize() {
+        return pending.size();
+    }
+
+    /**
+     * @return the number of addresses rejected because the index was full, since it was created.
+     */
+    public long rejected() {
+        return rejected.get();
+    }
+
+    private List<AddressDTO> suggestCeps(String query, int digits, int limit) {
+        int prefix = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c >= '0' && c <= '9') {
+                prefix = prefix * 10 + (c - '0');
+            }
+        }
+        int scale = (int) Math.pow(10, CepCodec.DIGITS - digits);
+        int from = prefix * scale;
+        int to = from + scale - 1;
+
+        Snapshot current = snapshot;
+        List<Entry> matches = new ArrayList<>();
+        int start = current.lowerBound(from);
+        for (int i = start; i < current.ceps.length && current.ceps[i] <= to && matches.size() < limit; i++) {
+            if (!pending.containsKey(current.ceps[i])) {
+                matches.add(current.entries[i]);
+            }
+        }
+        for (Entry entry : pending.values()) {
+            if (entry.cep >= from && entry.cep <= to) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.comparingInt(entry -> entry.cep));
+        return toAddresses(matches, limit);
+    }
+
+    private List<AddressDTO> suggestWords(String[] words, int limit) {
+        String longest = words[0];
+        for (String word : words) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        long code = code(longest);
+        int chars = Math.min(longest.length(), KEY_CHARS);
+        long span = RADIX_POWERS[KEY_CHARS - chars];
+        long fromKey = code << ENTRY_BITS;
+        long toKey = ((code + span) << ENTRY_BITS) - 1;
+
+        Snapshot current = snapshot;
+        Set<Entry> matches = new LinkedHashSet<>();
+        int start = current.lowerBound(fromKey);
+        int end = Math.min(current.words.length, start + MAX_SCANNED);
+        for (int i = start; i < end && current.words[i] <= toKey && matches.size() < limit; i++) {
+            Entry entry = current.entries[(int) (current.words[i] & (MAX_ENTRIES - 1))];
+            if (entry.matches(words) && !pending.containsKey(entry.cep)) {
+                matches.add(entry);
+            }
+        }
+        for (Entry entry : pending.values()) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (entry.matches(words)) {
+                matches.add(entry);
+            }
+        }
+        return toAddresses(matches, limit);
+    }
+
+    private static List<AddressDTO> toAddresses(Collection<Entry> entries, int limit) {
+        List<AddressDTO> addresses = new ArrayList<>(Math.min(entries.size(), limit));
+        for (Entry entry : entries) {
+            if (addresses.size() == limit) {
+                break;
+            }
+            addresses.add(entry.toAddressDTO());
+        }
+        return addresses;
+    }
+
+    /**
+     * @return the number of digits of a query made only of digits and CEP punctuation, or {@code 0} for any
+     * other query.
+     */
+    private static int countCepDigits(String query) {
+        int digits = 0;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c != '-' && c != '.' && c != ' ') {
+                return 0;
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * Splits text into lower-case ASCII words, dropping accents and every character other than letters and digits.
+     */
+    static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            char lower = Character.toLowerCase(c);
+            if ((lower >= 'a' && lower <= 'z') || (lower >= '0' && lower <= '9')) {
+                word.append(lower);
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+        }
+        return words.toArray(String[]::new);
+    }
+
+    /**
+     * @return the first {@value #KEY_CHARS} characters of a normalized word in base 37, shorter words padded with zeros.
+     */
+    static long code(String word) {
+        long code = 0;
+        for (int i = 0; i < KEY_CHARS; i++) {
+            code *= RADIX;
+            if (i < word.length()) {
+                char c = word.charAt(i);
+                code += c <= '9' ? c - '0' + 1 : c - 'a' + 11;
+            }
+        }
+        return code;
+    }
+
+    private static final class Snapshot {
+
+        /**
+         * Sorted by CEP.
+         */
+        private final Entry[] entries;
+
+        private final int[] ceps;
+
+        /**
+         * Sorted word keys: the word code followed by the position of its entry.
+         */
+        private final long[] words;
+
+        private Snapshot(Entry[] entries, int[] ceps, long[] words) {
+            this.entries = entries;
+            this.ceps = ceps;
+            this.words = words;
+        }
+
+        /**
+         * Merges sorted entries into a copy of this snapshot in linear time. Inserting entries shifts the positions
+         * of the existing ones without reordering them, so their word keys stay sorted once renumbered, and only the
+         * keys of the new entries need sorting.
+         *
+         * @param added entries sorted by CEP, without duplicates, replacing the entries of the same CEPs.
+         */
+        Snapshot with(Entry[] added) {
+            int[] renumbered = new int[entries.length];
+            int[] addedAt = new int[added.length];
+            Entry[] merged = new Entry[entries.length + added.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < entries.length || j < added.length) {
+                if (j == added.length || (i < entries.length && entries[i].cep < added[j].cep)) {
+                    renumbered[i] = k;
+                    merged[k++] = entries[i++];
+                } else {
+                    if (i < entries.length && entries[i].cep == added[j].cep) {
+                        renumbered[i++] = -1;
+                    }
+                    merged[k] = k > 0 ? added[j].sharingStringsWith(merged[k - 1]) : added[j];
+                    addedAt[j++] = k++;
+                }
+            }
+            merged = Arrays.copyOf(merged, k);
+            int[] mergedCeps = new int[k];
+            for (int n = 0; n < k; n++) {
+                mergedCeps[n] = merged[n].cep;
+            }
+
+            long[] kept = new long[words.length];
+            int keptCount = 0;
+            for (long key : words) {
+                int position = renumbered[(int) (key & (MAX_ENTRIES - 1))];
+                if (position >= 0) {
+                    kept[keptCount++] = (key & -MAX_ENTRIES) | position;
+                }
+            }
+            int addedCount = 0;
+            for (Entry entry : added) {
+                addedCount += entry.codes.length;
+            }
+            long[] addedKeys = new long[addedCount];
+            int a = 0;
+            for (int n = 0; n < added.length; n++) {
+                for (long code : added[n].codes) {
+                    addedKeys[a++] = (code << ENTRY_BITS) | addedAt[n];
+                }
+            }
+            Arrays.sort(addedKeys);
+
+            long[] mergedWords = new long[keptCount + addedCount];
+            int x = 0;
+            int y = 0;
+            for (int n = 0; n < mergedWords.length; n++) {
+                mergedWords[n] = y == addedCount || (x < keptCount && kept[x] < addedKeys[y]) ? kept[x++] : addedKeys[y++];
+            }
+            return new Snapshot(merged, mergedCeps, mergedWords);
+        }
+
+        int indexOf(int cep) {
+            return Arrays.binarySearch(ceps, cep);
+        }
+
+        int lowerBound(int cep) {
+            int index = Arrays.binarySearch(ceps, cep);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        int lowerBound(long key) {
+            int index = Arrays.binarySearch(words, key);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    private static final class Entry {
+
+        private final int cep;
+
+        private final String street;
+
+        private final String complement;
+
+        private final String district;
+
+        private final String city;
+
+        private final Uf uf;
+
+        /**
+         * The normalized words of the street and city, each preceded by a space, for checking query words.
+         */
+        private final String text;
+
+        /**
+         * The codes of the distinct words of {@link #text}.
+         */
+        private final long[] codes;
+
+        private Entry(int cep, String street, String complement, String district, String city, Uf uf, String text, long[] codes) {
+            this.cep = cep;
+            this.street = street;
+            this.complement = complement;
+            this.district = district;
+            this.city = city;
+            this.uf = uf;
+            this.text = text;
+            this.codes = codes;
+        }
+
+        static Entry of(AddressDTO addressDTO) {
+            int cep = addressDTO == null ? CepCodec.INVALID : CepCodec.parse(addressDTO.getCep() == null ? "" : addressDTO.getCep());
+            if (cep == CepCodec.INVALID) {
+                return null;
+            }
+            StringBuilder text = new StringBuilder();
+            Set<Long> codes = new LinkedHashSet<>();
+            for (String source : new String[] { addressDTO.getStreet(), addressDTO.getCity() }) {
+                for (String word : words(source)) {
+                    text.append(' ').append(word);
+                    codes.add(code(word));
+                }
+            }
+            return new Entry(
+                cep,
+                addressDTO.getStreet(),
+                addressDTO.getComplement(),
+                addressDTO.getDistrict(),
+                addressDTO.getCity(),
+                addressDTO.getUf(),
+                text.toString(),
+                codes.stream().mapToLong(Long::longValue).toArray()
+            );
+        }
+
+        /**
+         * @return the same entry with the strings equal to those of {@code neighbour} shared with it, so that the
+         * street, district and city of nearby CEPs are mostly stored once.
+         */
+        Entry sharingStringsWith(Entry neighbour) {
+            return new Entry(
+                cep,
+                Objects.equals(street, neighbour.street) ? neighbour.street : street,
+                complement,
+                Objects.equals(district, neighbour.district) ? neighbour.district : district,
+                Objects.equals(city, neighbour.city) ? neighbour.city : city,
+                uf,
+                text,
+                codes
+            );
+        }
+
+        boolean matches(String[] words) {
+            for (String word : words) {
+                if (!startsAWord(word)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean startsAWord(String word) {
+            int from = 0;
+            while (true) {
+                int at = text.indexOf(word, from);
+                if (at < 0) {
+                    return false;
+                }
+                if (at > 0 && text.charAt(at - 1) == ' ') {
+                    return true;
+                }
+                from = at + 1;
+            }
+        }
+
+        AddressDTO toAddressDTO() {
+            AddressDTO addressDTO = new AddressDTO();
+            addressDTO.setCep(CepCodec.formatHyphenated(cep));
+            addressDTO.setStreet(street);
+            addressDTO.setComplement(complement);
+            addressDTO.setDistrict(district);
+            addressDTO.setCity(city);
+            addressDTO.setUf(uf);
+            return addressDTO;
+        }
+    }
+}
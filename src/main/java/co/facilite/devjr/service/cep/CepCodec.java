@@ -0,0 +1,67 @@
+package co.facilite.devjr.service.cep;
+
+/**
+ * Converts CEPs between their text forms and a plain {@code int}, for example {@code "72006-206"}
+ * and {@code 72006206}, without regular expressions or intermediate Strings.
+ */
+public final class CepCodec {
+
+    /**
+     * Returned by {@link #parse(CharSequence)} for anything that doesn't hold exactly 8 digits.
+     */
+    public static final int INVALID = -1;
+
+    public static final int DIGITS = 8;
+
+    private CepCodec() {}
+
+    /**
+     * Parses a CEP, ignoring every character that is not an ASCII digit, like
+     * {@code raw.replaceAll("\\D", "")} followed by a length check would.
+     *
+     * @param raw the CEP, with or without punctuation.
+     * @return the CEP as an int between {@code 0} and {@code 99999999}, or {@link #INVALID}.
+     */
+    public static int parse(CharSequence raw) {
+        int cep = 0;
+        int digits = 0;
+        for (int i = 0, length = raw.length(); i < length; i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > DIGITS) {
+                    return INVALID;
+                }
+                cep = cep * 10 + (c - '0');
+            }
+        }
+        return digits == DIGITS ? cep : INVALID;
+    }
+
+    /**
+     * @return the 8 digits of the CEP, for example {@code "72006206"}.
+     */
+    public static String format(int cep) {
+        char[] chars = new char[DIGITS];
+        for (int i = DIGITS - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + cep % 10);
+            cep /= 10;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return the CEP in its usual written form, for example {@code "72006-206"}.
+     */
+    public static String formatHyphenated(int cep) {
+        char[] chars = new char[DIGITS + 1];
+        for (int i = DIGITS; i >= 0; i--) {
+            if (i == 5) {
+                chars[i] = '-';
+                continue;
+            }
+            chars[i] = (char) ('0' + cep % 10);
+            cep /= 10;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,128 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Read-only view over a CEP dataset compiled by {@link CepDatasetImporter}.
+ * <p>
+ * The file is memory-mapped, so only the pages touched by lookups are brought into memory,
+ * and nothing of the dataset is copied onto the heap at startup. Layout:
+ * <pre>
+ * header   : magic (int), version (int), count (int), strings offset (int)
+ * ceps     : count x int, sorted ascending
+ * records  : count x (uf ordinal (byte), street, complement, district, city (int string refs))
+ * strings  : deduplicated entries of (length (unsigned short), UTF-8 bytes)
+ * </pre>
+ * String refs are offsets into the strings section, {@code -1} standing for {@code null}.
+ */
+public class CepDataset implements AutoCloseable {
+
+    static final int MAGIC = 0x43455031; // "CEP1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 17;
+    static final int NO_STRING = -1;
+
+    private static final Uf[] UFS = Uf.values();
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private final int count;
+
+    private final int recordsOffset;
+
+    private final int stringsOffset;
+
+    private CepDataset(FileChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a CEP dataset file, or unsupported version");
+        }
+        this.count = buffer.getInt(8);
+        this.recordsOffset = HEADER_SIZE + count * Integer.BYTES;
+        this.stringsOffset = buffer.getInt(12);
+    }
+
+    public static CepDataset open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("CEP dataset larger than 2 GB is not supported: " + path);
+            }
+            return new CepDataset(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of CEPs in the dataset.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Binary-searches the dataset for a CEP.
+     *
+     * @param cep the 8-digit CEP as an int, for example {@code 72006206}.
+     * @return the address for the CEP, or empty if the dataset doesn't know it.
+     */
+    public Optional<AddressDTO> find(int cep) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = buffer.getInt(HEADER_SIZE + mid * Integer.BYTES);
+            if (value < cep) {
+                low = mid + 1;
+            } else if (value > cep) {
+                high = mid - 1;
+            } else {
+                return Optional.of(decode(mid, cep));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private AddressDTO decode(int index, int cep) {
+        int record = recordsOffset + index * RECORD_SIZE;
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(CepCodec.formatHyphenated(cep));
+        addressDTO.setUf(UFS[buffer.get(record)]);
+        addressDTO.setStreet(string(buffer.getInt(record + 1)));
+        addressDTO.setComplement(string(buffer.getInt(record + 5)));
+        addressDTO.setDistrict(string(buffer.getInt(record + 9)));
+        addressDTO.setCity(string(buffer.getInt(record + 13)));
+        return addressDTO;
+    }
+
+    private String string(int ref) {
+        if (ref == NO_STRING) {
+            return null;
+        }
+        int position = stringsOffset + ref;
+        int length = Short.toUnsignedInt(buffer.getShort(position));
+        byte[] bytes = new byte[length];
+        buffer.get(position + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
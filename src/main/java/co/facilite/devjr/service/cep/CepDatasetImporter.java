@@ -0,0 +1,158 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles a CEP/address export into the binary file read by {@link CepDataset}.
+ * <p>
+ * The input is a UTF-8 text file with one address per line, in the form
+ * {@code cep;street;complement;district;city;uf}, which is easily produced from a Correios DNE export.
+ * A first line starting with {@code cep} is treated as a header. Empty fields are stored as {@code null},
+ * and when a CEP appears more than once the last line wins.
+ * <p>
+ * Usage: {@code ./gradlew cepDatasetImport -PcepInput=dne.csv -PcepOutput=cep-dataset.bin}
+ */
+public final class CepDatasetImporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepDatasetImporter.class);
+
+    private static final String SEPARATOR = ";";
+
+    private CepDatasetImporter() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CepDatasetImporter <input file> <output file>");
+            System.exit(1);
+        }
+        int count = importDataset(Path.of(args[0]), Path.of(args[1]));
+        LOG.info("Compiled {} CEPs into {}", count, args[1]);
+    }
+
+    /**
+     * Reads the input export and writes the compiled dataset, replacing the output atomically.
+     *
+     * @return the number of CEPs written.
+     */
+    public static int importDataset(Path input, Path output) throws IOException {
+        TreeMap<Integer, String[]> rows = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.regionMatches(true, 0, "cep", 0, 3))) {
+                    continue;
+                }
+                String[] fields = line.split(SEPARATOR, -1);
+                if (fields.length != 6) {
+                    throw new IOException("Line " + lineNumber + ": expected 6 fields but found " + fields.length);
+                }
+                rows.put(parseCep(fields[0], lineNumber), fields);
+            }
+        }
+
+        Path temp = Files.createTempFile(output.toAbsolutePath().getParent(), output.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                write(rows, out);
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return rows.size();
+    }
+
+    private static void write(TreeMap<Integer, String[]> rows, OutputStream out) throws IOException {
+        StringPool strings = new StringPool();
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(rows.size() * CepDataset.RECORD_SIZE);
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        for (String[] fields : rows.values()) {
+            records.writeByte(Uf.valueOf(fields[5].trim().toUpperCase()).ordinal());
+            records.writeInt(strings.ref(fields[1]));
+            records.writeInt(strings.ref(fields[2]));
+            records.writeInt(strings.ref(fields[3]));
+            records.writeInt(strings.ref(fields[4]));
+        }
+
+        long stringsOffset = CepDataset.HEADER_SIZE + (long) rows.size() * (Integer.BYTES + CepDataset.RECORD_SIZE);
+        if (stringsOffset + strings.size() > Integer.MAX_VALUE) {
+            throw new IOException("CEP dataset larger than 2 GB is not supported");
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(CepDataset.MAGIC);
+        data.writeInt(CepDataset.VERSION);
+        data.writeInt(rows.size());
+        data.writeInt((int) stringsOffset);
+        for (int cep : rows.keySet()) {
+            data.writeInt(cep);
+        }
+        recordBytes.writeTo(data);
+        strings.writeTo(data);
+        data.flush();
+    }
+
+    private static int parseCep(String raw, int lineNumber) throws IOException {
+        int cep = CepCodec.parse(raw);
+        if (cep == CepCodec.INVALID) {
+            throw new IOException("Line " + lineNumber + ": invalid CEP '" + raw + "'");
+        }
+        return cep;
+    }
+
+    /**
+     * Deduplicated, length-prefixed UTF-8 strings: cities, districts and long street names repeat a lot.
+     */
+    private static final class StringPool {
+
+        private final Map<String, Integer> refs = new HashMap<>();
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        int ref(String value) throws IOException {
+            String trimmed = value.trim();
+            if (trimmed.isEmpty()) {
+                return CepDataset.NO_STRING;
+            }
+            Integer ref = refs.get(trimmed);
+            if (ref != null) {
+                return ref;
+            }
+            byte[] utf8 = trimmed.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length > 0xFFFF) {
+                throw new IOException("Field too long: " + trimmed.substring(0, 40) + "...");
+            }
+            ref = bytes.size();
+            bytes.write(utf8.length >>> 8);
+            bytes.write(utf8.length);
+            bytes.write(utf8);
+            refs.put(trimmed, ref);
+            return ref;
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            bytes.writeTo(out);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Snapshot of resolved CEPs kept on the local disk, so that a restarted node can warm its caches
+ * without calling ViaCEP.
+ * <p>
+ * New entries are appended to a log next to the snapshot file; {@link #compact(long)} folds the log
+ * into a new snapshot written to a temporary file and atomically renamed over the previous one.
+ * Both files share the same layout:
+ * <pre>
+ * header  : magic (int), version (int)
+ * entries : cep (int), fetched at (long, epoch millis), length (int, -1 for a removed CEP),
+ *           {@link PackedAddress} bytes
+ * </pre>
+ * A torn entry at the end of the log, left by a crash during an append, is ignored; compacting
+ * right after loading keeps later appends from landing behind it.
+ */
+public class CepSnapshot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepSnapshot.class);
+
+    static final int MAGIC = 0x43455053; // "CEPS"
+    static final int VERSION = 1;
+
+    private static final int REMOVED = -1;
+
+    private static final int MAX_PACKED_LENGTH = 1 << 20;
+
+    private final Path snapshotFile;
+
+    private final Path logFile;
+
+    public CepSnapshot(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        this.logFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".log");
+    }
+
+    /**
+     * A resolved CEP, or a CEP that no longer exists when {@code address} is {@code null}.
+     */
+    public static final class Entry {
+
+        private final int cep;
+
+        private final long fetchedAt;
+
+        private final AddressDTO address;
+
+        public Entry(int cep, long fetchedAt, AddressDTO address) {
+            this.cep = cep;
+            this.fetchedAt = fetchedAt;
+            this.address = address;
+        }
+
+        public int getCep() {
+            return cep;
+        }
+
+        public long getFetchedAt() {
+            return fetchedAt;
+        }
+
+        public AddressDTO getAddress() {
+            return address;
+        }
+    }
+
+    /**
+     * Reads the snapshot, then replays the log over it.
+     *
+     * @return the live entries, the latest one per CEP; removed CEPs are left out.
+     */
+    public synchronized Collection<Entry> load() throws IOException {
+        Map<Integer, Entry> entries = new LinkedHashMap<>();
+        read(snapshotFile, entries);
+        read(logFile, entries);
+        entries.values().removeIf(entry -> entry.getAddress() == null);
+        return entries.values();
+    }
+
+    /**
+     * Appends entries to the log, and forces them to disk.
+     */
+    public synchronized void append(Collection<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(logFile.toAbsolutePath().getParent());
+        try (
+            FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+        ) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            if (channel.size() == 0) {
+                writeHeader(out);
+            }
+            for (Entry entry : entries) {
+                write(out, entry);
+            }
+            out.flush();
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Rewrites the snapshot with the live entries fetched at or after {@code notBefore}, then drops the log.
+     * Readers see either the previous snapshot or the new one, never a partial file.
+     *
+     * @return the number of entries kept.
+     */
+    public synchronized int compact(long notBefore) throws IOException {
+        Collection<Entry> entries = load();
+        Path directory = snapshotFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+        int kept = 0;
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                writeHeader(out);
+                for (Entry entry : entries) {
+                    if (entry.getFetchedAt() >= notBefore) {
+                        write(out, entry);
+                        kept++;
+                    }
+                }
+                out.flush();
+                channel.force(false);
+            }
+            Files.move(temporary, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        // Replaying a log that is already folded into the snapshot is harmless, so a crash here loses nothing.
+        Files.deleteIfExists(logFile);
+        return kept;
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    private static void write(DataOutputStream out, Entry entry) throws IOException {
+        byte[] packed = entry.getAddress() == null ? null : PackedAddress.pack(entry.getAddress());
+        if (entry.getAddress() != null && packed == null) {
+            return;
+        }
+        out.writeInt(entry.getCep());
+        out.writeLong(entry.getFetchedAt());
+        if (packed == null) {
+            out.writeInt(REMOVED);
+        } else {
+            out.writeInt(packed.length);
+            out.write(packed);
+        }
+    }
+
+    private static void read(Path file, Map<Integer, Entry> entries) throws IOException {
+        InputStream stream;
+        try {
+            stream = Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOG.warn("Ignoring {}: not a CEP snapshot, or unsupported version", file);
+                return;
+            }
+            while (true) {
+                int cep;
+                try {
+                    cep = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                long fetchedAt = in.readLong();
+                int length = in.readInt();
+                if (length < REMOVED || length > MAX_PACKED_LENGTH) {
+                    LOG.warn("Ignoring the rest of {}: corrupt entry for CEP {}", file, cep);
+                    return;
+                }
+                AddressDTO address = null;
+                if (length != REMOVED) {
+                    byte[] packed = new byte[length];
+                    in.readFully(packed);
+                    address = PackedAddress.unpack(cep, packed);
+                }
+                entries.put(cep, new Entry(cep, fetchedAt, address));
+            }
+        } catch (EOFException e) {
+            LOG.warn("Ignoring the truncated last entry of {}", file);
+        }
+    }
+}
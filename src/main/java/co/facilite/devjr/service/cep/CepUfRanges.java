@@ -0,0 +1,72 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+
+/**
+ * The state of a CEP from its first digits, following the CEP ranges the Correios assign to each state.
+ * <p>
+ * Every range boundary falls on a multiple of {@code 100000}, so the table is a byte per 3-digit prefix:
+ * {@code 1 + } the {@link Uf} ordinal, or {@code 0} for prefixes no state uses, such as {@code 000} to {@code 009}.
+ */
+public final class CepUfRanges {
+
+    private static final int PREFIX_DIVISOR = 100000;
+
+    private static final byte[] UF_BY_PREFIX = new byte[1000];
+
+    private static final Uf[] UFS = Uf.values();
+
+    static {
+        range(10, 199, Uf.SP);
+        range(200, 289, Uf.RJ);
+        range(290, 299, Uf.ES);
+        range(300, 399, Uf.MG);
+        range(400, 489, Uf.BA);
+        range(490, 499, Uf.SE);
+        range(500, 569, Uf.PE);
+        range(570, 579, Uf.AL);
+        range(580, 589, Uf.PB);
+        range(590, 599, Uf.RN);
+        range(600, 639, Uf.CE);
+        range(640, 649, Uf.PI);
+        range(650, 659, Uf.MA);
+        range(660, 688, Uf.PA);
+        range(689, 689, Uf.AP);
+        range(690, 692, Uf.AM);
+        range(693, 693, Uf.RR);
+        range(694, 698, Uf.AM);
+        range(699, 699, Uf.AC);
+        range(700, 727, Uf.DF);
+        range(728, 729, Uf.GO);
+        range(730, 736, Uf.DF);
+        range(737, 767, Uf.GO);
+        range(768, 769, Uf.RO);
+        range(770, 779, Uf.TO);
+        range(780, 788, Uf.MT);
+        range(789, 789, Uf.RO);
+        range(790, 799, Uf.MS);
+        range(800, 879, Uf.PR);
+        range(880, 899, Uf.SC);
+        range(900, 999, Uf.RS);
+    }
+
+    private CepUfRanges() {}
+
+    private static void range(int firstPrefix, int lastPrefix, Uf uf) {
+        for (int prefix = firstPrefix; prefix <= lastPrefix; prefix++) {
+            UF_BY_PREFIX[prefix] = (byte) (uf.ordinal() + 1);
+        }
+    }
+
+    /**
+     * @param cep the CEP as an int, as returned by {@link CepCodec#parse(CharSequence)}.
+     * @return the state of the CEP, or {@code null} if no state uses its range, or it is {@link CepCodec#INVALID}.
+     */
+    public static Uf ufOf(int cep) {
+        if (cep < 0 || cep > 99999999) {
+            return null;
+        }
+        int entry = UF_BY_PREFIX[cep / PREFIX_DIVISOR];
+        return entry == 0 ? null : UFS[entry - 1];
+    }
+}
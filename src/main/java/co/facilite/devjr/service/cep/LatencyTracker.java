@@ -0,0 +1,83 @@
+package co.facilite.devjr.service.cep;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Percentiles over the last {@code capacity} latencies, kept in a ring buffer written without locks.
+ * <p>
+ * A percentile sorts a copy of the buffer, so it is cached and only computed again once an eighth of
+ * the buffer has been overwritten; writers racing with the copy can make it mix old and new samples,
+ * which is fine for an estimate.
+ */
+public class LatencyTracker {
+
+    private final AtomicLongArray samples;
+
+    private final AtomicLong recorded = new AtomicLong();
+
+    private final long recomputeEvery;
+
+    private volatile Percentile cached = new Percentile(0, Double.NaN, -1);
+
+    public LatencyTracker(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.samples = new AtomicLongArray(capacity);
+        this.recomputeEvery = Math.max(1, capacity / 8);
+    }
+
+    public void record(long nanos) {
+        long index = recorded.getAndIncrement();
+        samples.set((int) (index % samples.length()), nanos);
+    }
+
+    /**
+     * @return the latencies recorded so far, including the ones already overwritten.
+     */
+    public long count() {
+        return recorded.get();
+    }
+
+    /**
+     * @param quantile between {@code 0} and {@code 1}, for example {@code 0.95}.
+     * @return the latency in nanoseconds under which {@code quantile} of the retained samples fall, or {@code -1} without samples.
+     */
+    public long percentile(double quantile) {
+        long count = recorded.get();
+        Percentile percentile = cached;
+        if (count == 0) {
+            return -1;
+        }
+        if (percentile.quantile == quantile && count - percentile.count < recomputeEvery) {
+            return percentile.nanos;
+        }
+        int size = (int) Math.min(count, samples.length());
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(quantile * size) - 1;
+        long nanos = sorted[Math.max(0, Math.min(size - 1, rank))];
+        cached = new Percentile(count, quantile, nanos);
+        return nanos;
+    }
+
+    private static final class Percentile {
+
+        final long count;
+
+        final double quantile;
+
+        final long nanos;
+
+        Percentile(long count, double quantile, long nanos) {
+            this.count = count;
+            this.quantile = quantile;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Packs the fields of an {@link AddressDTO} filled by a CEP lookup into a single byte array:
+ * <pre>
+ * uf ordinal (byte, 0xFF for none), then street, complement, district, city as
+ * (length (unsigned short, 0xFFFF for null), UTF-8 bytes)
+ * </pre>
+ * The CEP itself is not stored; it is rebuilt from the int key on unpacking.
+ */
+final class PackedAddress {
+
+    private static final Uf[] UFS = Uf.values();
+
+    private static final int NO_UF = 0xFF;
+
+    private static final int NO_STRING = 0xFFFF;
+
+    private PackedAddress() {}
+
+    /**
+     * @return the packed address, or {@code null} if a field is too long to pack.
+     */
+    static byte[] pack(AddressDTO addressDTO) {
+        byte[] street = utf8(addressDTO.getStreet());
+        byte[] complement = utf8(addressDTO.getComplement());
+        byte[] district = utf8(addressDTO.getDistrict());
+        byte[] city = utf8(addressDTO.getCity());
+        if (tooLong(street) || tooLong(complement) || tooLong(district) || tooLong(city)) {
+            return null;
+        }
+        byte[] packed = new byte[1 + packedLength(street) + packedLength(complement) + packedLength(district) + packedLength(city)];
+        packed[0] = (byte) (addressDTO.getUf() == null ? NO_UF : addressDTO.getUf().ordinal());
+        int position = write(packed, 1, street);
+        position = write(packed, position, complement);
+        position = write(packed, position, district);
+        write(packed, position, city);
+        return packed;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean tooLong(byte[] bytes) {
+        return bytes != null && bytes.length >= NO_STRING;
+    }
+
+    private static int packedLength(byte[] bytes) {
+        return bytes == null ? Short.BYTES : Short.BYTES + bytes.length;
+    }
+
+    private static int write(byte[] packed, int position, byte[] bytes) {
+        int length = bytes == null ? NO_STRING : bytes.length;
+        packed[position] = (byte) (length >>> 8);
+        packed[position + 1] = (byte) length;
+        if (bytes == null) {
+            return position + Short.BYTES;
+        }
+        System.arraycopy(bytes, 0, packed, position + Short.BYTES, bytes.length);
+        return position + Short.BYTES + bytes.length;
+    }
+
+    static AddressDTO unpack(int cep, byte[] packed) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(CepCodec.formatHyphenated(cep));
+        int uf = Byte.toUnsignedInt(packed[0]);
+        addressDTO.setUf(uf == NO_UF ? null : UFS[uf]);
+        int position = 1;
+        String[] fields = new String[4];
+        for (int i = 0; i < fields.length; i++) {
+            int length = ((packed[position] & 0xFF) << 8) | (packed[position + 1] & 0xFF);
+            position += Short.BYTES;
+            if (length != NO_STRING) {
+                fields[i] = new String(packed, position, length, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+        addressDTO.setStreet(fields[0]);
+        addressDTO.setComplement(fields[1]);
+        addressDTO.setDistrict(fields[2]);
+        addressDTO.setCity(fields[3]);
+        return addressDTO;
+    }
+}
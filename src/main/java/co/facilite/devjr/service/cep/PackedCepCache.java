@@ -0,0 +1,209 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process cache of resolved addresses keyed by the CEP as an {@code int}.
+ * <p>
+ * Keys live in a linear-probing open-addressing table of primitive ints, so neither keys nor
+ * lookups are boxed, and each address is a single byte array in the {@link PackedAddress} format.
+ * When full, the entry under a rotating hand is evicted to make room. Reads are optimistic
+ * and never block; writes are serialized.
+ */
+public class PackedCepCache {
+
+    private static final int EMPTY = 0;
+
+    private final int maxEntries;
+
+    private final long timeToLiveNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final int mask;
+
+    /**
+     * CEP + 1, so that {@link #EMPTY} can mark free slots while CEP {@code 00000000} stays valid.
+     */
+    private final int[] keys;
+
+    private final long[] expiresAt;
+
+    private final byte[][] values;
+
+    private final StampedLock lock = new StampedLock();
+
+    private int size;
+
+    private int hand;
+
+    public PackedCepCache(int maxEntries, long timeToLiveSeconds) {
+        this(maxEntries, timeToLiveSeconds, System::nanoTime);
+    }
+
+    PackedCepCache(int maxEntries, long timeToLiveSeconds, LongSupplier nanoClock) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(timeToLiveSeconds);
+        this.nanoClock = nanoClock;
+        // At most half full, which keeps probe sequences short.
+        int capacity = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.keys = new int[capacity];
+        this.expiresAt = new long[capacity];
+        this.values = new byte[capacity][];
+    }
+
+    /**
+     * @return the cached address, or {@code null} if the CEP is absent or its entry expired.
+     */
+    public AddressDTO get(int cep) {
+        long stamp = lock.tryOptimisticRead();
+        byte[] packed = read(cep);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                packed = read(cep);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return packed == null ? null : PackedAddress.unpack(cep, packed);
+    }
+
+    /**
+     * Caches the address of a CEP, replacing any previous entry. Addresses with a field too long
+     * to pack are not cached.
+     */
+    public void put(int cep, AddressDTO addressDTO) {
+        if (maxEntries == 0 || cep < 0) {
+            return;
+        }
+        byte[] packed = PackedAddress.pack(addressDTO);
+        if (packed == null) {
+            return;
+        }
+        long expiry = nanoClock.getAsLong() + timeToLiveNanos;
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(cep);
+            if (slot < 0) {
+                if (size >= maxEntries) {
+                    evictOne();
+                }
+                slot = freeSlotFor(cep + 1);
+                keys[slot] = cep + 1;
+                size++;
+            }
+            values[slot] = packed;
+            expiresAt[slot] = expiry;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void evict(int cep) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(cep);
+            if (slot >= 0) {
+                delete(slot);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(values, null);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private byte[] read(int cep) {
+        int key = cep + 1;
+        int slot = hash(key) & mask;
+        // Bounded, so that an optimistic read racing with a write cannot loop forever.
+        for (int probes = 0; probes <= mask; probes++) {
+            int current = keys[slot];
+            if (current == EMPTY) {
+                return null;
+            }
+            if (current == key) {
+                return expiresAt[slot] - nanoClock.getAsLong() > 0 ? values[slot] : null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private int slotOf(int cep) {
+        int key = cep + 1;
+        for (int slot = hash(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlotFor(int key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void evictOne() {
+        while (keys[hand] == EMPTY) {
+            hand = (hand + 1) & mask;
+        }
+        delete(hand);
+    }
+
+    /**
+     * Backward-shift deletion: entries further along the probe sequence are moved into the hole,
+     * so lookups never need tombstones.
+     */
+    private void delete(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                expiresAt[hole] = expiresAt[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        size--;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
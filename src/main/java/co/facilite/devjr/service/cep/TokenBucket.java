@@ -0,0 +1,132 @@
+package co.facilite.devjr.service.cep;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket, kept as a single theoretical arrival time updated by compare-and-set
+ * (the generic cell rate algorithm).
+ * <p>
+ * A caller that finds the bucket empty reserves the next token and sleeps until it is due, unless
+ * that is later than its deadline or {@code maxQueued} callers are already sleeping; a rejected
+ * caller reserves nothing, so it does not delay the callers behind it.
+ */
+public class TokenBucket {
+
+    /**
+     * Returned by {@link #acquire(long)} when no token could be reserved.
+     */
+    public static final long REJECTED = -1;
+
+    private final long intervalNanos;
+
+    private final long toleranceNanos;
+
+    private final int maxQueued;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong theoreticalArrival;
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder queueFullRejections = new LongAdder();
+
+    private final LongAdder deadlineRejections = new LongAdder();
+
+    /**
+     * @param permitsPerSecond the sustained rate.
+     * @param burst the tokens available at once after the bucket has been idle.
+     * @param maxQueued the callers allowed to wait for a token at the same time.
+     */
+    public TokenBucket(double permitsPerSecond, int burst, int maxQueued) {
+        this(permitsPerSecond, burst, maxQueued, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, int maxQueued, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Invalid token bucket: " + permitsPerSecond + "/s, burst " + burst + ", queue " + maxQueued);
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+        this.maxQueued = maxQueued;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes a token, waiting for it if the bucket is empty.
+     *
+     * @param maxWaitNanos how long the caller may wait for a token.
+     * @return the nanoseconds waited, or {@link #REJECTED}.
+     * @throws InterruptedException if interrupted while waiting; the reserved token is lost.
+     */
+    public long acquire(long maxWaitNanos) throws InterruptedException {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now);
+            long wait = next - toleranceNanos - now;
+            if (wait <= 0) {
+                if (theoreticalArrival.compareAndSet(arrival, next + intervalNanos)) {
+                    return 0;
+                }
+                continue;
+            }
+            if (wait > maxWaitNanos) {
+                deadlineRejections.increment();
+                return REJECTED;
+            }
+            if (!enqueue()) {
+                queueFullRejections.increment();
+                return REJECTED;
+            }
+            try {
+                if (theoreticalArrival.compareAndSet(arrival, next + intervalNanos)) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                    return wait;
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean enqueue() {
+        while (true) {
+            int current = queued.get();
+            if (current >= maxQueued) {
+                return false;
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Empties the bucket, for when the upstream service signals that it is throttling us.
+     */
+    public void drain() {
+        long drained = nanoClock.getAsLong() + toleranceNanos + intervalNanos;
+        theoreticalArrival.accumulateAndGet(drained, Math::max);
+    }
+
+    /**
+     * @return the callers currently waiting for a token.
+     */
+    public int queued() {
+        return queued.get();
+    }
+
+    public long queueFullRejections() {
+        return queueFullRejections.sum();
+    }
+
+    public long deadlineRejections() {
+        return deadlineRejections.sum();
+    }
+}
@@ -0,0 +1,62 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+
+/**
+ * Resolves two-letter UF codes, in either case, through a table indexed by the letters, so a code read
+ * into a character buffer is resolved without building a String, upper-casing it or catching the
+ * exception of {@link Uf#valueOf(String)}.
+ */
+public final class UfCodes {
+
+    private static final int LETTERS = 26;
+
+    private static final Uf[] BY_CODE = new Uf[LETTERS * LETTERS];
+
+    static {
+        for (Uf uf : Uf.values()) {
+            BY_CODE[letter(uf.name().charAt(0)) * LETTERS + letter(uf.name().charAt(1))] = uf;
+        }
+    }
+
+    private UfCodes() {}
+
+    /**
+     * @return the UF, or {@code null} when {@code code} is not the code of one.
+     */
+    public static Uf parse(CharSequence code) {
+        if (code == null || code.length() != 2) {
+            return null;
+        }
+        return lookup(code.charAt(0), code.charAt(1));
+    }
+
+    /**
+     * @return the UF whose code is {@code chars[offset, offset + length)}, or {@code null} when it is not the code of one.
+     */
+    public static Uf parse(char[] chars, int offset, int length) {
+        if (length != 2) {
+            return null;
+        }
+        return lookup(chars[offset], chars[offset + 1]);
+    }
+
+    private static Uf lookup(char first, char second) {
+        int firstLetter = letter(first);
+        int secondLetter = letter(second);
+        if (firstLetter < 0 || secondLetter < 0) {
+            return null;
+        }
+        return BY_CODE[firstLetter * LETTERS + secondLetter];
+    }
+
+    private static int letter(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+}
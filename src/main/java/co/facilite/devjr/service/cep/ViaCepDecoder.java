@@ -0,0 +1,81 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.ViaCepResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes a ViaCEP answer from the response body straight into an {@link AddressDTO} with a streaming
+ * parser, instead of binding it to a {@link ViaCepResponse} and copying the fields over.
+ * <p>
+ * Fields the lookup does not use ({@code ibge}, {@code ddd}, ...) are skipped without being turned into
+ * Strings, and the UF is resolved from the parser's character buffer by {@link UfCodes}.
+ */
+public final class ViaCepDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private ViaCepDecoder() {}
+
+    /**
+     * @param body the response body, closed once read.
+     * @return the address, or {@code null} when the body is empty or ViaCEP answered {@code {"erro": true}}.
+     * @throws JsonParseException when the body is not a complete JSON object, or its UF is unknown.
+     */
+    public static AddressDTO decode(InputStream body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object, got " + token);
+            }
+            AddressDTO addressDTO = new AddressDTO();
+            boolean notFound = false;
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "cep" -> addressDTO.setCep(text(parser, value));
+                    case "logradouro" -> addressDTO.setStreet(text(parser, value));
+                    case "complemento" -> addressDTO.setComplement(text(parser, value));
+                    case "bairro" -> addressDTO.setDistrict(text(parser, value));
+                    case "localidade" -> addressDTO.setCity(text(parser, value));
+                    case "uf" -> addressDTO.setUf(uf(parser, value));
+                    case "erro" -> notFound = isTrue(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            return notFound ? null : addressDTO;
+        }
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    /**
+     * ViaCEP has answered {@code erro} both as a boolean and as the string {@code "true"}.
+     */
+    private static boolean isTrue(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_TRUE || (value == JsonToken.VALUE_STRING && "true".equals(parser.getText()));
+    }
+
+    private static Uf uf(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        Uf uf = UfCodes.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        if (uf == null) {
+            throw new JsonParseException(parser, "Unknown UF: " + parser.getText());
+        }
+        return uf;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Building blocks for the CEP lookup.
+ */
+package co.facilite.devjr.service.cep;
@@ -0,0 +1,95 @@
+package co.facilite.devjr.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+
+/**
+ * The outcome of looking up one CEP of a batch: either the address, or the HTTP status and
+ * message the single CEP endpoint would have answered with. A {@link PartialAddressDTO} is flagged
+ * {@code partial}, as the single CEP endpoint flags it with its {@code X-Cep-Partial} header; the flag is left out of
+ * the JSON of complete addresses.
+ */
+public class CepLookupResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String cep;
+
+    private int status;
+
+    private AddressDTO address;
+
+    private String error;
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean partial;
+
+    public static CepLookupResultDTO found(String cep, AddressDTO address) {
+        CepLookupResultDTO result = new CepLookupResultDTO();
+        result.setCep(cep);
+        result.setStatus(200);
+        result.setAddress(address);
+        result.setPartial(address instanceof PartialAddressDTO);
+        return result;
+    }
+
+    public static CepLookupResultDTO failed(String cep, int status, String error) {
+        CepLookupResultDTO result = new CepLookupResultDTO();
+        result.setCep(cep);
+        result.setStatus(status);
+        result.setError(error);
+        return result;
+    }
+
+    public String getCep() {
+        return cep;
+    }
+
+    public void setCep(String cep) {
+        this.cep = cep;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public AddressDTO getAddress() {
+        return address;
+    }
+
+    public void setAddress(AddressDTO address) {
+        this.address = address;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CepLookupResultDTO{" +
+            "cep='" + getCep() + "'" +
+            ", status=" + getStatus() +
+            ", address=" + getAddress() +
+            ", error='" + getError() + "'" +
+            ", partial='" + isPartial() + "'" +
+            "}";
+    }
+}
@@ -42,6 +42,45 @@ public class EmployeeDTO implements Serializable {
 
     private DepartmentDTO department;
 
+    public EmployeeDTO() {}
+
+    /**
+     * Builds the DTO from the flat row of {@link co.facilite.devjr.repository.EmployeeRepositoryWithProjections}, the
+     * address and department holding their id only, plus the department name.
+     */
+    @SuppressWarnings("java:S107") // Methods should not have too many parameters
+    public EmployeeDTO(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        String phone,
+        Instant hireDate,
+        BigDecimal salary,
+        Boolean active,
+        Long addressId,
+        Long departmentId,
+        String departmentName
+    ) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+        this.hireDate = hireDate;
+        this.salary = salary;
+        this.active = active;
+        if (addressId != null) {
+            this.address = new AddressDTO();
+            this.address.setId(addressId);
+        }
+        if (departmentId != null) {
+            this.department = new DepartmentDTO();
+            this.department.setId(departmentId);
+            this.department.setName(departmentName);
+        }
+    }
+
     public Long getId() {
         return id;
     }
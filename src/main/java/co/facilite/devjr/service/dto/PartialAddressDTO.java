@@ -0,0 +1,10 @@
+package co.facilite.devjr.service.dto;
+
+/**
+ * An address of which only the CEP and its state are known, answered by the CEP lookup when no CEP provider
+ * could answer in time and no earlier answer is cached.
+ */
+public class PartialAddressDTO extends AddressDTO {
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,75 @@
+package co.facilite.devjr.service.impl;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.CepProvider;
+import co.facilite.devjr.service.cep.CepCodec;
+import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.BrasilApiCepResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * BrasilAPI, which answers {@code 404} for an unknown CEP and has no complement.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.cep.brasil-api", name = "enabled", havingValue = "true")
+public class BrasilApiCepProvider implements CepProvider {
+
+    public static final String NAME = "brasilapi";
+
+    private final RestTemplate restTemplate;
+
+    private final String url;
+
+    public BrasilApiCepProvider(@Qualifier("cepRestTemplate") RestTemplate restTemplate, ApplicationProperties applicationProperties) {
+        this.restTemplate = restTemplate;
+        this.url = applicationProperties.getCep().getBrasilApi().getUrl();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public AddressDTO fetch(String cep) {
+        BrasilApiCepResponse response;
+        try {
+            response = restTemplate.getForObject(url, BrasilApiCepResponse.class, cep);
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        }
+        if (response == null) {
+            return null;
+        }
+        try {
+            return mapToAddressDTO(response);
+        } catch (IllegalArgumentException e) {
+            HttpMessageConversionException decodeError = new HttpMessageConversionException(e.getMessage(), e);
+            throw new RestClientException("Unexpected BrasilAPI response for CEP " + cep, decodeError);
+        }
+    }
+
+    private static AddressDTO mapToAddressDTO(BrasilApiCepResponse response) {
+        int cep = response.getCep() == null ? CepCodec.INVALID : CepCodec.parse(response.getCep());
+        if (cep == CepCodec.INVALID) {
+            throw new IllegalArgumentException("Invalid CEP " + response.getCep());
+        }
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(CepCodec.formatHyphenated(cep));
+        addressDTO.setStreet(response.getStreet());
+        addressDTO.setComplement("");
+        addressDTO.setDistrict(response.getNeighborhood());
+        addressDTO.setCity(response.getCity());
+        if (response.getState() != null) {
+            addressDTO.setUf(Uf.valueOf(response.getState().toUpperCase()));
+        }
+        return addressDTO;
+    }
+}
@@ -1,60 +1,379 @@
 package co.facilite.devjr.service.impl;
 
-import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.config.ApplicationProperties;
 import co.facilite.devjr.service.CepLookupService;
+import co.facilite.devjr.service.CepProviderChain;
+import co.facilite.devjr.service.CepSharedCacheService;
+import co.facilite.devjr.service.CepSnapshotService;
+import co.facilite.devjr.service.cep.CepCodec;
+import co.facilite.devjr.service.cep.CepDataset;
+import co.facilite.devjr.service.cep.CepUfRanges;
+import co.facilite.devjr.service.cep.PackedCepCache;
+import co.facilite.devjr.service.cep.SingleFlight;
 import co.facilite.devjr.service.dto.AddressDTO;
-import co.facilite.devjr.service.dto.ViaCepResponse;
+import co.facilite.devjr.service.dto.PartialAddressDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class CepLookupServiceImpl implements CepLookupService {
 
-    private final RestTemplate restTemplate;
+    private static final Logger LOG = LoggerFactory.getLogger(CepLookupServiceImpl.class);
 
-    public CepLookupServiceImpl(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public static final String FALLBACK_METER_NAME = "cep.lookup.fallbacks";
+
+    public static final String NORMALIZATION_FAILURES_METER_NAME = "cep.normalization.failures";
+
+    public static final String CACHE_GETS_METER_NAME = "cep.cache.gets";
+
+    private static final int MAX_PENDING_REFRESHES = 10000;
+
+    private final CepProviderChain cepProviderChain;
+
+    private final CacheManager cacheManager;
+
+    private final Optional<CepDataset> cepDataset;
+
+    private final Optional<CepSnapshotService> cepSnapshotService;
+
+    private final Optional<CepSharedCacheService> cepSharedCacheService;
+
+    private final Executor taskExecutor;
+
+    private final Executor cepLookupExecutor;
+
+    private final long asyncTimeoutMillis;
+
+    private final boolean partialFallback;
+
+    private final Counter staleFallbackCounter;
+
+    private final Counter unavailableFallbackCounter;
+
+    private final Counter partialFallbackCounter;
+
+    private final Counter missingCepCounter;
+
+    private final Counter invalidCepCounter;
+
+    private final Counter outOfRangeCepCounter;
+
+    private final CacheGets datasetGets;
+
+    private final CacheGets packedGets;
+
+    private final CacheGets cepCacheGets;
+
+    private final CacheGets notFoundCacheGets;
+
+    private final CacheGets sharedGets;
+
+    private final PackedCepCache packedCache;
+
+    private final boolean packedEnabled;
+
+    private final SingleFlight<String, AddressDTO> upstreamCalls = new SingleFlight<>();
+
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+
+    public CepLookupServiceImpl(
+        CepProviderChain cepProviderChain,
+        CacheManager cacheManager,
+        Optional<CepDataset> cepDataset,
+        Optional<CepSnapshotService> cepSnapshotService,
+        Optional<CepSharedCacheService> cepSharedCacheService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        @Qualifier("cepLookupExecutor") Executor cepLookupExecutor
+    ) {
+        this.cepProviderChain = cepProviderChain;
+        this.cacheManager = cacheManager;
+        this.cepDataset = cepDataset;
+        this.cepSnapshotService = cepSnapshotService;
+        this.cepSharedCacheService = cepSharedCacheService;
+        this.taskExecutor = taskExecutor;
+        this.cepLookupExecutor = cepLookupExecutor;
+        ApplicationProperties.Cep.Cache cache = applicationProperties.getCep().getCache();
+        this.packedCache = new PackedCepCache(cache.getPackedMaxEntries(), cache.getTimeToLiveSeconds());
+        this.packedEnabled = cache.getPackedMaxEntries() > 0;
+        this.asyncTimeoutMillis = applicationProperties.getCep().getExecutor().getTimeout().toMillis();
+        this.partialFallback = applicationProperties.getCep().getFallback().isPartial();
+        this.staleFallbackCounter = fallbackCounter("stale").register(meterRegistry);
+        this.unavailableFallbackCounter = fallbackCounter("unavailable").register(meterRegistry);
+        this.partialFallbackCounter = fallbackCounter("partial").register(meterRegistry);
+        this.missingCepCounter = normalizationFailureCounter("missing").register(meterRegistry);
+        this.invalidCepCounter = normalizationFailureCounter("invalid").register(meterRegistry);
+        this.outOfRangeCepCounter = normalizationFailureCounter("out-of-range").register(meterRegistry);
+        this.datasetGets = new CacheGets("dataset", meterRegistry);
+        this.packedGets = new CacheGets("packed", meterRegistry);
+        this.cepCacheGets = new CacheGets(CEP_CACHE, meterRegistry);
+        this.notFoundCacheGets = new CacheGets(CEP_NOT_FOUND_CACHE, meterRegistry);
+        this.sharedGets = new CacheGets("shared", meterRegistry);
+        cepProviderChain.onRecovery(this::refreshPending);
+    }
+
+    private static Counter.Builder normalizationFailureCounter(String reason) {
+        return Counter.builder(NORMALIZATION_FAILURES_METER_NAME).description("CEPs rejected before any lookup").tag("reason", reason);
+    }
+
+    private static Counter.Builder fallbackCounter(String outcome) {
+        return Counter.builder(FALLBACK_METER_NAME)
+            .description("CEP lookups answered without a provider because all of them failed, were circuit-broken or rate limited")
+            .tag("outcome", outcome);
     }
 
     @Override
     public String normalizeCep(String cepNaoFormatado) {
         if (cepNaoFormatado == null) {
+            missingCepCounter.increment();
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CEP não pode ser nulo");
         }
-        String cepFormatado = cepNaoFormatado.replaceAll("\\D", "");
-        if (cepFormatado.length() != 8) {
+        int cep = CepCodec.parse(cepNaoFormatado);
+        if (cep == CepCodec.INVALID) {
+            invalidCepCounter.increment();
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CEP deve ter 8 digitos");
         }
-        return cepFormatado;
+        return CepCodec.format(cep);
     }
 
+    /**
+     * Answers from the offline dataset when one is configured. Otherwise this is a read-through
+     * lookup: resolved addresses and "not found" answers are kept in separate cache regions,
+     * so each can have its own size and time to live, and resolved addresses are also kept in the
+     * packed in-process table when {@code application.cep.cache.packed-max-entries} is set.
+     * Concurrent misses for the same CEP share a single upstream call.
+     */
     @Override
     public AddressDTO lookup(String cep) {
-        String url = String.format("https://viacep.com.br/ws/%s/json/", cep);
+        AddressDTO local = findLocally(cep);
+        if (local != null) {
+            return local;
+        }
+        return upstreamCalls.execute(cep, () -> load(cep));
+    }
+
+    /**
+     * Answers from the offline dataset or the caches on the calling thread; only a lookup that has to
+     * call a CEP provider is handed to the CEP lookup executor. A full executor fails with {@code 503}, and a
+     * lookup still pending after {@code application.cep.executor.timeout} fails with {@code 504}. With
+     * {@code application.cep.fallback.partial}, both are answered with a {@link PartialAddressDTO} instead.
+     */
+    @Override
+    public CompletableFuture<AddressDTO> lookupAsync(String cep) {
+        AddressDTO local;
+        try {
+            local = findLocally(cep);
+        } catch (ResponseStatusException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        CompletableFuture<AddressDTO> future;
         try {
-            ViaCepResponse response = restTemplate.getForObject(url, ViaCepResponse.class);
-            if (response == null || response.getErro()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "CEP não encontrado");
+            future = CompletableFuture.supplyAsync(() -> upstreamCalls.execute(cep, () -> load(cep)), cepLookupExecutor);
+        } catch (RejectedExecutionException e) {
+            if (partialFallback) {
+                return CompletableFuture.completedFuture(partial(cep));
             }
-            return mapToAddressDTO(response);
-        } catch (RestClientException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "CEP service unavailable");
+            return CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "CEP lookup busy"));
         }
+        return future
+            .orTimeout(asyncTimeoutMillis, TimeUnit.MILLISECONDS)
+            .exceptionally(e -> {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    if (partialFallback) {
+                        return partial(cep);
+                    }
+                    throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "CEP lookup timed out");
+                }
+                throw e instanceof CompletionException completionException ? completionException : new CompletionException(e);
+            });
     }
 
-    private AddressDTO mapToAddressDTO(ViaCepResponse response) {
-        AddressDTO addressDTO = new AddressDTO();
-        addressDTO.setCep(response.getCep());
-        addressDTO.setStreet(response.getLogradouro());
-        addressDTO.setComplement(response.getComplemento());
-        addressDTO.setDistrict(response.getBairro());
-        addressDTO.setCity(response.getLocalidade());
-        if (response.getUf() != null) {
-            addressDTO.setUf(Uf.valueOf(response.getUf().toUpperCase()));
+    /**
+     * @return the address from the offline dataset or the cache, or {@code null} when a CEP provider has to be called.
+     * @throws ResponseStatusException with {@code 404} when the CEP is known not to exist, or is in no state's range.
+     */
+    private AddressDTO findLocally(String cep) {
+        int code = CepCodec.parse(cep);
+        if (CepUfRanges.ufOf(code) == null) {
+            outOfRangeCepCounter.increment();
+            throw cepNotFound();
+        }
+        if (cepDataset.isPresent()) {
+            AddressDTO offline = datasetGets.record(cepDataset.get().find(code).orElse(null));
+            if (offline != null) {
+                return offline;
+            }
+        }
+        if (packedEnabled) {
+            AddressDTO packed = packedGets.record(packedCache.get(code));
+            if (packed != null) {
+                return packed;
+            }
         }
+        Cache cepCache = Objects.requireNonNull(cacheManager.getCache(CEP_CACHE));
+        AddressDTO cached = cepCacheGets.record(cepCache.get(cep, AddressDTO.class));
+        if (cached != null) {
+            return cached;
+        }
+        Cache notFoundCache = Objects.requireNonNull(cacheManager.getCache(CEP_NOT_FOUND_CACHE));
+        if (notFoundCacheGets.record(notFoundCache.get(cep)) != null) {
+            throw cepNotFound();
+        }
+        return null;
+    }
+
+    @Override
+    public void refresh(String cep) {
+        try {
+            upstreamCalls.execute(cep, () -> resolve(cep));
+        } catch (ResponseStatusException e) {
+            LOG.debug("Refresh of CEP {} failed: {}", cep, e.getReason());
+        }
+    }
+
+    /**
+     * Answers from the table shared with the other nodes when it holds a fresh row, and from the CEP providers otherwise.
+     */
+    private AddressDTO load(String cep) {
+        if (cepSharedCacheService.isPresent()) {
+            AddressDTO shared = sharedGets.record(cepSharedCacheService.get().find(cep).orElse(null));
+            if (shared != null) {
+                cache(cep, shared);
+                return shared;
+            }
+        }
+        return resolve(cep);
+    }
+
+    /**
+     * Calls the CEP providers through the {@link CepProviderChain}. When none of them could answer, the
+     * last known good address is served even past its time to live, and the CEP is refreshed in the
+     * background once the circuit of a provider closes again. Without one, the answer is a
+     * {@link PartialAddressDTO} when {@code application.cep.fallback.partial} is set, and the error otherwise.
+     */
+    private AddressDTO resolve(String cep) {
+        Cache lastKnownGoodCache = Objects.requireNonNull(cacheManager.getCache(CEP_LAST_KNOWN_GOOD_CACHE));
+        AddressDTO addressDTO;
+        try {
+            addressDTO = cepProviderChain.resolve(cep);
+        } catch (ResponseStatusException unavailable) {
+            return fallback(cep, lastKnownGoodCache, unavailable);
+        }
+
+        pendingRefreshes.remove(cep);
+        if (addressDTO == null) {
+            packedCache.evict(CepCodec.parse(cep));
+            lastKnownGoodCache.evict(cep);
+            Objects.requireNonNull(cacheManager.getCache(CEP_NOT_FOUND_CACHE)).put(cep, Boolean.TRUE);
+            cepSnapshotService.ifPresent(snapshot -> snapshot.record(cep, null));
+            cepSharedCacheService.ifPresent(shared -> shared.remove(cep));
+            throw cepNotFound();
+        }
+        cache(cep, addressDTO);
+        cepSnapshotService.ifPresent(snapshot -> snapshot.record(cep, addressDTO));
+        cepSharedCacheService.ifPresent(shared -> shared.save(cep, addressDTO));
+        return addressDTO;
+    }
+
+    private AddressDTO fallback(String cep, Cache lastKnownGoodCache, ResponseStatusException unavailable) {
+        AddressDTO lastKnownGood = lastKnownGoodCache.get(cep, AddressDTO.class);
+        if (lastKnownGood == null) {
+            if (partialFallback) {
+                return partial(cep);
+            }
+            unavailableFallbackCounter.increment();
+            throw unavailable;
+        }
+        staleFallbackCounter.increment();
+        if (pendingRefreshes.size() < MAX_PENDING_REFRESHES) {
+            pendingRefreshes.add(cep);
+        }
+        return lastKnownGood;
+    }
+
+    private void cache(String cep, AddressDTO addressDTO) {
+        Objects.requireNonNull(cacheManager.getCache(CEP_CACHE)).put(cep, addressDTO);
+        packedCache.put(CepCodec.parse(cep), addressDTO);
+        Objects.requireNonNull(cacheManager.getCache(CEP_LAST_KNOWN_GOOD_CACHE)).put(cep, addressDTO);
+    }
+
+    private void refreshPending() {
+        for (String cep : pendingRefreshes) {
+            taskExecutor.execute(() -> {
+                if (pendingRefreshes.contains(cep) && cepProviderChain.isAvailable()) {
+                    try {
+                        upstreamCalls.execute(cep, () -> resolve(cep));
+                    } catch (ResponseStatusException e) {
+                        LOG.debug("Background refresh of CEP {} failed: {}", cep, e.getReason());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the CEP and its state, all that is known without a CEP provider. It is not cached.
+     */
+    private AddressDTO partial(String cep) {
+        partialFallbackCounter.increment();
+        int code = CepCodec.parse(cep);
+        PartialAddressDTO addressDTO = new PartialAddressDTO();
+        addressDTO.setCep(CepCodec.formatHyphenated(code));
+        addressDTO.setUf(CepUfRanges.ufOf(code));
         return addressDTO;
     }
+
+    private static ResponseStatusException cepNotFound() {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "CEP não encontrado");
+    }
+
+    /**
+     * Hit and miss counters of one of the places a CEP is looked up before the CEP providers.
+     */
+    private static final class CacheGets {
+
+        private final Counter hits;
+
+        private final Counter misses;
+
+        CacheGets(String cache, MeterRegistry meterRegistry) {
+            this.hits = builder(cache, "hit").register(meterRegistry);
+            this.misses = builder(cache, "miss").register(meterRegistry);
+        }
+
+        private static Counter.Builder builder(String cache, String result) {
+            return Counter.builder(CACHE_GETS_METER_NAME)
+                .description("CEP lookups answered, or not, by each cache tier")
+                .tag("cache", cache)
+                .tag("result", result);
+        }
+
+        <T> T record(T value) {
+            (value == null ? misses : hits).increment();
+            return value;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package co.facilite.devjr.service.impl;
 
 import co.facilite.devjr.domain.Employee;
 import co.facilite.devjr.repository.EmployeeRepository;
+import co.facilite.devjr.service.EmployeeQueryService;
 import co.facilite.devjr.service.EmployeeService;
 import co.facilite.devjr.service.dto.EmployeeDTO;
 import co.facilite.devjr.service.mapper.EmployeeMapper;
@@ -26,9 +27,16 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private final EmployeeMapper employeeMapper;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeMapper employeeMapper) {
+    private final EmployeeQueryService employeeQueryService;
+
+    public EmployeeServiceImpl(
+        EmployeeRepository employeeRepository,
+        EmployeeMapper employeeMapper,
+        EmployeeQueryService employeeQueryService
+    ) {
         this.employeeRepository = employeeRepository;
         this.employeeMapper = employeeMapper;
+        this.employeeQueryService = employeeQueryService;
     }
 
     @Override
@@ -36,6 +44,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         LOG.debug("Request to save Employee : {}", employeeDTO);
         Employee employee = employeeMapper.toEntity(employeeDTO);
         employee = employeeRepository.save(employee);
+        employeeQueryService.invalidateCounts();
         return employeeMapper.toDto(employee);
     }
 
@@ -44,6 +53,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         LOG.debug("Request to update Employee : {}", employeeDTO);
         Employee employee = employeeMapper.toEntity(employeeDTO);
         employee = employeeRepository.save(employee);
+        employeeQueryService.invalidateCounts();
         return employeeMapper.toDto(employee);
     }
 
@@ -59,7 +69,10 @@ public class EmployeeServiceImpl implements EmployeeService {
                 return existingEmployee;
             })
             .map(employeeRepository::save)
-            .map(employeeMapper::toDto);
+            .map(employee -> {
+                employeeQueryService.invalidateCounts();
+                return employeeMapper.toDto(employee);
+            });
     }
 
     public Page<EmployeeDTO> findAllWithEagerRelationships(Pageable pageable) {
@@ -77,5 +90,6 @@ public class EmployeeServiceImpl implements EmployeeService {
     public void delete(Long id) {
         LOG.debug("Request to delete Employee : {}", id);
         employeeRepository.deleteById(id);
+        employeeQueryService.invalidateCounts();
     }
 }
@@ -0,0 +1,79 @@
+package co.facilite.devjr.service.impl;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.CepProvider;
+import co.facilite.devjr.service.cep.ViaCepDecoder;
+import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.ViaCepResponse;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * ViaCEP, which answers {@code {"erro": true}} for an unknown CEP.
+ * <p>
+ * With {@code application.cep.via-cep.streaming-decode}, answers are read by {@link ViaCepDecoder} from
+ * the response body; otherwise they are bound to a {@link ViaCepResponse} by the message converters.
+ */
+@Service
+public class ViaCepProvider implements CepProvider {
+
+    public static final String NAME = "viacep";
+
+    private static final RequestCallback ACCEPT_JSON = request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+
+    private final RestTemplate restTemplate;
+
+    private final String url;
+
+    private final boolean streamingDecode;
+
+    public ViaCepProvider(@Qualifier("cepRestTemplate") RestTemplate restTemplate, ApplicationProperties applicationProperties) {
+        this.restTemplate = restTemplate;
+        this.url = applicationProperties.getCep().getViaCep().getUrl();
+        this.streamingDecode = applicationProperties.getCep().getViaCep().isStreamingDecode();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public AddressDTO fetch(String cep) {
+        if (streamingDecode) {
+            // An IOException of the decoder reaches the caller as a ResourceAccessException caused by it.
+            return restTemplate.execute(url, HttpMethod.GET, ACCEPT_JSON, response -> ViaCepDecoder.decode(response.getBody()), cep);
+        }
+        ViaCepResponse response = restTemplate.getForObject(url, ViaCepResponse.class, cep);
+        if (response == null || response.getErro()) {
+            return null;
+        }
+        try {
+            return mapToAddressDTO(response);
+        } catch (IllegalArgumentException e) {
+            HttpMessageConversionException decodeError = new HttpMessageConversionException(e.getMessage(), e);
+            throw new RestClientException("Unexpected ViaCEP response for CEP " + cep, decodeError);
+        }
+    }
+
+    static AddressDTO mapToAddressDTO(ViaCepResponse response) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(response.getCep());
+        addressDTO.setStreet(response.getLogradouro());
+        addressDTO.setComplement(response.getComplemento());
+        addressDTO.setDistrict(response.getBairro());
+        addressDTO.setCity(response.getLocalidade());
+        if (response.getUf() != null) {
+            addressDTO.setUf(Uf.valueOf(response.getUf().toUpperCase()));
+        }
+        return addressDTO;
+    }
+}
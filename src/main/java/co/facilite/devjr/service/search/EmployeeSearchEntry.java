@@ -0,0 +1,67 @@
+package co.facilite.devjr.service.search;
+
+/**
+ * The searchable text of an employee: its own fields, the name of its department and the city of its address.
+ */
+public final class EmployeeSearchEntry {
+
+    private final long id;
+
+    private final String firstName;
+
+    private final String lastName;
+
+    private final String email;
+
+    private final String phone;
+
+    private final String departmentName;
+
+    private final String city;
+
+    public EmployeeSearchEntry(
+        long id,
+        String firstName,
+        String lastName,
+        String email,
+        String phone,
+        String departmentName,
+        String city
+    ) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.phone = phone;
+        this.departmentName = departmentName;
+        this.city = city;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public String getCity() {
+        return city;
+    }
+}
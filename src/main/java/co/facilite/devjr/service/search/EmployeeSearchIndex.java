@@ -0,0 +1,357 @@
+package co.facilite.devjr.service.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldCollectorManager;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+
+/**
+ * In-memory Lucene index of the searchable text of employees, answering free-text queries that tolerate typos and
+ * complete the words being typed.
+ * <p>
+ * Text is split into runs of letters and digits, lower-cased and folded to ASCII, so {@code João} is found by
+ * {@code joao}; phones are also indexed as their digits alone. A query matches the employees having every one of its
+ * first {@value #MAX_TERMS} words in some field, the last one possibly as the start of a word, most relevant first.
+ * Names weigh more than the email and phone, which weigh more than the department and city. Only when nothing matches
+ * is the query run again letting words be misspelled by one edit, or two for words of {@value #TWO_EDITS_LENGTH}
+ * characters or more, so typos cost nothing to the queries that have none.
+ * <p>
+ * Writes are visible to searches after {@link #refresh()}. The index is safe for concurrent use.
+ */
+public class EmployeeSearchIndex implements Closeable {
+
+    /**
+     * Words of a query taking part in the search; the rest are ignored.
+     */
+    public static final int MAX_TERMS = 5;
+
+    static final int TWO_EDITS_LENGTH = 6;
+
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    /**
+     * Index words a misspelled query word stands for at most, which bounds the size of the rewritten query.
+     */
+    private static final int MAX_FUZZY_EXPANSIONS = 10;
+
+    private static final float EXACT_BOOST = 3;
+
+    private static final float PREFIX_BOOST = 2;
+
+    /**
+     * Matches counted exactly at most; past it, the total is a lower bound, which spares scoring every match of
+     * common words.
+     */
+    static final int TOTAL_HITS_THRESHOLD = 1000;
+
+    static final String ID = "id";
+    static final String FIRST_NAME = "firstName";
+    static final String LAST_NAME = "lastName";
+    static final String EMAIL = "email";
+    static final String PHONE = "phone";
+    static final String DEPARTMENT = "department";
+    static final String CITY = "city";
+    static final String ALL = "all";
+
+    private static final Map<String, Float> FIELD_BOOSTS = new LinkedHashMap<>();
+
+    static {
+        FIELD_BOOSTS.put(FIRST_NAME, 3f);
+        FIELD_BOOSTS.put(LAST_NAME, 3f);
+        FIELD_BOOSTS.put(EMAIL, 2f);
+        FIELD_BOOSTS.put(PHONE, 2f);
+        FIELD_BOOSTS.put(DEPARTMENT, 1f);
+        FIELD_BOOSTS.put(CITY, 1f);
+    }
+
+    /**
+     * By relevance, then by id, so equally relevant employees keep a stable order from page to page.
+     */
+    private static final Sort SORT = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG));
+
+    private final Analyzer analyzer = new FoldingAnalyzer();
+
+    private final Directory directory = new ByteBuffersDirectory();
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    public EmployeeSearchIndex() {
+        try {
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+            searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The ids of a page of matching employees, and how many there are in all.
+     */
+    public static final class Hits {
+
+        private final long total;
+
+        private final boolean exact;
+
+        private final List<Long> ids;
+
+        private Hits(long total, boolean exact, List<Long> ids) {
+            this.total = total;
+            this.exact = exact;
+            this.ids = ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return whether the total is exact, rather than a lower bound.
+         */
+        public boolean isExact() {
+            return exact;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+    }
+
+    /**
+     * Adds an employee known not to be in the index yet, as when filling a new one.
+     */
+    public void add(EmployeeSearchEntry entry) {
+        try {
+            writer.addDocument(toDocument(entry));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adds an employee, or replaces it if already in the index.
+     */
+    public void update(EmployeeSearchEntry entry) {
+        try {
+            writer.updateDocument(idTerm(entry.getId()), toDocument(entry));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(long id) {
+        try {
+            writer.deleteDocuments(idTerm(id));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes the writes so far visible to searches.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the number of employees visible to searches.
+     */
+    public int size() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param text the words to look for, in any order, the last one possibly incomplete.
+     * @param offset the number of matching employees to skip.
+     * @param limit the maximum number of ids to return.
+     * @return the ids of the matching employees from {@code offset}, most relevant first, and their total.
+     */
+    public Hits search(String text, int offset, int limit) {
+        List<String> terms = terms(text);
+        if (terms.isEmpty()) {
+            return new Hits(0, true, List.of());
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopFieldDocs top = searcher.search(query(terms, false), collector(offset + limit));
+                if (top.totalHits.value == 0) {
+                    // Nothing has all the words as typed: some must be misspelled.
+                    top = searcher.search(query(terms, true), collector(offset + limit));
+                }
+                List<Long> ids = new ArrayList<>(Math.max(0, top.scoreDocs.length - offset));
+                for (int i = offset; i < top.scoreDocs.length; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    ids.add((Long) ((FieldDoc) hit).fields[1]);
+                }
+                return new Hits(top.totalHits.value, top.totalHits.relation == TotalHits.Relation.EQUAL_TO, ids);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * @return the distinct words of the text, as they are indexed, at most {@value #MAX_TERMS} of them.
+     */
+    List<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream tokens = analyzer.tokenStream("", text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (terms.size() < MAX_TERMS && tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static TopFieldCollectorManager collector(int hits) {
+        return new TopFieldCollectorManager(SORT, hits, null, TOTAL_HITS_THRESHOLD, false);
+    }
+
+    /**
+     * @param fuzzy whether words may also match within some edits, rather than only exactly or, for the last one, as
+     * the start of a word.
+     */
+    private static Query query(List<String> terms, boolean fuzzy) {
+        BooleanQuery.Builder all = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean last = i == terms.size() - 1;
+            boolean digits = term.chars().allMatch(Character::isDigit);
+            BooleanQuery.Builder any = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                if (PHONE.equals(field) && !digits) {
+                    return;
+                }
+                Term indexed = new Term(field, term);
+                any.add(new BoostQuery(new TermQuery(indexed), boost * EXACT_BOOST), BooleanClause.Occur.SHOULD);
+                if (last) {
+                    any.add(new BoostQuery(new PrefixQuery(indexed), boost * PREFIX_BOOST), BooleanClause.Occur.SHOULD);
+                }
+            });
+            if (fuzzy && !digits && term.length() >= MIN_FUZZY_LENGTH) {
+                // On the field holding all the text, so the automaton of the word is built once.
+                int maxEdits = term.length() >= TWO_EDITS_LENGTH ? 2 : 1;
+                any.add(new FuzzyQuery(new Term(ALL, term), maxEdits, 1, MAX_FUZZY_EXPANSIONS, true), BooleanClause.Occur.SHOULD);
+            }
+            all.add(any.build(), BooleanClause.Occur.MUST);
+        }
+        return all.build();
+    }
+
+    private static Document toDocument(EmployeeSearchEntry entry) {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(entry.getId()), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID, entry.getId()));
+        addText(document, FIRST_NAME, entry.getFirstName());
+        addText(document, LAST_NAME, entry.getLastName());
+        addText(document, EMAIL, entry.getEmail());
+        if (entry.getPhone() != null) {
+            addText(document, PHONE, entry.getPhone() + ' ' + entry.getPhone().replaceAll("\\D", ""));
+        }
+        addText(document, DEPARTMENT, entry.getDepartmentName());
+        addText(document, CITY, entry.getCity());
+        addText(
+            document,
+            ALL,
+            Stream.of(entry.getFirstName(), entry.getLastName(), entry.getEmail(), entry.getDepartmentName(), entry.getCity())
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "))
+        );
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static Term idTerm(long id) {
+        return new Term(ID, Long.toString(id));
+    }
+
+    /**
+     * Splits text into runs of letters and digits, lower-cased and folded to ASCII.
+     */
+    private static final class FoldingAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package co.facilite.devjr.service.search;
+
+import co.facilite.devjr.domain.Address;
+import co.facilite.devjr.domain.Department;
+import co.facilite.devjr.domain.Employee;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hibernate listener telling which employees need to be indexed again, once the transaction that wrote them
+ * committed: the employees written, those of departments renamed, and those of addresses that changed city.
+ */
+public class EmployeeSearchListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String DEPARTMENT_NAME = "name";
+
+    private static final String ADDRESS_CITY = "city";
+
+    private final Changes changes;
+
+    /**
+     * Receives the changes, on the thread that committed them.
+     */
+    public interface Changes {
+        void employeeChanged(Long id);
+
+        void departmentChanged(Long id);
+
+        void addressChanged(Long id);
+    }
+
+    public EmployeeSearchListener(Changes changes) {
+        this.changes = changes;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Employee.class || type == Department.class || type == Address.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // New departments and addresses have no employees yet.
+        if (event.getEntity() instanceof Employee) {
+            changes.employeeChanged((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Employee) {
+            changes.employeeChanged((Long) event.getId());
+        } else if (entity instanceof Department && isDirty(event, DEPARTMENT_NAME)) {
+            changes.departmentChanged((Long) event.getId());
+        } else if (entity instanceof Address && isDirty(event, ADDRESS_CITY)) {
+            changes.addressChanged((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        // Departments and addresses can only be deleted once no employee refers to them.
+        if (event.getEntity() instanceof Employee) {
+            changes.employeeChanged((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was written.
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was written.
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was written.
+    }
+
+    /**
+     * @return whether the property changed, assuming it did when Hibernate could not tell.
+     */
+    private static boolean isDirty(PostUpdateEvent event, String property) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (property.equals(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Building blocks for the employee search.
+ */
+package co.facilite.devjr.service.search;
@@ -0,0 +1,95 @@
+package co.facilite.devjr.web.filter;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits the requests each client IP address can make to the public {@code /api/cep/**} endpoints, with a
+ * {@link SlidingWindowQuota} of {@code application.cep.quota.limit} requests per {@code application.cep.quota.window}.
+ * <p>
+ * Requests over the quota are answered {@code 429 (Too Many Requests)} with a {@code Retry-After} header, before
+ * reaching the CEP lookup. Each request counts as one; endpoints doing more lookups per request charge the rest to the
+ * {@link ClientQuota} left in the {@value #CLIENT_QUOTA_ATTRIBUTE} request attribute. Behind a proxy, the client
+ * address is the one resolved by {@code server.forward-headers-strategy}.
+ */
+public class CepQuotaFilter extends OncePerRequestFilter {
+
+    public static final String THROTTLED_REQUESTS_METER_NAME = "cep.quota.throttled.requests";
+    public static final String THROTTLED_CLIENTS_METER_NAME = "cep.quota.throttled.clients";
+    public static final String UNTRACKED_REQUESTS_METER_NAME = "cep.quota.untracked.requests";
+
+    /**
+     * Request attribute holding the {@link ClientQuota} of the request's client.
+     */
+    public static final String CLIENT_QUOTA_ATTRIBUTE = "co.facilite.devjr.web.filter.CepQuotaFilter.CLIENT_QUOTA";
+
+    private static final String PATH_PREFIX = "/api/cep/";
+
+    private final SlidingWindowQuota quota;
+
+    public CepQuotaFilter(ApplicationProperties.Cep.Quota properties, MeterRegistry meterRegistry) {
+        this(new SlidingWindowQuota(properties.getLimit(), properties.getWindow().toNanos(), properties.getMaxClients()), meterRegistry);
+    }
+
+    CepQuotaFilter(SlidingWindowQuota quota, MeterRegistry meterRegistry) {
+        this.quota = quota;
+        FunctionCounter.builder(THROTTLED_REQUESTS_METER_NAME, quota, SlidingWindowQuota::throttledRequests)
+            .description("Requests to /api/cep answered 429 because their client was over its quota")
+            .register(meterRegistry);
+        FunctionCounter.builder(THROTTLED_CLIENTS_METER_NAME, quota, SlidingWindowQuota::throttledClients)
+            .description("Clients throttled on /api/cep, each counted once per quota window")
+            .register(meterRegistry);
+        FunctionCounter.builder(UNTRACKED_REQUESTS_METER_NAME, quota, SlidingWindowQuota::untrackedRequests)
+            .description("Requests to /api/cep let through because the quota table had no room for their client")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith(PATH_PREFIX, request.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String client = request.getRemoteAddr();
+        long retryAfterNanos = quota.tryAcquire(client);
+        if (retryAfterNanos != SlidingWindowQuota.ALLOWED) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds(retryAfterNanos));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "CEP request quota exceeded");
+            return;
+        }
+        request.setAttribute(CLIENT_QUOTA_ATTRIBUTE, (ClientQuota) permits -> quota.tryAcquire(client, permits));
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * @return the {@code Retry-After} header value for a wait in nanoseconds, in whole seconds rounded up.
+     */
+    public static String retryAfterSeconds(long retryAfterNanos) {
+        return String.valueOf(Math.max(1, (retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    /**
+     * The quota of the client of a request already let through, for the lookups it does beyond its first.
+     */
+    @FunctionalInterface
+    public interface ClientQuota {
+        /**
+         * @param permits the lookups to charge, at least {@code 1}.
+         * @return {@link SlidingWindowQuota#ALLOWED}, or the nanoseconds until the client is allowed again.
+         */
+        long tryAcquire(int permits);
+    }
+}
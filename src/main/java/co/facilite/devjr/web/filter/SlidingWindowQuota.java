@@ -0,0 +1,247 @@
+package co.facilite.devjr.web.filter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free per-client request quota over a sliding window, approximated from the counts of the current and
+ * previous fixed windows: a client is throttled once {@code previous * (1 - elapsed) + current} reaches the limit,
+ * {@code elapsed} being the fraction of the current window gone by.
+ * <p>
+ * Clients are 64-bit hashes of their key, in a fixed-size open-addressing table of two {@link AtomicLongArray}s:
+ * one slot per client, holding its hash and its packed counters, updated by compare-and-set. Memory is bounded by
+ * the capacity, and slots expire on their own: a slot whose client made no request for two windows is free to be
+ * taken by another client. When every slot near a client's hash is taken by an active client, its requests are let
+ * through untracked rather than blocked.
+ */
+public class SlidingWindowQuota {
+
+    /**
+     * Returned by {@link #tryAcquire(CharSequence, int)} when the request is allowed.
+     */
+    public static final long ALLOWED = 0;
+
+    private static final int PROBES = 8;
+
+    private static final int COUNT_BITS = 16;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final int THROTTLED_BIT = COUNT_BITS * 2;
+
+    private static final int EPOCH_SHIFT = THROTTLED_BIT + 1;
+
+    private final int limit;
+
+    private final long windowNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final long origin;
+
+    private final int mask;
+
+    /**
+     * Client hashes, {@code 0} marking a never used slot.
+     */
+    private final AtomicLongArray keys;
+
+    /**
+     * Per slot: window number (31 bits), throttled in that window (1 bit), current count (16 bits), previous count (16 bits).
+     */
+    private final AtomicLongArray counters;
+
+    private final LongAdder throttledRequests = new LongAdder();
+
+    private final LongAdder throttledClients = new LongAdder();
+
+    private final LongAdder untrackedRequests = new LongAdder();
+
+    /**
+     * @param limit the requests allowed per client and window, at most 65535.
+     * @param windowNanos the window length.
+     * @param maxClients the clients tracked at once; the table has room for twice as many.
+     */
+    public SlidingWindowQuota(int limit, long windowNanos, int maxClients) {
+        this(limit, windowNanos, maxClients, System::nanoTime);
+    }
+
+    SlidingWindowQuota(int limit, long windowNanos, int maxClients, LongSupplier nanoClock) {
+        if (limit < 1 || limit > COUNT_MASK || windowNanos <= 0 || maxClients < 1) {
+            throw new IllegalArgumentException("Invalid quota: " + limit + " per " + windowNanos + " ns, " + maxClients + " clients");
+        }
+        this.limit = limit;
+        this.windowNanos = windowNanos;
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        int capacity = Integer.highestOneBit(Math.max(PROBES, maxClients) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.keys = new AtomicLongArray(capacity);
+        this.counters = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Counts a request of a client, unless it is over its quota.
+     *
+     * @param client the client key, for example its IP address.
+     * @return {@link #ALLOWED}, or the nanoseconds until the client is allowed again.
+     */
+    public long tryAcquire(CharSequence client) {
+        return tryAcquire(client, 1);
+    }
+
+    /**
+     * Counts a request of a client worth {@code permits} requests, unless it is over its quota. A client under the
+     * limit is allowed the whole request even if it takes the client past the limit, and is then throttled until the
+     * window has slid past enough of it.
+     *
+     * @param client the client key, for example its IP address.
+     * @param permits the requests it is worth, at least {@code 1}.
+     * @return {@link #ALLOWED}, or the nanoseconds until the client is allowed again.
+     */
+    public long tryAcquire(CharSequence client, int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Invalid permits: " + permits);
+        }
+        long now = nanoClock.getAsLong() - origin;
+        long epoch = now / windowNanos;
+        long elapsed = now - epoch * windowNanos;
+        long key = hash(client);
+        int slot = find(key, epoch);
+        if (slot < 0) {
+            untrackedRequests.increment();
+            return ALLOWED;
+        }
+        while (true) {
+            long state = counters.get(slot);
+            long stateEpoch = state >>> EPOCH_SHIFT;
+            long current;
+            long previous;
+            boolean throttled;
+            if (stateEpoch == epoch) {
+                current = (state >>> COUNT_BITS) & COUNT_MASK;
+                previous = state & COUNT_MASK;
+                throttled = (state & (1L << THROTTLED_BIT)) != 0;
+            } else {
+                current = 0;
+                previous = stateEpoch == epoch - 1 ? (state >>> COUNT_BITS) & COUNT_MASK : 0;
+                throttled = false;
+            }
+            // previous * (1 - elapsed / window) + current >= limit, without floating point
+            if (previous * (windowNanos - elapsed) + current * windowNanos >= limit * windowNanos) {
+                if (!throttled && !counters.compareAndSet(slot, state, pack(epoch, true, current, previous))) {
+                    continue;
+                }
+                if (!throttled) {
+                    throttledClients.increment();
+                }
+                throttledRequests.increment();
+                return retryAfter(previous, current, elapsed);
+            }
+            if (counters.compareAndSet(slot, state, pack(epoch, throttled, Math.min(current + permits, COUNT_MASK), previous))) {
+                return ALLOWED;
+            }
+        }
+    }
+
+    /**
+     * @return the slot of the client, claiming a free or expired one if it has none, or {@code -1} if none is left.
+     */
+    private int find(long key, long epoch) {
+        int start = home(key);
+        // Looked up past expired slots first: the client may hold a later one, taken while they were still active.
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            long slotKey = keys.get(slot);
+            if (slotKey == key) {
+                return slot;
+            }
+            if (slotKey == 0) {
+                // Slots are taken in probe order and never freed, so the client has none further on.
+                break;
+            }
+        }
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            long slotKey = keys.get(slot);
+            if (slotKey == key) {
+                return slot;
+            }
+            // Expired: no request during the current and previous windows, so its counts no longer matter.
+            if (slotKey == 0 || (counters.get(slot) >>> EPOCH_SHIFT) < epoch - 1) {
+                // Losing the race to the same client still finds its slot.
+                if (keys.compareAndSet(slot, slotKey, key) || keys.get(slot) == key) {
+                    return slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first slot probed for a client key.
+     */
+    private int home(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    /**
+     * @return the first slot probed for a client, for tests to pick colliding clients.
+     */
+    int home(CharSequence client) {
+        return home(hash(client));
+    }
+
+    /**
+     * @return the nanoseconds until {@code previous * (1 - elapsed) + current} drops below the limit.
+     */
+    private long retryAfter(long previous, long current, long elapsed) {
+        if (current < limit) {
+            // Within this window, once enough of the previous window has slid out.
+            long needed = windowNanos - (limit - current) * windowNanos / previous;
+            return Math.max(1, needed - elapsed + 1);
+        }
+        // In the next window, where the current count becomes the previous one.
+        long needed = windowNanos - limit * windowNanos / current + 1;
+        return windowNanos - elapsed + needed;
+    }
+
+    private static long pack(long epoch, boolean throttled, long current, long previous) {
+        return (epoch << EPOCH_SHIFT) | (throttled ? 1L << THROTTLED_BIT : 0) | (current << COUNT_BITS) | previous;
+    }
+
+    /**
+     * 64-bit FNV-1a, never {@code 0}.
+     */
+    private static long hash(CharSequence client) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < client.length(); i++) {
+            hash ^= client.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 29;
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * @return the requests throttled since the quota was created.
+     */
+    public long throttledRequests() {
+        return throttledRequests.sum();
+    }
+
+    /**
+     * @return the clients throttled since the quota was created, each counted once per window.
+     */
+    public long throttledClients() {
+        return throttledClients.sum();
+    }
+
+    /**
+     * @return the requests let through without a slot to count them, since the quota was created.
+     */
+    public long untrackedRequests() {
+        return untrackedRequests.sum();
+    }
+}
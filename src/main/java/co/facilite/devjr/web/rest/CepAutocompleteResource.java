@@ -0,0 +1,46 @@
+package co.facilite.devjr.web.rest;
+
+import co.facilite.devjr.service.CepAutocompleteService;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller suggesting addresses while a CEP or street is being typed.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(prefix = "application.cep.autocomplete", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CepAutocompleteResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepAutocompleteResource.class);
+
+    private final CepAutocompleteService cepAutocompleteService;
+
+    public CepAutocompleteResource(CepAutocompleteService cepAutocompleteService) {
+        this.cepAutocompleteService = cepAutocompleteService;
+    }
+
+    /**
+     * {@code GET  /cep/autocomplete?q=:q&limit=:limit} : suggest the known addresses matching "q".
+     * <p>
+     * Only addresses already resolved by the application are suggested.
+     *
+     * @param q the first digits of a CEP, with or without punctuation, or the first letters of words of the
+     * street or city, in any order.
+     * @param limit the maximum number of addresses, capped by {@code application.cep.autocomplete.max-limit}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching addresses in body.
+     */
+    @GetMapping("/cep/autocomplete")
+    public ResponseEntity<List<AddressDTO>> autocomplete(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        LOG.debug("REST request to autocomplete CEP query : {}", q);
+        return ResponseEntity.ok(cepAutocompleteService.suggest(q, limit));
+    }
+}
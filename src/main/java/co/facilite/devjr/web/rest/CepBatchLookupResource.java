@@ -0,0 +1,96 @@
+package co.facilite.devjr.web.rest;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.service.CepBatchLookupService;
+import co.facilite.devjr.web.filter.CepQuotaFilter;
+import co.facilite.devjr.web.filter.SlidingWindowQuota;
+import co.facilite.devjr.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller resolving many CEPs in one request.
+ */
+@RestController
+@RequestMapping("/api")
+public class CepBatchLookupResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CepBatchLookupResource.class);
+
+    private static final String ENTITY_NAME = "address";
+
+    private final CepBatchLookupService cepBatchLookupService;
+
+    private final ObjectWriter objectWriter;
+
+    private final int maxBatchSize;
+
+    public CepBatchLookupResource(
+        CepBatchLookupService cepBatchLookupService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.cepBatchLookupService = cepBatchLookupService;
+        this.objectWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.maxBatchSize = applicationProperties.getCep().getBatch().getMaxSize();
+    }
+
+    /**
+     * {@code POST  /cep/batch} : look up many CEPs at once.
+     * <p>
+     * The CEPs are normalized, deduplicated and resolved concurrently. The response is streamed as
+     * newline-delimited JSON, one {@link co.facilite.devjr.service.dto.CepLookupResultDTO} per line
+     * in completion order, each carrying either the address or the error for that CEP.
+     * <p>
+     * Each CEP counts against the client's CEP request quota, the request itself counting as the first.
+     *
+     * @param ceps the CEPs to look up.
+     * @param request the request, carrying the client's quota.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the results streamed in body,
+     * or with status {@code 400 (Bad Request)} if there are more CEPs than {@code application.cep.batch.max-size},
+     * or with status {@code 429 (Too Many Requests)} if the client is over its quota.
+     */
+    @PostMapping(value = "/cep/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getCeps(@RequestBody List<String> ceps, HttpServletRequest request) {
+        LOG.debug("REST request to look up a batch of {} CEPs", ceps.size());
+        if (ceps.size() > maxBatchSize) {
+            throw new BadRequestAlertException("A batch cannot have more than " + maxBatchSize + " CEPs", ENTITY_NAME, "batchtoolarge");
+        }
+        CepQuotaFilter.ClientQuota quota = (CepQuotaFilter.ClientQuota) request.getAttribute(CepQuotaFilter.CLIENT_QUOTA_ATTRIBUTE);
+        if (quota != null && ceps.size() > 1) {
+            long retryAfterNanos = quota.tryAcquire(ceps.size() - 1);
+            if (retryAfterNanos != SlidingWindowQuota.ALLOWED) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, CepQuotaFilter.retryAfterSeconds(retryAfterNanos))
+                    .build();
+            }
+        }
+        StreamingResponseBody body = outputStream ->
+            cepBatchLookupService.lookupAll(ceps, result -> {
+                try {
+                    objectWriter.writeValue(outputStream, result);
+                    outputStream.write('\n');
+                    outputStream.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
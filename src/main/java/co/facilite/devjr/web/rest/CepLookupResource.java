@@ -2,7 +2,14 @@ package co.facilite.devjr.web.rest;
 
 import co.facilite.devjr.service.CepLookupService;
 import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.PartialAddressDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,16 +19,63 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api")
 public class CepLookupResource {
 
+    public static final String REQUESTS_METER_NAME = "cep.lookup.requests";
+
+    public static final String PARTIAL_HEADER = "X-Cep-Partial";
+
     private final CepLookupService cepLookupService;
 
-    public CepLookupResource(CepLookupService cepLookupService) {
+    private final MeterRegistry meterRegistry;
+
+    public CepLookupResource(CepLookupService cepLookupService, MeterRegistry meterRegistry) {
         this.cepLookupService = cepLookupService;
+        this.meterRegistry = meterRegistry;
     }
 
+    /**
+     * {@code GET  /cep/:cep} : get the address of the "cep".
+     * <p>
+     * Cached and offline answers are returned right away; otherwise the request thread is released
+     * while the lookup runs on the CEP lookup executor. Each request is timed by {@value #REQUESTS_METER_NAME},
+     * tagged with its response status, until the lookup completes.
+     *
+     * @param cep the CEP, with or without punctuation.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the address in body, with the
+     * {@value #PARTIAL_HEADER} header when only the CEP and its state could be answered.
+     */
     @GetMapping("/cep/{cep}")
-    public ResponseEntity<AddressDTO> getCep(@PathVariable String cep) {
-        String normalizedCep = cepLookupService.normalizeCep(cep);
-        AddressDTO addressDto = cepLookupService.lookup(normalizedCep);
-        return ResponseEntity.ok(addressDto);
+    public CompletableFuture<ResponseEntity<AddressDTO>> getCep(@PathVariable String cep) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String normalizedCep;
+        try {
+            normalizedCep = cepLookupService.normalizeCep(cep);
+        } catch (RuntimeException e) {
+            sample.stop(requestTimer(e));
+            throw e;
+        }
+        return cepLookupService
+            .lookupAsync(normalizedCep)
+            .whenComplete((addressDTO, e) -> sample.stop(requestTimer(e)))
+            .thenApply(addressDTO ->
+                addressDTO instanceof PartialAddressDTO
+                    ? ResponseEntity.ok().header(PARTIAL_HEADER, "true").body(addressDTO)
+                    : ResponseEntity.ok(addressDTO)
+            );
+    }
+
+    private Timer requestTimer(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        int status;
+        if (cause == null) {
+            status = HttpStatus.OK.value();
+        } else if (cause instanceof ErrorResponse errorResponse) {
+            status = errorResponse.getStatusCode().value();
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        }
+        return Timer.builder(REQUESTS_METER_NAME)
+            .description("GET /api/cep/{cep} requests, until the lookup completes")
+            .tag("status", String.valueOf(status))
+            .register(meterRegistry);
     }
 }
@@ -1,7 +1,10 @@
 package co.facilite.devjr.web.rest;
 
 import co.facilite.devjr.repository.EmployeeRepository;
+import co.facilite.devjr.service.EmployeeCount;
+import co.facilite.devjr.service.EmployeeKeyset;
 import co.facilite.devjr.service.EmployeeQueryService;
+import co.facilite.devjr.service.EmployeeQueryService.CountMode;
 import co.facilite.devjr.service.EmployeeService;
 import co.facilite.devjr.service.criteria.EmployeeCriteria;
 import co.facilite.devjr.service.dto.EmployeeDTO;
@@ -11,13 +14,19 @@ import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -33,6 +42,12 @@ import tech.jhipster.web.util.ResponseUtil;
 @RequestMapping("/api/employees")
 public class EmployeeResource {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String TOTAL_COUNT_EXACT_HEADER = "X-Total-Count-Exact";
+
+    public static final String HAS_NEXT_PAGE_HEADER = "X-Has-Next-Page";
+
     private static final Logger LOG = LoggerFactory.getLogger(EmployeeResource.class);
 
     private static final String ENTITY_NAME = "employee";
@@ -146,33 +161,108 @@ public class EmployeeResource {
 
     /**
      * {@code GET  /employees} : get all the employees.
+     * <p>
+     * The total in the {@code X-Total-Count} header is counted for each request unless {@code count} asks otherwise:
+     * {@code cached} reuses the count of the same filters until the next employee write through this node, {@code estimate}
+     * takes the database estimate when nothing is filtered, and {@code none} skips it, telling only in the
+     * {@value #HAS_NEXT_PAGE_HEADER} header whether there is a next page. The {@value #TOTAL_COUNT_EXACT_HEADER}
+     * header tells whether the total is exact: neither estimates nor reused counts are, since the latter miss the writes
+     * of other nodes.
+     * <p>
+     * With a {@code cursor} parameter, empty for the first page, pages are read by keyset instead of offset: each
+     * response carries the cursor of the next page in the {@value #NEXT_CURSOR_HEADER} header, absent on the last one,
+     * and no total count. The sort must then be on non-null properties of the employee.
      *
      * @param pageable the pagination information.
+     * @param cursor the cursor of the page, as returned with the previous one.
+     * @param count how to count the total: {@code exact}, {@code cached}, {@code estimate} or {@code none}.
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of employees in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is malformed, the sort cannot be paged by cursor, the count mode is unknown
+     * or the page starts past the {@link Integer#MAX_VALUE}th employee.
      */
     @GetMapping("")
     public ResponseEntity<List<EmployeeDTO>> getAllEmployees(
         EmployeeCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = "cursor", required = false) String cursor,
+        @RequestParam(name = "count", defaultValue = "exact") String count
     ) {
         LOG.debug("REST request to get Employees by criteria: {}", criteria);
 
-        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(criteria, pageable);
+        if (cursor != null) {
+            return getEmployeesAfter(criteria, pageable, cursor);
+        }
+        if (pageable.getOffset() > Integer.MAX_VALUE) {
+            throw new BadRequestAlertException("Page offset " + pageable.getOffset() + " is too large", ENTITY_NAME, "pageinvalid");
+        }
+        CountMode countMode = countMode(count);
+        if (countMode == CountMode.NONE) {
+            Slice<EmployeeDTO> slice = employeeQueryService.findSliceByCriteria(criteria, pageable);
+            HttpHeaders headers = new HttpHeaders();
+            headers.add(HAS_NEXT_PAGE_HEADER, String.valueOf(slice.hasNext()));
+            return ResponseEntity.ok().headers(headers).body(slice.getContent());
+        }
+        Page<EmployeeDTO> page;
+        boolean exact = true;
+        if (countMode == CountMode.EXACT) {
+            page = employeeQueryService.findByCriteria(criteria, pageable);
+        } else {
+            EmployeeCount total = employeeQueryService.countByCriteria(criteria, countMode);
+            page = new PageImpl<>(employeeQueryService.findSliceByCriteria(criteria, pageable).getContent(), pageable, total.getTotal());
+            exact = total.isExact();
+        }
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.add(TOTAL_COUNT_EXACT_HEADER, String.valueOf(exact));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    private ResponseEntity<List<EmployeeDTO>> getEmployeesAfter(EmployeeCriteria criteria, Pageable pageable, String cursor) {
+        Sort sort;
+        KeysetScrollPosition position;
+        try {
+            sort = EmployeeKeyset.sort(pageable.getSort());
+            position = EmployeeKeyset.decode(cursor, sort);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        Window<EmployeeDTO> window = employeeQueryService.findByCriteria(criteria, position, pageable);
+        HttpHeaders headers = new HttpHeaders();
+        if (window.hasNext()) {
+            KeysetScrollPosition next = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            headers.add(NEXT_CURSOR_HEADER, EmployeeKeyset.encode(next, sort));
+        }
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     /**
      * {@code GET  /employees/count} : count all the employees.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     * @param count how to count: {@code exact}, {@code cached} or {@code estimate}, as for {@code GET /employees}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body, telling in the
+     * {@value #TOTAL_COUNT_EXACT_HEADER} header whether it is exact, or with status {@code 400 (Bad Request)} if the count mode is unknown.
      */
     @GetMapping("/count")
-    public ResponseEntity<Long> countEmployees(EmployeeCriteria criteria) {
+    public ResponseEntity<Long> countEmployees(
+        EmployeeCriteria criteria,
+        @RequestParam(name = "count", defaultValue = "exact") String count
+    ) {
         LOG.debug("REST request to count Employees by criteria: {}", criteria);
-        return ResponseEntity.ok().body(employeeQueryService.countByCriteria(criteria));
+        CountMode countMode = countMode(count);
+        if (countMode == CountMode.NONE) {
+            throw new BadRequestAlertException("Counting requires a count mode other than none", ENTITY_NAME, "countinvalid");
+        }
+        EmployeeCount total = employeeQueryService.countByCriteria(criteria, countMode);
+        return ResponseEntity.ok().header(TOTAL_COUNT_EXACT_HEADER, String.valueOf(total.isExact())).body(total.getTotal());
+    }
+
+    private static CountMode countMode(String count) {
+        try {
+            return CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Unknown count mode " + count, ENTITY_NAME, "countinvalid");
+        }
     }
 
     /**
@@ -0,0 +1,85 @@
+package co.facilite.devjr.web.rest;
+
+import co.facilite.devjr.security.AuthoritiesConstants;
+import co.facilite.devjr.service.EmployeeSearchService;
+import co.facilite.devjr.service.dto.EmployeeDTO;
+import co.facilite.devjr.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller searching {@link co.facilite.devjr.domain.Employee}s by free text.
+ */
+@RestController
+@RequestMapping("/api/employees/_search")
+public class EmployeeSearchResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeSearchResource.class);
+
+    private static final String ENTITY_NAME = "employee";
+
+    private final EmployeeSearchService employeeSearchService;
+
+    public EmployeeSearchResource(EmployeeSearchService employeeSearchService) {
+        this.employeeSearchService = employeeSearchService;
+    }
+
+    /**
+     * {@code GET  /employees/_search?query=:query} : search the employees matching the query.
+     * <p>
+     * Each word of the query is looked for in the names, email, phone, department name and address city, possibly
+     * misspelled or incomplete; employees come most relevant first, and writes show up within moments. Matches are
+     * counted exactly up to a thousand or so; past that, the {@code X-Total-Count} header is a lower bound, and the
+     * {@value EmployeeResource#TOTAL_COUNT_EXACT_HEADER} header is {@code false}.
+     *
+     * @param query the words to look for, in any order.
+     * @param pageable the pagination information; the sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of employees in body,
+     * or with status {@code 400 (Bad Request)} if the page is beyond {@code application.employee.search.max-result-window}.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<EmployeeDTO>> searchEmployees(
+        @RequestParam("query") String query,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search Employees for query : {}", query);
+        EmployeeSearchService.Results results;
+        try {
+            results = employeeSearchService.search(query, pageable);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "searchwindow");
+        }
+        Page<EmployeeDTO> page = results.getPage();
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.add(EmployeeResource.TOTAL_COUNT_EXACT_HEADER, String.valueOf(results.isTotalExact()));
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code POST  /employees/_search/rebuild} : rebuild the search index from the database, in the background.
+     * <p>
+     * Needed only after employees were written without going through the application.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}.
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> rebuildIndex() {
+        LOG.debug("REST request to rebuild the Employee search index");
+        employeeSearchService.rebuildInBackground();
+        return ResponseEntity.accepted().build();
+    }
+}
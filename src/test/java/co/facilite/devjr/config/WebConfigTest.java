@@ -0,0 +1,40 @@
+package co.facilite.devjr.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+class WebConfigTest {
+
+    private final WebConfig webConfig = new WebConfig();
+
+    @Test
+    void cepHttpClientPublishesPoolMetrics() throws IOException {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getHttp().setMaxConnections(7);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        try (CloseableHttpClient httpClient = webConfig.cepHttpClient(applicationProperties, meterRegistry)) {
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "cep").gauge().value()).isEqualTo(
+                7
+            );
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased").gauge().value()).isZero();
+        }
+    }
+
+    @Test
+    void cepRestTemplateUsesPooledHttpClient() throws IOException {
+        try (CloseableHttpClient httpClient = webConfig.cepHttpClient(new ApplicationProperties(), new SimpleMeterRegistry())) {
+            RestTemplate restTemplate = webConfig.cepRestTemplate(new RestTemplateBuilder(), httpClient);
+
+            assertThat(restTemplate.getRequestFactory()).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+            assertThat(((HttpComponentsClientHttpRequestFactory) restTemplate.getRequestFactory()).getHttpClient()).isSameAs(httpClient);
+        }
+    }
+}
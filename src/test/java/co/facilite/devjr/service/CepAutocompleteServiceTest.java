@@ -0,0 +1,125 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.CepCacheEntry;
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.repository.CepCacheEntryRepository;
+import co.facilite.devjr.service.dto.AddressDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+
+@ExtendWith(MockitoExtension.class)
+class CepAutocompleteServiceTest {
+
+    @Mock
+    private CepCacheEntryRepository cepCacheEntryRepository;
+
+    @Mock
+    private CepProviderChain cepProviderChain;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getAutocomplete().setDefaultLimit(2);
+        applicationProperties.getCep().getAutocomplete().setMaxLimit(3);
+    }
+
+    @Test
+    void loadReadsTheSharedCacheInKeysetPages() {
+        List<CepCacheEntry> firstPage = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            firstPage.add(entry(1000000 + i, "Rua " + i, "São Paulo", Uf.SP));
+        }
+        when(cepCacheEntryRepository.findByCepGreaterThanOrderByCepAsc(eq(-1), any(Pageable.class))).thenReturn(firstPage);
+        when(cepCacheEntryRepository.findByCepGreaterThanOrderByCepAsc(eq(1000999), any(Pageable.class))).thenReturn(
+            List.of(entry(72006206, "Rua 4A", "Brasília", Uf.DF))
+        );
+        CepAutocompleteService cepAutocompleteService = newService();
+
+        cepAutocompleteService.load();
+
+        assertThat(cepAutocompleteService.suggest("brasilia", null))
+            .singleElement()
+            .satisfies(address -> {
+                assertThat(address.getCep()).isEqualTo("72006-206");
+                assertThat(address.getStreet()).isEqualTo("Rua 4A");
+                assertThat(address.getUf()).isEqualTo(Uf.DF);
+            });
+        assertThat(cepAutocompleteService.suggest("0100", null)).hasSize(2);
+        assertThat(cepAutocompleteService.suggest("0100", 100)).hasSize(3);
+        assertThat(meterRegistry.get(CepAutocompleteService.ENTRIES_METER_NAME).gauge().value()).isEqualTo(1001);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resolvedAddressesAreSuggestedRightAway() {
+        CepAutocompleteService cepAutocompleteService = newService();
+        ArgumentCaptor<Consumer<AddressDTO>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(cepProviderChain).onResolved(listener.capture());
+
+        AddressDTO resolved = new AddressDTO();
+        resolved.setCep("01310-100");
+        resolved.setStreet("Avenida Paulista");
+        resolved.setCity("São Paulo");
+        listener.getValue().accept(resolved);
+
+        assertThat(cepAutocompleteService.suggest("avenida pau", null)).extracting(AddressDTO::getCep).containsExactly("01310-100");
+        assertThat(meterRegistry.get(CepAutocompleteService.PENDING_METER_NAME).gauge().value()).isEqualTo(1);
+
+        cepAutocompleteService.index().merge();
+
+        assertThat(cepAutocompleteService.suggest("01310", null)).extracting(AddressDTO::getCep).containsExactly("01310-100");
+        assertThat(meterRegistry.get(CepAutocompleteService.PENDING_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void fullIndexRejectsNewAddresses() {
+        applicationProperties.getCep().getAutocomplete().setMaxEntries(1);
+        CepAutocompleteService cepAutocompleteService = newService();
+
+        cepAutocompleteService.index().add(address("01310-100"));
+        cepAutocompleteService.index().add(address("01310-200"));
+
+        assertThat(meterRegistry.get(CepAutocompleteService.REJECTED_METER_NAME).functionCounter().count()).isEqualTo(1);
+    }
+
+    private CepAutocompleteService newService() {
+        return new CepAutocompleteService(cepCacheEntryRepository, cepProviderChain, taskScheduler, applicationProperties, meterRegistry);
+    }
+
+    private static AddressDTO address(String cep) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(cep);
+        return addressDTO;
+    }
+
+    private static CepCacheEntry entry(int cep, String street, String city, Uf uf) {
+        CepCacheEntry entry = new CepCacheEntry().cep(cep);
+        entry.setStreet(street);
+        entry.setCity(city);
+        entry.setUf(uf);
+        return entry;
+    }
+}
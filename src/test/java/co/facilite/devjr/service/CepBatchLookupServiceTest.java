@@ -0,0 +1,137 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.CepLookupResultDTO;
+import co.facilite.devjr.service.dto.PartialAddressDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class CepBatchLookupServiceTest {
+
+    private static final int MAX_CONCURRENCY = 2;
+
+    @Mock
+    private CepLookupService cepLookupService;
+
+    private ExecutorService executor;
+
+    private CepBatchLookupService cepBatchLookupService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getBatch().setMaxConcurrency(MAX_CONCURRENCY);
+        cepBatchLookupService = new CepBatchLookupService(cepLookupService, executor, applicationProperties);
+        lenient().when(cepLookupService.normalizeCep(anyString())).thenAnswer(invocation -> normalize(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lookupAll_DeduplicatesNormalizedCeps() {
+        when(cepLookupService.lookup("72006206")).thenReturn(address("72006-206", Uf.DF));
+
+        List<CepLookupResultDTO> results = lookupAll("72006-206", "72006206", "72.006-206");
+
+        assertThat(results).singleElement().satisfies(result -> {
+            assertThat(result.getCep()).isEqualTo("72006206");
+            assertThat(result.getStatus()).isEqualTo(200);
+            assertThat(result.getAddress().getUf()).isEqualTo(Uf.DF);
+        });
+        verify(cepLookupService, times(1)).lookup("72006206");
+    }
+
+    @Test
+    void lookupAll_ReportsErrorsPerCep() {
+        when(cepLookupService.lookup("01310100")).thenReturn(address("01310-100", Uf.SP));
+        when(cepLookupService.lookup("99999999")).thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "CEP não encontrado"));
+
+        List<CepLookupResultDTO> results = lookupAll("01310100", "99999999", "123");
+
+        assertThat(results)
+            .extracting(CepLookupResultDTO::getCep, CepLookupResultDTO::getStatus, CepLookupResultDTO::getError)
+            .containsExactlyInAnyOrder(
+                tuple("01310100", 200, null),
+                tuple("99999999", 404, "CEP não encontrado"),
+                tuple("123", 400, "CEP deve ter 8 digitos")
+            );
+    }
+
+    @Test
+    void lookupAll_FlagsPartialAddresses() {
+        when(cepLookupService.lookup("01310100")).thenReturn(address("01310-100", Uf.SP));
+        PartialAddressDTO partial = new PartialAddressDTO();
+        partial.setCep("72006-206");
+        partial.setUf(Uf.DF);
+        when(cepLookupService.lookup("72006206")).thenReturn(partial);
+
+        List<CepLookupResultDTO> results = lookupAll("01310100", "72006206");
+
+        assertThat(results)
+            .extracting(CepLookupResultDTO::getCep, CepLookupResultDTO::getStatus, CepLookupResultDTO::isPartial)
+            .containsExactlyInAnyOrder(tuple("01310100", 200, false), tuple("72006206", 200, true));
+    }
+
+    @Test
+    void lookupAll_BoundsConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(cepLookupService.lookup(anyString())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return address(invocation.getArgument(0), Uf.SP);
+        });
+
+        List<String> ceps = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ceps.add(String.format("%08d", 1310100 + i));
+        }
+        List<CepLookupResultDTO> results = lookupAll(ceps.toArray(String[]::new));
+
+        assertThat(results).hasSize(20).allMatch(result -> result.getStatus() == 200);
+        assertThat(maxRunning.get()).isBetween(1, MAX_CONCURRENCY);
+    }
+
+    private List<CepLookupResultDTO> lookupAll(String... ceps) {
+        List<CepLookupResultDTO> results = new ArrayList<>();
+        cepBatchLookupService.lookupAll(List.of(ceps), results::add);
+        return results;
+    }
+
+    private static String normalize(String cep) {
+        String digits = cep.replaceAll("\\D", "");
+        if (digits.length() != 8) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CEP deve ter 8 digitos");
+        }
+        return digits;
+    }
+
+    private static AddressDTO address(String cep, Uf uf) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(cep);
+        addressDTO.setUf(uf);
+        return addressDTO;
+    }
+}
@@ -0,0 +1,114 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.repository.AddressRepository;
+import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.PartialAddressDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class CepPrefetchServiceTest {
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private CepLookupService cepLookupService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private MeterRegistry meterRegistry;
+
+    private CepPrefetchService cepPrefetchService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getPrefetch().setPageSize(2);
+        applicationProperties.getCep().getPrefetch().setRatePerSecond(10000);
+        meterRegistry = new SimpleMeterRegistry();
+        cepPrefetchService = new CepPrefetchService(addressRepository, cepLookupService, taskScheduler, applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void prefetchLooksUpEveryPageAndCountsOutcomes() {
+        when(addressRepository.countDistinctCeps()).thenReturn(4L);
+        when(addressRepository.findDistinctCepsAfter(eq(""), any(Pageable.class))).thenReturn(List.of("01310-100", "12"));
+        when(addressRepository.findDistinctCepsAfter(eq("12"), any(Pageable.class))).thenReturn(List.of("72006206", "99999999"));
+        when(addressRepository.findDistinctCepsAfter(eq("99999999"), any(Pageable.class))).thenReturn(List.of());
+        when(cepLookupService.normalizeCep(anyString())).thenAnswer(invocation -> {
+            String cep = invocation.getArgument(0, String.class).replace("-", "");
+            if (cep.length() != 8) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
+            }
+            return cep;
+        });
+        when(cepLookupService.lookup("01310100")).thenReturn(new AddressDTO());
+        when(cepLookupService.lookup("72006206")).thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+        when(cepLookupService.lookup("99999999")).thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        cepPrefetchService.prefetch();
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(addressRepository, times(3)).findDistinctCepsAfter(anyString(), pageable.capture());
+        assertThat(pageable.getAllValues()).allSatisfy(page -> assertThat(page.getPageSize()).isEqualTo(2));
+        assertThat(outcome("resolved")).isEqualTo(1);
+        assertThat(outcome("failed")).isEqualTo(1);
+        assertThat(outcome("not-found")).isEqualTo(1);
+        assertThat(outcome("invalid")).isEqualTo(1);
+        assertThat(meterRegistry.get(CepPrefetchService.TOTAL_METER_NAME).gauge().value()).isEqualTo(4);
+        assertThat(meterRegistry.get(CepPrefetchService.PROCESSED_METER_NAME).gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void partialAddressesCountAsFailed() {
+        when(addressRepository.findDistinctCepsAfter(eq(""), any(Pageable.class))).thenReturn(List.of("01310100"));
+        when(cepLookupService.normalizeCep("01310100")).thenReturn("01310100");
+        when(cepLookupService.lookup("01310100")).thenReturn(new PartialAddressDTO());
+
+        cepPrefetchService.prefetch();
+
+        assertThat(outcome("failed")).isEqualTo(1);
+        assertThat(outcome("resolved")).isZero();
+    }
+
+    @Test
+    void prefetchStopsAfterTheLastShortPage() {
+        when(addressRepository.findDistinctCepsAfter(eq(""), any(Pageable.class))).thenReturn(List.of("01310100"));
+        when(cepLookupService.normalizeCep("01310100")).thenReturn("01310100");
+
+        cepPrefetchService.prefetch();
+
+        verify(addressRepository, times(1)).findDistinctCepsAfter(anyString(), any(Pageable.class));
+        verify(cepLookupService).lookup("01310100");
+    }
+
+    @Test
+    void triggerIsRefusedOnceStopped() {
+        cepPrefetchService.stop();
+
+        assertThat(cepPrefetchService.trigger()).isFalse();
+        verifyNoInteractions(addressRepository, cepLookupService);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get(CepPrefetchService.CEPS_METER_NAME).tag("outcome", outcome).counter().count();
+    }
+}
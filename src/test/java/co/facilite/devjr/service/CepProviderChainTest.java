@@ -0,0 +1,272 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.service.dto.AddressDTO;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+
+class CepProviderChainTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getRateLimit().setEnabled(false);
+        applicationProperties.getCep().getProviders().setOrder(List.of("primary", "secondary"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fastPrimaryAnswersAlone() {
+        FakeProvider primary = new FakeProvider("primary", cep -> address(cep, "primary"));
+        FakeProvider secondary = new FakeProvider("secondary", cep -> address(cep, "secondary"));
+        CepProviderChain chain = newChain(secondary, primary);
+
+        assertThat(chain.resolve("72006206").getCity()).isEqualTo("primary");
+
+        assertThat(secondary.calls.get()).isZero();
+        assertThat(wins("primary")).isEqualTo(1);
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndTheFirstAnswerWins() {
+        applicationProperties.getCep().getProviders().setHedgeInitialDelay(Duration.ofMillis(20));
+        FakeProvider primary = new FakeProvider("primary", cep -> {
+            sleep(500);
+            return address(cep, "primary");
+        });
+        FakeProvider secondary = new FakeProvider("secondary", cep -> address(cep, "secondary"));
+        CepProviderChain chain = newChain(primary, secondary);
+
+        long start = System.nanoTime();
+        AddressDTO result = chain.resolve("72006206");
+
+        assertThat(result.getCity()).isEqualTo("secondary");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(400));
+        assertThat(primary.calls.get()).isEqualTo(1);
+        assertThat(hedges("secondary")).isEqualTo(1);
+        assertThat(wins("secondary")).isEqualTo(1);
+        assertThat(wins("primary")).isZero();
+    }
+
+    @Test
+    void failingPrimaryFailsOverWithoutWaitingForTheHedgeDelay() {
+        applicationProperties.getCep().getProviders().setHedgeInitialDelay(Duration.ofSeconds(5));
+        FakeProvider primary = new FakeProvider("primary", cep -> {
+            throw new ResourceAccessException("I/O error", new ConnectException("Connection refused"));
+        });
+        FakeProvider secondary = new FakeProvider("secondary", cep -> address(cep, "secondary"));
+        CepProviderChain chain = newChain(primary, secondary);
+
+        long start = System.nanoTime();
+        AddressDTO result = chain.resolve("72006206");
+
+        assertThat(result.getCity()).isEqualTo("secondary");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(hedges("secondary")).isZero();
+        assertThat(upstreamCalls("primary", CepProviderChain.UPSTREAM_CONNECTION_ERROR)).isEqualTo(1);
+    }
+
+    @Test
+    void notFoundIsFinal() {
+        FakeProvider primary = new FakeProvider("primary", cep -> null);
+        FakeProvider secondary = new FakeProvider("secondary", cep -> address(cep, "secondary"));
+        CepProviderChain chain = newChain(primary, secondary);
+
+        assertThat(chain.resolve("99999999")).isNull();
+
+        assertThat(secondary.calls.get()).isZero();
+        assertThat(upstreamCalls("primary", CepProviderChain.UPSTREAM_NOT_FOUND)).isEqualTo(1);
+    }
+
+    @Test
+    void everyProviderFailingIsBadGateway() {
+        FakeProvider primary = new FakeProvider("primary", cep -> {
+            throw HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null);
+        });
+        FakeProvider secondary = new FakeProvider("secondary", cep -> {
+            throw new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"));
+        });
+        CepProviderChain chain = newChain(primary, secondary);
+
+        assertThatThrownBy(() -> chain.resolve("72006206"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(upstreamCalls("primary", CepProviderChain.UPSTREAM_SERVER_ERROR)).isEqualTo(1);
+        assertThat(upstreamCalls("secondary", CepProviderChain.UPSTREAM_TIMEOUT)).isEqualTo(1);
+    }
+
+    @Test
+    void rateLimitedProviderIsSkippedAndEveryProviderRateLimitedIsServiceUnavailable() {
+        applicationProperties.getCep().getRateLimit().setEnabled(true);
+        applicationProperties.getCep().getRateLimit().setPermitsPerSecond(0.01);
+        applicationProperties.getCep().getRateLimit().setBurst(1);
+        applicationProperties.getCep().getRateLimit().setMaxWait(Duration.ZERO);
+        FakeProvider primary = new FakeProvider("primary", cep -> address(cep, "primary"));
+        FakeProvider secondary = new FakeProvider("secondary", cep -> address(cep, "secondary"));
+        CepProviderChain chain = newChain(primary, secondary);
+
+        assertThat(chain.resolve("72006206").getCity()).isEqualTo("primary");
+        assertThat(chain.resolve("01310100").getCity()).isEqualTo("secondary");
+        assertThatThrownBy(() -> chain.resolve("20040020"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        double rejected = meterRegistry
+            .get(CepProviderChain.RATE_LIMIT_REJECTED_METER_NAME)
+            .tag("provider", "primary")
+            .tag("reason", "deadline")
+            .functionCounter()
+            .count();
+        assertThat(rejected).isEqualTo(2);
+    }
+
+    @Test
+    void providerWithAnOpenCircuitTakesNoRateLimitToken() {
+        applicationProperties.getCep().getRateLimit().setEnabled(true);
+        applicationProperties.getCep().getRateLimit().setPermitsPerSecond(0.01);
+        applicationProperties.getCep().getRateLimit().setBurst(1);
+        applicationProperties.getCep().getRateLimit().setMaxWait(Duration.ZERO);
+        FakeProvider primary = new FakeProvider("primary", cep -> address(cep, "primary"));
+        FakeProvider secondary = new FakeProvider("secondary", cep -> address(cep, "secondary"));
+        CepProviderChain chain = newChain(primary, secondary);
+        circuitBreakerRegistry.circuitBreaker("primary").transitionToOpenState();
+
+        assertThat(chain.resolve("72006206").getCity()).isEqualTo("secondary");
+        circuitBreakerRegistry.circuitBreaker("primary").transitionToClosedState();
+
+        assertThat(chain.resolve("01310100").getCity()).isEqualTo("primary");
+        assertThat(primary.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void callsRunOnTheLookupThreadWhenTheExecutorIsFull() {
+        FakeProvider primary = new FakeProvider("primary", cep -> {
+            throw new RestClientException("Connection reset");
+        });
+        FakeProvider secondary = new FakeProvider("secondary", cep -> address(cep, "secondary"));
+        CepProviderChain chain = newChain(
+            command -> {
+                throw new RejectedExecutionException();
+            },
+            primary,
+            secondary
+        );
+
+        assertThat(chain.resolve("72006206").getCity()).isEqualTo("secondary");
+        assertThat(primary.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void providerThatKeepsFailingIsRankedBelowTheOthers() {
+        applicationProperties.getCep().getProviders().setHedge(false);
+        applicationProperties.getCep().getProviders().setReorderInterval(Duration.ZERO);
+        FakeProvider primary = new FakeProvider("primary", cep -> {
+            throw new RestClientException("Connection reset");
+        });
+        FakeProvider secondary = new FakeProvider("secondary", cep -> address(cep, "secondary"));
+        CepProviderChain chain = newChain(primary, secondary);
+        assertThat(chain.ranking()).containsExactly("primary", "secondary");
+
+        for (int i = 0; i < 30; i++) {
+            chain.resolve("72006206");
+        }
+
+        assertThat(chain.ranking()).containsExactly("secondary", "primary");
+        assertThat(meterRegistry.get(CepProviderChain.RANK_METER_NAME).tag("provider", "secondary").gauge().value()).isEqualTo(1);
+        assertThat(primary.calls.get()).isLessThan(30);
+    }
+
+    private CepProviderChain newChain(CepProvider... providers) {
+        return newChain(executor, providers);
+    }
+
+    private CepProviderChain newChain(Executor providerExecutor, CepProvider... providers) {
+        return new CepProviderChain(List.of(providers), applicationProperties, circuitBreakerRegistry, meterRegistry, providerExecutor);
+    }
+
+    private double wins(String provider) {
+        return meterRegistry.get(CepProviderChain.WINS_METER_NAME).tag("provider", provider).counter().count();
+    }
+
+    private double hedges(String provider) {
+        return meterRegistry.get(CepProviderChain.HEDGES_METER_NAME).tag("provider", provider).counter().count();
+    }
+
+    private long upstreamCalls(String provider, String outcome) {
+        return meterRegistry.get(CepProviderChain.UPSTREAM_METER_NAME).tag("provider", provider).tag("outcome", outcome).timer().count();
+    }
+
+    private static AddressDTO address(String cep, String city) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(cep);
+        addressDTO.setCity(city);
+        return addressDTO;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class FakeProvider implements CepProvider {
+
+        private final String name;
+
+        private final Function<String, AddressDTO> answer;
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FakeProvider(String name, Function<String, AddressDTO> answer) {
+            this.name = name;
+            this.answer = answer;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public AddressDTO fetch(String cep) {
+            calls.incrementAndGet();
+            return answer.apply(cep);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.CepCacheEntry;
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.repository.CepCacheEntryRepository;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class CepSharedCacheServiceTest {
+
+    @Mock
+    private CepCacheEntryRepository cepCacheEntryRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ObjectProvider<CepLookupService> cepLookupServiceProvider;
+
+    @Mock
+    private CepLookupService cepLookupService;
+
+    private CepSharedCacheService cepSharedCacheService;
+
+    @BeforeEach
+    void setUp() {
+        cepSharedCacheService = new CepSharedCacheService(
+            cepCacheEntryRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            taskScheduler,
+            cepLookupServiceProvider,
+            new ApplicationProperties()
+        );
+    }
+
+    @Test
+    void findReturnsFreshRowsOnly() {
+        when(cepCacheEntryRepository.findById(72006206)).thenReturn(Optional.of(entry(72006206, Instant.now().minusSeconds(60))));
+        when(cepCacheEntryRepository.findById(1310100)).thenReturn(Optional.of(entry(1310100, Instant.now().minus(Duration.ofDays(2)))));
+
+        AddressDTO result = cepSharedCacheService.find("72006206").orElseThrow();
+
+        assertThat(result.getCep()).isEqualTo("72006-206");
+        assertThat(result.getCity()).isEqualTo("Brasília");
+        assertThat(result.getUf()).isEqualTo(Uf.DF);
+        assertThat(cepSharedCacheService.find("01310100")).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesQueuedChangesInOneBatch() {
+        CepCacheEntry existing = entry(1310100, Instant.now().minus(Duration.ofDays(1))).setIsPersisted();
+        CepCacheEntry gone = entry(99999999, Instant.now().minus(Duration.ofDays(1))).setIsPersisted();
+        when(cepCacheEntryRepository.findAllById(anyIterable())).thenReturn(List.of(existing, gone));
+        cepSharedCacheService.save("72006206", address("Brasília"));
+        cepSharedCacheService.save("01310100", address("São Paulo"));
+        cepSharedCacheService.remove("99999999");
+
+        cepSharedCacheService.flush();
+
+        ArgumentCaptor<Iterable<CepCacheEntry>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(cepCacheEntryRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(CepCacheEntry::getCep).containsExactlyInAnyOrder(72006206, 1310100);
+        assertThat(saved.getValue()).contains(existing);
+        assertThat(existing.getCity()).isEqualTo("São Paulo");
+        ArgumentCaptor<Collection<Integer>> removed = ArgumentCaptor.forClass(Collection.class);
+        verify(cepCacheEntryRepository).deleteAllByIdInBatch(removed.capture());
+        assertThat(removed.getValue()).containsExactly(99999999);
+
+        cepSharedCacheService.flush();
+        verify(cepCacheEntryRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void refreshStaleLooksOldRowsUpAgain() {
+        when(cepLookupServiceProvider.getObject()).thenReturn(cepLookupService);
+        when(cepCacheEntryRepository.findByFetchedAtBeforeOrderByFetchedAtAsc(any(Instant.class), any(Pageable.class))).thenReturn(
+            List.of(entry(1310100, Instant.now().minus(Duration.ofHours(21))))
+        );
+
+        cepSharedCacheService.refreshStale();
+
+        verify(cepLookupService).refresh("01310100");
+        verify(cepCacheEntryRepository).deleteByFetchedAtBefore(any(Instant.class));
+    }
+
+    private static CepCacheEntry entry(int cep, Instant fetchedAt) {
+        CepCacheEntry entry = new CepCacheEntry().cep(cep).fetchedAt(fetchedAt);
+        entry.setStreet("Rua 4A");
+        entry.setCity("Brasília");
+        entry.setUf(Uf.DF);
+        return entry;
+    }
+
+    private static AddressDTO address(String city) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCity(city);
+        addressDTO.setUf(Uf.SP);
+        return addressDTO;
+    }
+}
@@ -0,0 +1,107 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.cep.CepSnapshot;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.scheduling.TaskScheduler;
+
+class CepSnapshotServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ApplicationProperties applicationProperties;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private TaskScheduler taskScheduler;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getSnapshot().setPath(tempDir.resolve("cep-snapshot.bin").toString());
+        applicationProperties.getCep().getCache().setTimeToLiveSeconds(3600);
+        applicationProperties.getCep().getCache().setLastKnownGoodTimeToLiveSeconds(86400);
+        cacheManager = new ConcurrentMapCacheManager();
+        taskScheduler = mock(TaskScheduler.class);
+    }
+
+    @Test
+    void recordedCepsAreServedFromTheCachesAfterARestart() {
+        CepSnapshotService beforeRestart = newCepSnapshotService();
+        beforeRestart.record("72006206", address("72006-206", "Brasília"));
+        beforeRestart.record("01310100", address("01310-100", "São Paulo"));
+        beforeRestart.record("01310100", null);
+        beforeRestart.stop();
+
+        newCepSnapshotService().start();
+
+        assertThat(cacheManager.getCache(CepLookupService.CEP_CACHE).get("72006206", AddressDTO.class).getCity()).isEqualTo("Brasília");
+        assertThat(cacheManager.getCache(CepLookupService.CEP_LAST_KNOWN_GOOD_CACHE).get("72006206")).isNotNull();
+        assertThat(cacheManager.getCache(CepLookupService.CEP_CACHE).get("01310100")).isNull();
+        verify(taskScheduler).scheduleWithFixedDelay(any(Runnable.class), eq(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void entriesPastTheCacheTimeToLiveOnlyWarmTheLastKnownGoodRegion() throws IOException {
+        long twoHoursAgo = System.currentTimeMillis() - Duration.ofHours(2).toMillis();
+        new CepSnapshot(tempDir.resolve("cep-snapshot.bin")).append(
+            List.of(new CepSnapshot.Entry(72006206, twoHoursAgo, address("72006-206", "Brasília")))
+        );
+
+        newCepSnapshotService().warmUp();
+
+        assertThat(cacheManager.getCache(CepLookupService.CEP_CACHE).get("72006206")).isNull();
+        assertThat(cacheManager.getCache(CepLookupService.CEP_LAST_KNOWN_GOOD_CACHE).get("72006206")).isNotNull();
+    }
+
+    @Test
+    void warmUpDoesNotOverwriteCepsResolvedSinceStartup() {
+        CepSnapshotService beforeRestart = newCepSnapshotService();
+        beforeRestart.record("72006206", address("72006-206", "Brasília"));
+        beforeRestart.flush();
+        AddressDTO fresh = address("72006-206", "Vicente Pires");
+        cacheManager.getCache(CepLookupService.CEP_CACHE).put("72006206", fresh);
+
+        newCepSnapshotService().warmUp();
+
+        assertThat(cacheManager.getCache(CepLookupService.CEP_CACHE).get("72006206", AddressDTO.class)).isSameAs(fresh);
+    }
+
+    @Test
+    void flushesAreScheduledEvenWhenTheWarmUpFails() {
+        CepSnapshotService beforeRestart = newCepSnapshotService();
+        beforeRestart.record("72006206", address("72006-206", "Brasília"));
+        beforeRestart.flush();
+        // Without the CEP regions, warming them up fails.
+        cacheManager = new ConcurrentMapCacheManager("other");
+
+        newCepSnapshotService().start();
+
+        verify(taskScheduler).scheduleWithFixedDelay(any(Runnable.class), eq(Duration.ofMinutes(1)));
+    }
+
+    private CepSnapshotService newCepSnapshotService() {
+        return new CepSnapshotService(applicationProperties, cacheManager, Runnable::run, taskScheduler);
+    }
+
+    private static AddressDTO address(String cep, String city) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(cep);
+        addressDTO.setCity(city);
+        addressDTO.setUf(Uf.DF);
+        return addressDTO;
+    }
+}
@@ -0,0 +1,83 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.service.dto.EmployeeDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+class EmployeeKeysetTest {
+
+    private static EmployeeDTO employee(Long id) {
+        return new EmployeeDTO(
+            id,
+            "Maria",
+            "Silva",
+            "maria@example.com",
+            null,
+            Instant.parse("2024-03-01T12:00:00Z"),
+            new BigDecimal("5000.50"),
+            true,
+            null,
+            null,
+            null
+        );
+    }
+
+    @Test
+    void sortEndsWithTheId() {
+        assertThat(EmployeeKeyset.sort(Sort.unsorted())).isEqualTo(Sort.by("id"));
+        assertThat(EmployeeKeyset.sort(Sort.by(Sort.Direction.DESC, "lastName"))).isEqualTo(
+            Sort.by(Sort.Order.desc("lastName"), Sort.Order.asc("id"))
+        );
+        assertThat(EmployeeKeyset.sort(Sort.by(Sort.Direction.DESC, "id"))).isEqualTo(Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    @Test
+    void sortRejectsNullableAndUnknownKeys() {
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeKeyset.sort(Sort.by("phone")));
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeKeyset.sort(Sort.by("department.name")));
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeKeyset.sort(Sort.by(Sort.Order.asc("lastName").ignoreCase())));
+    }
+
+    @Test
+    void cursorRoundTripsEveryKeyType() {
+        EmployeeDTO employee = employee(42L);
+        Sort sort = EmployeeKeyset.sort(Sort.by("hireDate", "salary", "active", "firstName"));
+
+        KeysetScrollPosition position = EmployeeKeyset.positionOf(employee, sort);
+        KeysetScrollPosition decoded = EmployeeKeyset.decode(EmployeeKeyset.encode(position, sort), sort);
+
+        assertThat(decoded.getKeys()).containsExactlyEntriesOf(position.getKeys());
+        assertThat(decoded.isInitial()).isFalse();
+    }
+
+    @Test
+    void emptyCursorIsTheFirstPage() {
+        assertThat(EmployeeKeyset.decode("", Sort.by("id")).isInitial()).isTrue();
+        assertThat(EmployeeKeyset.seek(EmployeeKeyset.decode("", Sort.by("id")), Sort.by("id"))).isNull();
+    }
+
+    @Test
+    void cursorIsBoundToItsSort() {
+        EmployeeDTO employee = employee(42L);
+        Sort byLastName = EmployeeKeyset.sort(Sort.by("lastName"));
+        String cursor = EmployeeKeyset.encode(EmployeeKeyset.positionOf(employee, byLastName), byLastName);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeKeyset.decode(cursor, EmployeeKeyset.sort(Sort.by("firstName"))));
+        Sort descending = EmployeeKeyset.sort(Sort.by(Sort.Direction.DESC, "lastName"));
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeKeyset.decode(cursor, descending));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        Sort sort = Sort.by("id");
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeKeyset.decode("not a cursor", sort));
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeKeyset.decode("AQ", sort));
+        String truncated = EmployeeKeyset.encode(EmployeeKeyset.positionOf(employee(7L), sort), sort);
+        assertThatIllegalArgumentException().isThrownBy(() -> EmployeeKeyset.decode(truncated.substring(0, truncated.length() - 2), sort));
+    }
+}
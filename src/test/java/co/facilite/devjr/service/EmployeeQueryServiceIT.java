@@ -0,0 +1,105 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import co.facilite.devjr.IntegrationTest;
+import co.facilite.devjr.service.criteria.EmployeeCriteria;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Integration tests for the SQL {@link EmployeeQueryService} generates, against the indexes of the employee table.
+ */
+@IntegrationTest
+@Transactional
+class EmployeeQueryServiceIT {
+
+    private static final int SEEDED_EMPLOYEES = 20000;
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Records the SQL statements Hibernate sends, to explain them as they are.
+     */
+    @TestConfiguration
+    static class StatementRecorderConfiguration {
+
+        @Bean
+        HibernatePropertiesCustomizer statementRecorder() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @Autowired
+    private EmployeeQueryService employeeQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update(
+            """
+            insert into employee (id, first_name, last_name, email, hire_date, salary, active)
+            select 2000000000 + g, 'First' || md5(g::text), 'Last' || md5((g * 7)::text), 'trgm' || g || '@example.com',
+                   timestamp '2020-01-01', 1000, true
+            from generate_series(1, ?) g
+            """,
+            SEEDED_EMPLOYEES
+        );
+        jdbcTemplate.execute("analyze employee");
+        // The planner may still prefer scanning a table this small; what matters is that the SQL can use the index.
+        jdbcTemplate.execute("set local enable_seqscan = off");
+    }
+
+    @Test
+    void firstNameContainsCanUseTheTrigramIndex() {
+        assertContainsUsesIndex(criteria -> criteria.setFirstName(contains("a1b")), "%A1B%", "ix_employee__first_name_trgm");
+    }
+
+    @Test
+    void lastNameContainsCanUseTheTrigramIndex() {
+        assertContainsUsesIndex(criteria -> criteria.setLastName(contains("c2d")), "%C2D%", "ix_employee__last_name_trgm");
+    }
+
+    @Test
+    void emailContainsCanUseTheTrigramIndex() {
+        assertContainsUsesIndex(criteria -> criteria.setEmail(contains("m12")), "%M12%", "ix_employee__email_trgm");
+    }
+
+    private static StringFilter contains(String value) {
+        StringFilter filter = new StringFilter();
+        filter.setContains(value);
+        return filter;
+    }
+
+    private void assertContainsUsesIndex(Consumer<EmployeeCriteria> filter, String pattern, String index) {
+        EmployeeCriteria criteria = new EmployeeCriteria();
+        filter.accept(criteria);
+        STATEMENTS.clear();
+
+        long count = employeeQueryService.countByCriteria(criteria);
+
+        assertThat(count).isPositive();
+        String sql = STATEMENTS.stream().filter(statement -> statement.contains(" like ")).findFirst().orElseThrow();
+        assertThat(sql).containsIgnoringCase("upper(");
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, pattern));
+        assertThat(plan).contains("Bitmap Index Scan on " + index);
+    }
+}
@@ -0,0 +1,366 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.Employee;
+import co.facilite.devjr.repository.EmployeeRepository;
+import co.facilite.devjr.service.EmployeeQueryService.CountMode;
+import co.facilite.devjr.service.criteria.EmployeeCriteria;
+import co.facilite.devjr.service.dto.EmployeeDTO;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.jhipster.service.filter.BooleanFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeQueryServiceTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService countThread = Executors.newSingleThreadExecutor();
+
+    private EmployeeQueryService employeeQueryService;
+
+    @BeforeEach
+    void setUp() {
+        employeeQueryService = newService(Runnable::run);
+    }
+
+    private EmployeeQueryService newService(Executor countExecutor) {
+        return newService(countExecutor, Duration.ZERO);
+    }
+
+    private EmployeeQueryService newService(Executor countExecutor, Duration headStart) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getEmployee().getCount().setHeadStart(headStart);
+        return new EmployeeQueryService(
+            employeeRepository,
+            new ConcurrentMapCacheManager(EmployeeQueryService.EMPLOYEE_COUNT_CACHE),
+            countExecutor,
+            transactionManager,
+            applicationProperties
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        countThread.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static EmployeeCriteria activeCriteria() {
+        EmployeeCriteria criteria = new EmployeeCriteria();
+        criteria.setActive((BooleanFilter) new BooleanFilter().setEquals(true));
+        return criteria;
+    }
+
+    private void pageReturns(int size, boolean hasNext) {
+        pageReturns(size, hasNext, () -> {});
+    }
+
+    /**
+     * @param beforeReturning run by the page query, as it would take its time.
+     */
+    private void pageReturns(int size, boolean hasNext, Runnable beforeReturning) {
+        List<EmployeeDTO> employees = new ArrayList<>();
+        for (int i = 0; i < size + (hasNext ? 1 : 0); i++) {
+            EmployeeDTO employee = new EmployeeDTO();
+            employee.setId((long) i);
+            employees.add(employee);
+        }
+        when(
+            employeeRepository.findAllProjected(
+                eq(EmployeeDTO.class),
+                ArgumentMatchers.<Specification<Employee>>any(),
+                any(),
+                anyLong(),
+                anyInt()
+            )
+        ).thenAnswer(invocation -> {
+            beforeReturning.run();
+            return employees;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitCountThread() throws InterruptedException {
+        countThread.shutdown();
+        assertThat(countThread.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void countsReturn(Long first, Long... next) {
+        when(employeeRepository.count(ArgumentMatchers.<Specification<Employee>>any())).thenReturn(first, next);
+    }
+
+    @Test
+    void cachedCountIsReusedUntilAWrite() {
+        countsReturn(5L, 6L);
+
+        EmployeeCount counted = employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED);
+        EmployeeCount reused = employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED);
+        employeeQueryService.invalidateCounts();
+        EmployeeCount afterWrite = employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED);
+
+        assertThat(counted.getTotal()).isEqualTo(5);
+        assertThat(counted.isExact()).isTrue();
+        // Writes through other nodes or outside the application may have changed it since.
+        assertThat(reused.getTotal()).isEqualTo(5);
+        assertThat(reused.isExact()).isFalse();
+        assertThat(afterWrite.getTotal()).isEqualTo(6);
+        assertThat(afterWrite.isExact()).isTrue();
+        verify(employeeRepository, times(2)).count(ArgumentMatchers.<Specification<Employee>>any());
+    }
+
+    @Test
+    void cachedCountsAreKeptPerNormalizedCriteria() {
+        countsReturn(5L, 7L);
+        EmployeeCriteria distinct = activeCriteria();
+        distinct.setDistinct(true);
+        EmployeeCriteria byName = activeCriteria();
+        byName.setFirstName((StringFilter) new StringFilter().setEquals("Ana"));
+
+        assertThat(employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED).getTotal()).isEqualTo(5);
+        assertThat(employeeQueryService.countByCriteria(distinct, CountMode.CACHED).getTotal()).isEqualTo(5);
+        assertThat(employeeQueryService.countByCriteria(byName, CountMode.CACHED).getTotal()).isEqualTo(7);
+        assertThat(employeeQueryService.countByCriteria(byName, CountMode.CACHED).getTotal()).isEqualTo(7);
+    }
+
+    @Test
+    void countTakenDuringAWriteIsNotReused() {
+        when(employeeRepository.count(ArgumentMatchers.<Specification<Employee>>any()))
+            .thenAnswer(invocation -> {
+                // A write commits while the count runs.
+                employeeQueryService.invalidateCounts();
+                return 5L;
+            })
+            .thenReturn(6L);
+
+        employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED);
+
+        assertThat(employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED).getTotal()).isEqualTo(6);
+    }
+
+    @Test
+    void writesInvalidateOnceTheirTransactionCompletes() {
+        countsReturn(5L, 6L);
+        employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED);
+        TransactionSynchronizationManager.initSynchronization();
+
+        employeeQueryService.invalidateCounts();
+        assertThat(employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED).getTotal()).isEqualTo(5);
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync ->
+            sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+        );
+
+        assertThat(employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED).getTotal()).isEqualTo(6);
+    }
+
+    @Test
+    void estimateIsTakenFromTheTableStatisticsWhenNothingIsFiltered() {
+        when(employeeRepository.estimateCount()).thenReturn(1000000L);
+
+        EmployeeCount count = employeeQueryService.countByCriteria(new EmployeeCriteria(), CountMode.ESTIMATE);
+
+        assertThat(count.getTotal()).isEqualTo(1000000);
+        assertThat(count.isExact()).isFalse();
+        verify(employeeRepository, never()).count(ArgumentMatchers.<Specification<Employee>>any());
+    }
+
+    @Test
+    void estimateFallsBackToCountingWithoutStatistics() {
+        when(employeeRepository.estimateCount()).thenReturn(-1L);
+        when(employeeRepository.count()).thenReturn(42L);
+
+        EmployeeCount count = employeeQueryService.countByCriteria(null, CountMode.ESTIMATE);
+
+        assertThat(count.getTotal()).isEqualTo(42);
+        assertThat(count.isExact()).isTrue();
+    }
+
+    @Test
+    void estimateOfAFilteredListIsACachedCount() {
+        countsReturn(5L);
+
+        EmployeeCount count = employeeQueryService.countByCriteria(activeCriteria(), CountMode.ESTIMATE);
+        EmployeeCount reused = employeeQueryService.countByCriteria(activeCriteria(), CountMode.ESTIMATE);
+        employeeQueryService.countByCriteria(activeCriteria(), CountMode.CACHED);
+
+        assertThat(count.getTotal()).isEqualTo(5);
+        assertThat(count.isExact()).isTrue();
+        assertThat(reused.getTotal()).isEqualTo(5);
+        assertThat(reused.isExact()).isFalse();
+        verify(employeeRepository, never()).estimateCount();
+        verify(employeeRepository, times(1)).count(ArgumentMatchers.<Specification<Employee>>any());
+    }
+
+    @Test
+    void exactCountIsTakenEveryTime() {
+        countsReturn(5L, 6L);
+
+        employeeQueryService.countByCriteria(activeCriteria(), CountMode.EXACT);
+
+        assertThat(employeeQueryService.countByCriteria(activeCriteria(), CountMode.EXACT).getTotal()).isEqualTo(6);
+        assertThatIllegalArgumentException().isThrownBy(() -> employeeQueryService.countByCriteria(activeCriteria(), CountMode.NONE));
+    }
+
+    @Test
+    void lastPageIsNotCounted() {
+        List<Runnable> queued = new ArrayList<>();
+        employeeQueryService = newService(queued::add);
+        pageReturns(3, false);
+
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(activeCriteria(), PageRequest.of(0, 20));
+        queued.forEach(Runnable::run);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        verify(employeeRepository, never()).count(ArgumentMatchers.<Specification<Employee>>any());
+    }
+
+    @Test
+    void fullLastPageIsNotCounted() {
+        List<Runnable> queued = new ArrayList<>();
+        employeeQueryService = newService(queued::add);
+        pageReturns(20, false);
+
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(activeCriteria(), PageRequest.of(2, 20));
+        queued.forEach(Runnable::run);
+
+        assertThat(page.getTotalElements()).isEqualTo(60);
+        assertThat(page.isLast()).isTrue();
+        verify(employeeRepository, never()).count(ArgumentMatchers.<Specification<Employee>>any());
+    }
+
+    @Test
+    void slowPageWaitsForTheCountRunningOnAnotherThread() {
+        employeeQueryService = newService(countThread);
+        CountDownLatch countStarted = new CountDownLatch(1);
+        pageReturns(20, true, () -> await(countStarted));
+        List<String> countThreads = new ArrayList<>();
+        when(employeeRepository.count(ArgumentMatchers.<Specification<Employee>>any())).thenAnswer(invocation -> {
+            countThreads.add(Thread.currentThread().getName());
+            countStarted.countDown();
+            return 100L;
+        });
+
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(activeCriteria(), PageRequest.of(0, 20));
+
+        assertThat(page.getTotalElements()).isEqualTo(100);
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(countThreads).doesNotContain(Thread.currentThread().getName()).hasSize(1);
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+    }
+
+    @Test
+    void pagePastTheEndIsCounted() {
+        pageReturns(0, false);
+        countsReturn(42L);
+
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(activeCriteria(), PageRequest.of(5, 20));
+
+        assertThat(page.getTotalElements()).isEqualTo(42);
+    }
+
+    @Test
+    void countRunsAfterThePageWhenTheExecutorIsBusy() {
+        employeeQueryService = newService(command -> {
+            throw new RejectedExecutionException();
+        });
+        pageReturns(20, true);
+        countsReturn(100L);
+
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(activeCriteria(), PageRequest.of(0, 20));
+
+        assertThat(page.getTotalElements()).isEqualTo(100);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void pageAnsweredWithinTheHeadStartIsCountedOnItsOwnConnection() throws InterruptedException {
+        employeeQueryService = newService(countThread, Duration.ofMinutes(1));
+        pageReturns(20, true);
+        List<String> countThreads = new ArrayList<>();
+        when(employeeRepository.count(ArgumentMatchers.<Specification<Employee>>any())).thenAnswer(invocation -> {
+            countThreads.add(Thread.currentThread().getName());
+            return 100L;
+        });
+
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(activeCriteria(), PageRequest.of(0, 20));
+        awaitCountThread();
+
+        assertThat(page.getTotalElements()).isEqualTo(100);
+        assertThat(countThreads).containsExactly(Thread.currentThread().getName());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void lastPageAnsweredWithinTheHeadStartTakesNoSecondConnection() throws InterruptedException {
+        employeeQueryService = newService(countThread, Duration.ofMinutes(1));
+        pageReturns(3, false);
+
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(activeCriteria(), PageRequest.of(0, 20));
+        awaitCountThread();
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        verifyNoInteractions(transactionManager);
+        verify(employeeRepository, never()).count(ArgumentMatchers.<Specification<Employee>>any());
+    }
+
+    @Test
+    void countWaitingForAConnectionIsNotWaitedFor() throws InterruptedException {
+        employeeQueryService = newService(countThread);
+        CountDownLatch connectionRequested = new CountDownLatch(1);
+        CountDownLatch poolExhausted = new CountDownLatch(1);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            connectionRequested.countDown();
+            await(poolExhausted);
+            return null;
+        });
+        pageReturns(20, true, () -> await(connectionRequested));
+        countsReturn(100L);
+
+        Page<EmployeeDTO> page = employeeQueryService.findByCriteria(activeCriteria(), PageRequest.of(0, 20));
+        poolExhausted.countDown();
+        awaitCountThread();
+
+        assertThat(page.getTotalElements()).isEqualTo(100);
+        verify(employeeRepository, times(1)).count(ArgumentMatchers.<Specification<Employee>>any());
+    }
+}
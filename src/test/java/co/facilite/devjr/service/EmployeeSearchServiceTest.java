@@ -0,0 +1,242 @@
+package co.facilite.devjr.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.repository.EmployeeRepository;
+import co.facilite.devjr.service.mapper.EmployeeMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSearchServiceTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeMapper employeeMapper;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private ServiceRegistryImplementor serviceRegistry;
+
+    @Mock
+    private EventListenerRegistry eventListenerRegistry;
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    private final List<Instant> scheduledAt = new ArrayList<>();
+
+    private EmployeeSearchService employeeSearchService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getServiceRegistry()).thenReturn(serviceRegistry);
+        when(serviceRegistry.requireService(EventListenerRegistry.class)).thenReturn(eventListenerRegistry);
+        when(taskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            scheduledAt.add(invocation.getArgument(1));
+            return null;
+        });
+        employeeSearchService = new EmployeeSearchService(
+            employeeRepository,
+            employeeMapper,
+            taskScheduler,
+            transactionManager,
+            entityManagerFactory,
+            new ApplicationProperties(),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeSearchService.stop();
+    }
+
+    private void rebuildWith(EmployeeRepository.SearchFields... rows) {
+        when(employeeRepository.streamSearchFields()).thenReturn(Stream.of(rows));
+        employeeSearchService.rebuild();
+        runScheduled();
+    }
+
+    /**
+     * Runs the tasks scheduled so far, not the ones they schedule.
+     */
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        scheduledAt.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private List<Long> search(String query) {
+        return employeeSearchService.index().search(query, 0, 10).getIds();
+    }
+
+    @Test
+    void changedEmployeesAreIndexedAgainAndDeletedOnesRemoved() {
+        rebuildWith(row(1L, "Maria", "Souza", "Engenharia", "Campinas"), row(2L, "Pedro", "Lima", "Engenharia", "Natal"));
+        when(employeeRepository.findSearchFieldsByIdIn(List.of(1L, 2L))).thenReturn(
+            List.of(row(1L, "Maria", "Souza", "Engenharia", "Recife"))
+        );
+
+        employeeSearchService.employeeChanged(1L);
+        employeeSearchService.employeeChanged(2L);
+        assertThat(search("recife")).isEmpty();
+        runScheduled();
+
+        assertThat(search("recife")).containsExactly(1L);
+        assertThat(search("campinas")).isEmpty();
+        assertThat(search("pedro")).isEmpty();
+    }
+
+    @Test
+    void employeesOfAChangedDepartmentAreIndexedAgain() {
+        rebuildWith(row(1L, "Maria", "Souza", "Engenharia", "Campinas"));
+        when(employeeRepository.streamSearchFieldsByDepartmentIdIn(List.of(5L))).thenReturn(
+            Stream.of(row(1L, "Maria", "Souza", "Jurídico", "Campinas"))
+        );
+
+        employeeSearchService.departmentChanged(5L);
+        runScheduled();
+
+        assertThat(search("juridico")).containsExactly(1L);
+        assertThat(search("engenharia")).isEmpty();
+    }
+
+    @Test
+    void employeesOfAChangedAddressAreIndexedAgain() {
+        rebuildWith(row(1L, "Maria", "Souza", null, "Campinas"));
+        when(employeeRepository.findSearchFieldsByAddressIdIn(List.of(9L))).thenReturn(List.of(row(1L, "Maria", "Souza", null, "Natal")));
+
+        employeeSearchService.addressChanged(9L);
+        runScheduled();
+
+        assertThat(search("natal")).containsExactly(1L);
+    }
+
+    @Test
+    void changesThatCouldNotBeReadAreTriedAgain() {
+        rebuildWith(row(1L, "Maria", "Souza", null, "Campinas"));
+        when(employeeRepository.findSearchFieldsByIdIn(List.of(1L)))
+            .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+            .thenReturn(List.of(row(1L, "Maria", "Souza", null, "Recife")));
+
+        employeeSearchService.employeeChanged(1L);
+        runScheduled();
+
+        assertThat(search("recife")).isEmpty();
+        assertThat(scheduledAt).singleElement().satisfies(at -> assertThat(at).isAfter(Instant.now()));
+        runScheduled();
+
+        assertThat(search("recife")).containsExactly(1L);
+    }
+
+    @Test
+    void rebuildInBackgroundIsTriedAgainUntilItSucceeds() {
+        when(employeeRepository.streamSearchFields())
+            .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+            .thenReturn(Stream.of(row(1L, "Maria", "Souza", null, "Campinas")));
+
+        employeeSearchService.rebuildInBackground();
+        runScheduled();
+
+        assertThat(employeeSearchService.index().size()).isZero();
+        assertThat(scheduledAt).singleElement().satisfies(at -> assertThat(at).isAfter(Instant.now()));
+        runScheduled();
+
+        assertThat(search("maria")).containsExactly(1L);
+    }
+
+    private static EmployeeRepository.SearchFields row(Long id, String firstName, String lastName, String department, String city) {
+        return new SearchRow(id, firstName, lastName, department, city);
+    }
+
+    private static final class SearchRow implements EmployeeRepository.SearchFields {
+
+        private final Long id;
+
+        private final String firstName;
+
+        private final String lastName;
+
+        private final String departmentName;
+
+        private final String city;
+
+        private SearchRow(Long id, String firstName, String lastName, String departmentName, String city) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.departmentName = departmentName;
+            this.city = city;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Override
+        public String getLastName() {
+            return lastName;
+        }
+
+        @Override
+        public String getEmail() {
+            return firstName.toLowerCase() + id + "@example.com";
+        }
+
+        @Override
+        public String getPhone() {
+            return null;
+        }
+
+        @Override
+        public String getDepartmentName() {
+            return departmentName;
+        }
+
+        @Override
+        public String getCity() {
+            return city;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CepAutocompleteIndexTest {
+
+    @Test
+    void digitPrefixReturnsTheMatchingCepsInOrder() {
+        CepAutocompleteIndex index = new CepAutocompleteIndex(100, 10);
+        index.addAll(
+            List.of(
+                address("01310-200", "Avenida Paulista", "São Paulo", Uf.SP),
+                address("72006-206", "Rua 4A", "Brasília", Uf.DF),
+                address("01310-100", "Avenida Paulista", "São Paulo", Uf.SP),
+                address("01311-000", "Rua Augusta", "São Paulo", Uf.SP)
+            )
+        );
+
+        assertThat(ceps(index.suggest("0131", 10))).containsExactly("01310-100", "01310-200", "01311-000");
+        assertThat(ceps(index.suggest("01310-1", 10))).containsExactly("01310-100");
+        assertThat(ceps(index.suggest("01310100", 10))).containsExactly("01310-100");
+        assertThat(ceps(index.suggest("0131", 2))).containsExactly("01310-100", "01310-200");
+        assertThat(index.suggest("013101000", 10)).isEmpty();
+        assertThat(index.suggest("9", 10)).isEmpty();
+    }
+
+    @Test
+    void wordPrefixesMatchStreetAndCityIgnoringCaseAndAccents() {
+        CepAutocompleteIndex index = new CepAutocompleteIndex(100, 10);
+        index.addAll(
+            List.of(
+                address("01310-100", "Avenida Paulista", "São Paulo", Uf.SP),
+                address("01311-000", "Rua Augusta", "São Paulo", Uf.SP),
+                address("30130-000", "Rua Augusto de Lima", "Belo Horizonte", Uf.MG),
+                address("72006-206", "Rua 4A", "Brasília", Uf.DF)
+            )
+        );
+
+        assertThat(ceps(index.suggest("augu", 10))).containsExactly("01311-000", "30130-000");
+        assertThat(ceps(index.suggest("Augusta", 10))).containsExactly("01311-000");
+        assertThat(ceps(index.suggest("augusto de lima", 10))).containsExactly("30130-000");
+        assertThat(ceps(index.suggest("SAO paul", 10))).containsExactly("01310-100", "01311-000");
+        assertThat(ceps(index.suggest("brasilia 4a", 10))).containsExactly("72006-206");
+        assertThat(ceps(index.suggest("rua hori", 10))).containsExactly("30130-000");
+        assertThat(index.suggest("ugusta", 10)).isEmpty();
+        assertThat(index.suggest("  -- ", 10)).isEmpty();
+
+        AddressDTO result = index.suggest("paulista", 1).get(0);
+        assertThat(result.getStreet()).isEqualTo("Avenida Paulista");
+        assertThat(result.getCity()).isEqualTo("São Paulo");
+        assertThat(result.getUf()).isEqualTo(Uf.SP);
+    }
+
+    @Test
+    void wordsLongerThanTheKeyAreCheckedInFull() {
+        CepAutocompleteIndex index = new CepAutocompleteIndex(100, 10);
+        index.addAll(
+            List.of(
+                address("04001-000", "Rua Independência", "São Paulo", Uf.SP),
+                address("04002-000", "Rua Independente", "São Paulo", Uf.SP)
+            )
+        );
+
+        assertThat(ceps(index.suggest("independ", 10))).containsExactly("04001-000", "04002-000");
+        assertThat(ceps(index.suggest("independen", 10))).containsExactly("04001-000", "04002-000");
+        assertThat(ceps(index.suggest("independenc", 10))).containsExactly("04001-000");
+    }
+
+    @Test
+    void addedAddressesAreFoundBeforeAndAfterTheMerge() {
+        CepAutocompleteIndex index = new CepAutocompleteIndex(100, 10);
+        index.addAll(List.of(address("01310-100", "Avenida Paulista", "São Paulo", Uf.SP)));
+
+        assertThat(index.add(address("01310-200", "Avenida Paulista", "São Paulo", Uf.SP))).isTrue();
+        assertThat(index.add(address("01310-100", "Avenida Paulista Nova", "São Paulo", Uf.SP))).isTrue();
+
+        assertThat(index.pendingSize()).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(ceps(index.suggest("01310", 10))).containsExactly("01310-100", "01310-200");
+        assertThat(ceps(index.suggest("nova", 10))).containsExactly("01310-100");
+        assertThat(index.suggest("paulista", 10)).hasSize(2);
+
+        index.merge();
+
+        assertThat(index.pendingSize()).isZero();
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(ceps(index.suggest("01310", 10))).containsExactly("01310-100", "01310-200");
+        assertThat(ceps(index.suggest("nova", 10))).containsExactly("01310-100");
+        assertThat(index.suggest("paulista", 10)).hasSize(2);
+    }
+
+    @Test
+    void staysWithinMaxEntriesAndCountsTheRejected() {
+        CepAutocompleteIndex index = new CepAutocompleteIndex(3, 2);
+        List<AddressDTO> addresses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            addresses.add(address(String.format("0100%d-000", i), "Rua " + i, "São Paulo", Uf.SP));
+        }
+
+        assertThat(index.addAll(addresses.subList(0, 2))).isZero();
+        assertThat(index.add(addresses.get(2))).isTrue();
+        assertThat(index.add(addresses.get(3))).isFalse();
+        assertThat(index.add(address("01000-000", "Rua Zero", "São Paulo", Uf.SP))).isTrue();
+        index.merge();
+        assertThat(index.addAll(addresses.subList(3, 5))).isEqualTo(2);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.rejected()).isEqualTo(3);
+        assertThat(ceps(index.suggest("zero", 10))).containsExactly("01000-000");
+    }
+
+    @Test
+    void addressesWithoutAValidCepAreIgnored() {
+        CepAutocompleteIndex index = new CepAutocompleteIndex(10, 10);
+
+        assertThat(index.add(address("0131", "Rua", "São Paulo", Uf.SP))).isFalse();
+        assertThat(index.add(address(null, "Rua", "São Paulo", Uf.SP))).isFalse();
+        assertThat(index.size()).isZero();
+        assertThat(index.rejected()).isZero();
+    }
+
+    @Test
+    void wordsAreFoldedToLowerCaseAscii() {
+        assertThat(CepAutocompleteIndex.words("Praça da Sé, nº 1-A")).containsExactly("praca", "da", "se", "n", "1", "a");
+        assertThat(CepAutocompleteIndex.code("abcdefgh")).isEqualTo(CepAutocompleteIndex.code("abcdefg"));
+        assertThat(CepAutocompleteIndex.code("b")).isGreaterThan(CepAutocompleteIndex.code("azzzzzz"));
+        assertThat(CepAutocompleteIndex.code("a")).isGreaterThan(CepAutocompleteIndex.code("9zzzzzz"));
+    }
+
+    private static List<String> ceps(List<AddressDTO> addresses) {
+        return addresses.stream().map(AddressDTO::getCep).toList();
+    }
+
+    private static AddressDTO address(String cep, String street, String city, Uf uf) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(cep);
+        addressDTO.setStreet(street);
+        addressDTO.setCity(city);
+        addressDTO.setUf(uf);
+        return addressDTO;
+    }
+}
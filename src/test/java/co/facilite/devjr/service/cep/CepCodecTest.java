@@ -0,0 +1,33 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CepCodecTest {
+
+    @Test
+    void parseIgnoresPunctuationAndWhitespace() {
+        assertThat(CepCodec.parse("72006206")).isEqualTo(72006206);
+        assertThat(CepCodec.parse("72006-206")).isEqualTo(72006206);
+        assertThat(CepCodec.parse(" 72.006-206 ")).isEqualTo(72006206);
+        assertThat(CepCodec.parse("01310-100")).isEqualTo(1310100);
+        assertThat(CepCodec.parse("00000-000")).isZero();
+    }
+
+    @Test
+    void parseRejectsAnythingButEightDigits() {
+        assertThat(CepCodec.parse("")).isEqualTo(CepCodec.INVALID);
+        assertThat(CepCodec.parse("123")).isEqualTo(CepCodec.INVALID);
+        assertThat(CepCodec.parse("123456789")).isEqualTo(CepCodec.INVALID);
+        assertThat(CepCodec.parse("99999999999999999999")).isEqualTo(CepCodec.INVALID);
+        assertThat(CepCodec.parse("abcdefgh")).isEqualTo(CepCodec.INVALID);
+    }
+
+    @Test
+    void formatKeepsLeadingZeros() {
+        assertThat(CepCodec.format(1310100)).isEqualTo("01310100");
+        assertThat(CepCodec.formatHyphenated(1310100)).isEqualTo("01310-100");
+        assertThat(CepCodec.formatHyphenated(72006206)).isEqualTo("72006-206");
+    }
+}
@@ -0,0 +1,95 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CepDatasetTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void importedDatasetAnswersKnownCeps() throws IOException {
+        Path dataset = importDataset(
+            "cep;street;complement;district;city;uf",
+            "72006-206;Rua 4A Blocos 2 e 3;;Setor Habitacional Vicente Pires;Brasília;DF",
+            "01310100;Avenida Paulista;até 610 - lado par;Bela Vista;São Paulo;sp",
+            "01001000;Praça da Sé;lado ímpar;Sé;São Paulo;SP"
+        );
+
+        try (CepDataset cepDataset = CepDataset.open(dataset)) {
+            assertThat(cepDataset.size()).isEqualTo(3);
+
+            AddressDTO brasilia = cepDataset.find(72006206).orElseThrow();
+            assertThat(brasilia.getCep()).isEqualTo("72006-206");
+            assertThat(brasilia.getStreet()).isEqualTo("Rua 4A Blocos 2 e 3");
+            assertThat(brasilia.getComplement()).isNull();
+            assertThat(brasilia.getDistrict()).isEqualTo("Setor Habitacional Vicente Pires");
+            assertThat(brasilia.getCity()).isEqualTo("Brasília");
+            assertThat(brasilia.getUf()).isEqualTo(Uf.DF);
+
+            AddressDTO se = cepDataset.find(1001000).orElseThrow();
+            assertThat(se.getCep()).isEqualTo("01001-000");
+            assertThat(se.getComplement()).isEqualTo("lado ímpar");
+            assertThat(se.getCity()).isEqualTo("São Paulo");
+
+            assertThat(cepDataset.find(1310100).orElseThrow().getUf()).isEqualTo(Uf.SP);
+        }
+    }
+
+    @Test
+    void unknownCepsAreNotFound() throws IOException {
+        Path dataset = importDataset("01310100;Avenida Paulista;;Bela Vista;São Paulo;SP");
+
+        try (CepDataset cepDataset = CepDataset.open(dataset)) {
+            assertThat(cepDataset.find(1310099)).isEmpty();
+            assertThat(cepDataset.find(1310101)).isEmpty();
+            assertThat(cepDataset.find(99999999)).isEmpty();
+        }
+    }
+
+    @Test
+    void duplicatedCepKeepsLastLine() throws IOException {
+        Path dataset = importDataset("01310100;Avenida Paulista;;Bela Vista;São Paulo;SP", "01310-100;Av. Paulista;;Bela Vista;São Paulo;SP");
+
+        try (CepDataset cepDataset = CepDataset.open(dataset)) {
+            assertThat(cepDataset.size()).isEqualTo(1);
+            assertThat(cepDataset.find(1310100).orElseThrow().getStreet()).isEqualTo("Av. Paulista");
+        }
+    }
+
+    @Test
+    void invalidCepIsRejected() throws IOException {
+        Path input = tempDir.resolve("input.csv");
+        Files.write(input, List.of("0131010;Avenida Paulista;;Bela Vista;São Paulo;SP"), StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> CepDatasetImporter.importDataset(input, tempDir.resolve("cep-dataset.bin")))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Line 1");
+    }
+
+    @Test
+    void openRejectsOtherFiles() throws IOException {
+        Path other = tempDir.resolve("other.bin");
+        Files.write(other, new byte[32]);
+
+        assertThatThrownBy(() -> CepDataset.open(other)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path importDataset(String... lines) throws IOException {
+        Path input = tempDir.resolve("input.csv");
+        Path output = tempDir.resolve("cep-dataset.bin");
+        Files.write(input, List.of(lines), StandardCharsets.UTF_8);
+        CepDatasetImporter.importDataset(input, output);
+        return output;
+    }
+}
@@ -0,0 +1,76 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CepSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void appendedEntriesAreLoadedBackWithTheLatestValuePerCep() throws IOException {
+        CepSnapshot snapshot = new CepSnapshot(tempDir.resolve("cep-snapshot.bin"));
+        snapshot.append(List.of(entry(72006206, 1000, "Brasília"), entry(1310100, 1000, "São Paulo")));
+        snapshot.append(List.of(entry(72006206, 2000, "Vicente Pires"), new CepSnapshot.Entry(1310100, 2000, null)));
+
+        Collection<CepSnapshot.Entry> entries = new CepSnapshot(tempDir.resolve("cep-snapshot.bin")).load();
+
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.getCep()).isEqualTo(72006206);
+            assertThat(entry.getFetchedAt()).isEqualTo(2000);
+            assertThat(entry.getAddress().getCep()).isEqualTo("72006-206");
+            assertThat(entry.getAddress().getCity()).isEqualTo("Vicente Pires");
+            assertThat(entry.getAddress().getUf()).isEqualTo(Uf.DF);
+        });
+    }
+
+    @Test
+    void compactFoldsTheLogIntoTheSnapshotAndDropsOldEntries() throws IOException {
+        Path file = tempDir.resolve("cep-snapshot.bin");
+        CepSnapshot snapshot = new CepSnapshot(file);
+        snapshot.append(List.of(entry(72006206, 1000, "Brasília"), entry(1310100, 5000, "São Paulo")));
+
+        assertThat(snapshot.compact(2000)).isEqualTo(1);
+
+        assertThat(file).exists();
+        assertThat(tempDir.resolve("cep-snapshot.bin.log")).doesNotExist();
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(file);
+        }
+        assertThat(snapshot.load()).extracting(CepSnapshot.Entry::getCep).containsExactly(1310100);
+    }
+
+    @Test
+    void truncatedLastEntryOfTheLogIsIgnored() throws IOException {
+        Path file = tempDir.resolve("cep-snapshot.bin");
+        CepSnapshot snapshot = new CepSnapshot(file);
+        snapshot.append(List.of(entry(72006206, 1000, "Brasília")));
+        snapshot.compact(0);
+        snapshot.append(List.of(entry(1310100, 1000, "São Paulo"), entry(1001000, 1000, "São Paulo")));
+        Path log = tempDir.resolve("cep-snapshot.bin.log");
+        byte[] bytes = Files.readAllBytes(log);
+        Files.write(log, Arrays.copyOf(bytes, bytes.length - 5), StandardOpenOption.TRUNCATE_EXISTING);
+
+        assertThat(snapshot.load()).extracting(CepSnapshot.Entry::getCep).containsExactly(72006206, 1310100);
+    }
+
+    private static CepSnapshot.Entry entry(int cep, long fetchedAt, String city) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setStreet("Rua 4A");
+        addressDTO.setCity(city);
+        addressDTO.setUf(Uf.DF);
+        return new CepSnapshot.Entry(cep, fetchedAt, addressDTO);
+    }
+}
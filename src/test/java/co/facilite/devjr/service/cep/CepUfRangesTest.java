@@ -0,0 +1,60 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class CepUfRangesTest {
+
+    @Test
+    void capitalsAreInTheirStates() {
+        assertThat(CepUfRanges.ufOf(1310100)).isEqualTo(Uf.SP);
+        assertThat(CepUfRanges.ufOf(20040020)).isEqualTo(Uf.RJ);
+        assertThat(CepUfRanges.ufOf(72006206)).isEqualTo(Uf.DF);
+        assertThat(CepUfRanges.ufOf(68900000)).isEqualTo(Uf.AP);
+        assertThat(CepUfRanges.ufOf(69301000)).isEqualTo(Uf.RR);
+        assertThat(CepUfRanges.ufOf(69010000)).isEqualTo(Uf.AM);
+        assertThat(CepUfRanges.ufOf(69900000)).isEqualTo(Uf.AC);
+        assertThat(CepUfRanges.ufOf(74000000)).isEqualTo(Uf.GO);
+        assertThat(CepUfRanges.ufOf(76801000)).isEqualTo(Uf.RO);
+        assertThat(CepUfRanges.ufOf(77001000)).isEqualTo(Uf.TO);
+        assertThat(CepUfRanges.ufOf(78005000)).isEqualTo(Uf.MT);
+        assertThat(CepUfRanges.ufOf(79002000)).isEqualTo(Uf.MS);
+        assertThat(CepUfRanges.ufOf(90010000)).isEqualTo(Uf.RS);
+    }
+
+    @Test
+    void rangeBoundariesBetweenInterleavedStates() {
+        assertThat(CepUfRanges.ufOf(72799999)).isEqualTo(Uf.DF);
+        assertThat(CepUfRanges.ufOf(72800000)).isEqualTo(Uf.GO);
+        assertThat(CepUfRanges.ufOf(73000000)).isEqualTo(Uf.DF);
+        assertThat(CepUfRanges.ufOf(73700000)).isEqualTo(Uf.GO);
+        assertThat(CepUfRanges.ufOf(78899999)).isEqualTo(Uf.MT);
+        assertThat(CepUfRanges.ufOf(78900000)).isEqualTo(Uf.RO);
+    }
+
+    @Test
+    void unusedRangesAndInvalidCepsHaveNoState() {
+        assertThat(CepUfRanges.ufOf(0)).isNull();
+        assertThat(CepUfRanges.ufOf(999999)).isNull();
+        assertThat(CepUfRanges.ufOf(1000000)).isEqualTo(Uf.SP);
+        assertThat(CepUfRanges.ufOf(CepCodec.INVALID)).isNull();
+        assertThat(CepUfRanges.ufOf(100000000)).isNull();
+    }
+
+    @Test
+    void everyStateHasARange() {
+        Set<Uf> ufs = EnumSet.noneOf(Uf.class);
+        for (int prefix = 0; prefix < 1000; prefix++) {
+            Uf uf = CepUfRanges.ufOf(prefix * 100000);
+            if (uf != null) {
+                ufs.add(uf);
+            }
+        }
+
+        assertThat(ufs).containsExactlyInAnyOrder(Uf.values());
+    }
+}
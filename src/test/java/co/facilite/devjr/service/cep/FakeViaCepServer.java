@@ -0,0 +1,348 @@
+package co.facilite.devjr.service.cep;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.ViaCepResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for ViaCEP, serving {@link ViaCepResponse}-shaped JSON from a generated dataset, for tests
+ * and load tests that must not depend on the public service.
+ * <p>
+ * The dataset holds {@code datasetSize} CEPs, {@link #cep(int)} giving the i-th one; any other CEP
+ * answers {@code {"erro": true}}. Each answer is delayed by a sample of the {@link Latency} distribution,
+ * without holding a server thread, and can be replaced by a {@code 500} ({@code errorRate}), a truncated
+ * JSON body ({@code malformedRate}) or, above {@code throttlePerSecond}, a {@code 429}.
+ * <p>
+ * Run standalone with {@code ./gradlew fakeViaCep -PfakeViaCepArgs="--port=8089 --latency=lognormal:40:0.5"}.
+ */
+public class FakeViaCepServer implements AutoCloseable {
+
+    private static final int FIRST_CEP = 1000000;
+
+    private static final int CEP_STEP = 97;
+
+    private final HttpServer server;
+
+    private final ExecutorService handlers;
+
+    private final ScheduledExecutorService delays;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int datasetSize;
+
+    private final Latency latency;
+
+    private final double errorRate;
+
+    private final double malformedRate;
+
+    private final TokenBucket throttle;
+
+    private final SplittableRandom seed;
+
+    private final Map<Integer, LongAdder> responses = new ConcurrentHashMap<>();
+
+    private FakeViaCepServer(Builder builder) throws IOException {
+        this.datasetSize = builder.datasetSize;
+        this.latency = builder.latency;
+        this.errorRate = builder.errorRate;
+        this.malformedRate = builder.malformedRate;
+        this.throttle = builder.throttlePerSecond > 0 ? new TokenBucket(builder.throttlePerSecond, builder.throttleBurst, 0) : null;
+        this.seed = new SplittableRandom(builder.seed);
+        this.handlers = Executors.newFixedThreadPool(builder.threads, daemon("fake-viacep"));
+        this.delays = Executors.newSingleThreadScheduledExecutor(daemon("fake-viacep-delay"));
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", builder.port), 1024);
+        this.server.createContext("/ws/", this::handle);
+        this.server.setExecutor(handlers);
+        this.server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the i-th CEP of the generated dataset, as 8 digits.
+     */
+    public static String cep(int index) {
+        return CepCodec.format(FIRST_CEP + index * CEP_STEP);
+    }
+
+    /**
+     * @return the URL template to set as {@code application.cep.via-cep.url}.
+     */
+    public String url() {
+        return "http://127.0.0.1:" + port() + "/ws/{cep}/json/";
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the responses sent so far with this HTTP status.
+     */
+    public long responses(int status) {
+        LongAdder count = responses.get(status);
+        return count == null ? 0 : count.sum();
+    }
+
+    private void handle(HttpExchange exchange) {
+        SplittableRandom random;
+        synchronized (seed) {
+            random = seed.split();
+        }
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String cep = path.length > 2 ? path[2] : "";
+        int status;
+        byte[] body;
+        if (throttle != null && throttleRejects()) {
+            status = 429;
+            body = "Too Many Requests".getBytes(StandardCharsets.UTF_8);
+        } else if (random.nextDouble() < errorRate) {
+            status = 500;
+            body = "Internal Server Error".getBytes(StandardCharsets.UTF_8);
+        } else {
+            status = 200;
+            body = json(cep);
+            if (random.nextDouble() < malformedRate) {
+                body = Arrays.copyOf(body, body.length / 2);
+            }
+        }
+        long delay = latency.sampleMillis(random);
+        int answerStatus = status;
+        byte[] answerBody = body;
+        if (delay <= 0) {
+            send(exchange, answerStatus, answerBody);
+        } else {
+            delays.schedule(() -> handlers.execute(() -> send(exchange, answerStatus, answerBody)), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean throttleRejects() {
+        try {
+            return throttle.acquire(0) == TokenBucket.REJECTED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private byte[] json(String cep) {
+        int code = CepCodec.parse(cep);
+        int index = code - FIRST_CEP;
+        try {
+            if (code == CepCodec.INVALID || index < 0 || index % CEP_STEP != 0 || index / CEP_STEP >= datasetSize) {
+                return objectMapper.writeValueAsBytes(Map.of("erro", true));
+            }
+            return objectMapper.writeValueAsBytes(address(code, index / CEP_STEP));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> address(int cep, int index) {
+        Uf uf = Uf.values()[index % Uf.values().length];
+        return Map.of(
+            "cep",
+            CepCodec.formatHyphenated(cep),
+            "logradouro",
+            "Rua " + index,
+            "complemento",
+            index % 3 == 0 ? "lado par" : "",
+            "bairro",
+            "Bairro " + (index % 500),
+            "localidade",
+            "Cidade " + (index % 50),
+            "uf",
+            uf.name()
+        );
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) {
+        responses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", status == 200 ? "application/json; charset=utf-8" : "text/plain");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // The client gave up waiting, as it does on a response timeout.
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        delays.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Response delay distribution.
+     */
+    @FunctionalInterface
+    public interface Latency {
+        long sampleMillis(SplittableRandom random);
+
+        static Latency none() {
+            return random -> 0;
+        }
+
+        static Latency fixed(long millis) {
+            return random -> millis;
+        }
+
+        static Latency uniform(long minMillis, long maxMillis) {
+            return random -> random.nextLong(minMillis, maxMillis + 1);
+        }
+
+        /**
+         * Long-tailed, like most network services: half the answers take less than {@code medianMillis},
+         * and {@code sigma} sets how far the tail goes ({@code 0.5} puts the p99 at about 3.2 times the median).
+         */
+        static Latency logNormal(double medianMillis, double sigma) {
+            return random -> {
+                // Box-Muller transform of two uniform samples into a standard normal one.
+                double normal = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+                return Math.round(medianMillis * Math.exp(sigma * normal));
+            };
+        }
+
+        /**
+         * @param spec {@code none}, {@code fixed:<ms>}, {@code uniform:<min ms>:<max ms>} or {@code lognormal:<median ms>:<sigma>}.
+         */
+        static Latency parse(String spec) {
+            String[] parts = spec.split(":");
+            return switch (parts[0]) {
+                case "none" -> none();
+                case "fixed" -> fixed(Long.parseLong(parts[1]));
+                case "uniform" -> uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "lognormal" -> logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        }
+    }
+
+    public static class Builder {
+
+        private int port;
+
+        private int datasetSize = 10000;
+
+        private Latency latency = Latency.none();
+
+        private double errorRate;
+
+        private double malformedRate;
+
+        private double throttlePerSecond;
+
+        private int throttleBurst = 1;
+
+        private int threads = 16;
+
+        private long seed = 42;
+
+        /**
+         * @param port the port to listen on, {@code 0} for any free port.
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder datasetSize(int datasetSize) {
+            this.datasetSize = datasetSize;
+            return this;
+        }
+
+        public Builder latency(Latency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder malformedRate(double malformedRate) {
+            this.malformedRate = malformedRate;
+            return this;
+        }
+
+        /**
+         * Answers {@code 429} to the requests above {@code permitsPerSecond}, after a burst of {@code burst}.
+         */
+        public Builder throttle(double permitsPerSecond, int burst) {
+            this.throttlePerSecond = permitsPerSecond;
+            this.throttleBurst = burst;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public FakeViaCepServer start() throws IOException {
+            return new FakeViaCepServer(this);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Builder builder = builder().port(8089);
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            switch (option[0]) {
+                case "--port" -> builder.port(Integer.parseInt(option[1]));
+                case "--dataset-size" -> builder.datasetSize(Integer.parseInt(option[1]));
+                case "--latency" -> builder.latency(Latency.parse(option[1]));
+                case "--error-rate" -> builder.errorRate(Double.parseDouble(option[1]));
+                case "--malformed-rate" -> builder.malformedRate(Double.parseDouble(option[1]));
+                case "--throttle" -> {
+                    String[] throttle = option[1].split(":");
+                    builder.throttle(Double.parseDouble(throttle[0]), throttle.length > 1 ? Integer.parseInt(throttle[1]) : 1);
+                }
+                case "--threads" -> builder.threads(Integer.parseInt(option[1]));
+                case "--seed" -> builder.seed(Long.parseLong(option[1]));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        FakeViaCepServer server = builder.start();
+        System.out.println("Fake ViaCEP listening; start the application with APPLICATION_CEP_VIACEP_URL=" + server.url());
+        Thread.currentThread().join();
+    }
+}
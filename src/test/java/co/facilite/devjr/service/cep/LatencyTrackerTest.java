@@ -0,0 +1,46 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyTrackerTest {
+
+    @Test
+    void percentileWithoutSamplesIsUnknown() {
+        assertThat(new LatencyTracker(16).percentile(0.95)).isEqualTo(-1);
+    }
+
+    @Test
+    void percentileIsTakenFromTheRetainedSamples() {
+        LatencyTracker tracker = new LatencyTracker(100);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        assertThat(tracker.percentile(0.5)).isEqualTo(50);
+        assertThat(tracker.percentile(0.95)).isEqualTo(95);
+        assertThat(tracker.percentile(1)).isEqualTo(100);
+        assertThat(tracker.count()).isEqualTo(100);
+    }
+
+    @Test
+    void oldSamplesAreOverwritten() {
+        LatencyTracker tracker = new LatencyTracker(8);
+        for (int i = 0; i < 8; i++) {
+            tracker.record(1000);
+        }
+        assertThat(tracker.percentile(0.95)).isEqualTo(1000);
+
+        for (int i = 0; i < 8; i++) {
+            tracker.record(10);
+        }
+
+        assertThat(tracker.percentile(0.95)).isEqualTo(10);
+    }
+
+    @Test
+    void invalidCapacityIsRefused() {
+        assertThatThrownBy(() -> new LatencyTracker(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
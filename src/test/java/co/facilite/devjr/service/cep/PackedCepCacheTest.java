@@ -0,0 +1,96 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PackedCepCacheTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void putThenGetReturnsTheSameAddress() {
+        PackedCepCache cache = new PackedCepCache(10, 60, nanoTime::get);
+        cache.put(72006206, address("72006-206", "Rua 4A", null, "Vicente Pires", "Brasília", Uf.DF));
+        cache.put(1310100, address("01310-100", "Avenida Paulista", "", "Bela Vista", "São Paulo", Uf.SP));
+
+        AddressDTO result = cache.get(1310100);
+
+        assertThat(result.getCep()).isEqualTo("01310-100");
+        assertThat(result.getStreet()).isEqualTo("Avenida Paulista");
+        assertThat(result.getComplement()).isEmpty();
+        assertThat(result.getDistrict()).isEqualTo("Bela Vista");
+        assertThat(result.getCity()).isEqualTo("São Paulo");
+        assertThat(result.getUf()).isEqualTo(Uf.SP);
+        assertThat(cache.get(72006206).getComplement()).isNull();
+        assertThat(cache.get(99999999)).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        PackedCepCache cache = new PackedCepCache(10, 60, nanoTime::get);
+        cache.put(72006206, address("72006-206", "Rua 4A", null, null, "Brasília", Uf.DF));
+
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        assertThat(cache.get(72006206)).isNull();
+    }
+
+    @Test
+    void staysWithinMaxEntriesAndAgreesWithAMapUnderChurn() {
+        int maxEntries = 64;
+        PackedCepCache cache = new PackedCepCache(maxEntries, 60, nanoTime::get);
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int cep = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                cache.evict(cep);
+                expected.remove(cep);
+            } else {
+                String city = "City " + i;
+                cache.put(cep, address(null, null, null, null, city, Uf.SP));
+                expected.put(cep, city);
+            }
+            assertThat(cache.size()).isLessThanOrEqualTo(maxEntries);
+        }
+        // Evicted entries may be missing, but whatever is returned must be the latest value.
+        int found = 0;
+        for (int cep = 0; cep < 200; cep++) {
+            AddressDTO result = cache.get(cep);
+            if (result != null) {
+                assertThat(result.getCity()).isEqualTo(expected.get(cep));
+                found++;
+            }
+        }
+        assertThat(found).isEqualTo(cache.size());
+    }
+
+    @Test
+    void disabledCacheKeepsNothing() {
+        PackedCepCache cache = new PackedCepCache(0, 60, nanoTime::get);
+        cache.put(72006206, address("72006-206", "Rua 4A", null, null, "Brasília", Uf.DF));
+
+        assertThat(cache.get(72006206)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static AddressDTO address(String cep, String street, String complement, String district, String city, Uf uf) {
+        AddressDTO addressDTO = new AddressDTO();
+        addressDTO.setCep(cep);
+        addressDTO.setStreet(street);
+        addressDTO.setComplement(complement);
+        addressDTO.setDistrict(district);
+        addressDTO.setCity(city);
+        addressDTO.setUf(uf);
+        return addressDTO;
+    }
+}
@@ -0,0 +1,106 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForSameKeyShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitConcurrently(() ->
+            singleFlight.execute("72006206", () -> {
+                executions.incrementAndGet();
+                await(release);
+                return "Brasília";
+            })
+        );
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Brasília");
+        }
+        assertThat(executions).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void concurrentCallsForSameKeyShareTheSameFailure() throws Exception {
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitConcurrently(() ->
+            singleFlight.execute("72006206", () -> {
+                await(release);
+                throw failure;
+            })
+        );
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        }
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void sequentialCallsExecuteAgain() {
+        AtomicInteger executions = new AtomicInteger();
+
+        String first = singleFlight.execute("72006206", () -> String.valueOf(executions.incrementAndGet()));
+        String second = singleFlight.execute("72006206", () -> String.valueOf(executions.incrementAndGet()));
+
+        assertThat(first).isEqualTo("1");
+        assertThat(second).isEqualTo("2");
+    }
+
+    private List<Future<String>> submitConcurrently(Callable<String> call) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(
+                executor.submit(() -> {
+                    started.countDown();
+                    return call.call();
+                })
+            );
+        }
+        started.await(5, TimeUnit.SECONDS);
+        // Give late callers the chance to join the in-flight call before it is released
+        Thread.sleep(100);
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
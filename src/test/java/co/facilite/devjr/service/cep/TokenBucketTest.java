@@ -0,0 +1,141 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void burstIsServedWithoutWaiting() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 3, 0, clock::get);
+
+        assertThat(bucket.acquire(0)).isZero();
+        assertThat(bucket.acquire(0)).isZero();
+        assertThat(bucket.acquire(0)).isZero();
+        assertThat(bucket.acquire(0)).isEqualTo(TokenBucket.REJECTED);
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() throws Exception {
+        TokenBucket bucket = new TokenBucket(10, 1, 0, clock::get);
+        assertThat(bucket.acquire(0)).isZero();
+
+        clock.addAndGet(SECOND / 20);
+        assertThat(bucket.acquire(0)).isEqualTo(TokenBucket.REJECTED);
+        clock.addAndGet(SECOND / 20);
+        assertThat(bucket.acquire(0)).isZero();
+    }
+
+    @Test
+    void idleTimeDoesNotAccumulateMoreThanTheBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(10, 2, 0, clock::get);
+
+        clock.addAndGet(60 * SECOND);
+
+        assertThat(bucket.acquire(0)).isZero();
+        assertThat(bucket.acquire(0)).isZero();
+        assertThat(bucket.acquire(0)).isEqualTo(TokenBucket.REJECTED);
+    }
+
+    @Test
+    void callerWaitsForTheNextTokenWithinItsDeadline() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, 1, 1, clock::get);
+        bucket.acquire(0);
+
+        assertThat(bucket.acquire(SECOND)).isEqualTo(SECOND / 100);
+        assertThat(bucket.queued()).isZero();
+    }
+
+    @Test
+    void callerPastItsDeadlineIsRejectedWithoutReservingAToken() throws Exception {
+        TokenBucket bucket = new TokenBucket(10, 1, 10, clock::get);
+        bucket.acquire(0);
+
+        assertThat(bucket.acquire(SECOND / 20)).isEqualTo(TokenBucket.REJECTED);
+        assertThat(bucket.deadlineRejections()).isEqualTo(1);
+        clock.addAndGet(SECOND / 10);
+        assertThat(bucket.acquire(0)).isZero();
+    }
+
+    @Test
+    void callersBeyondTheQueueAreRejected() throws Exception {
+        TokenBucket bucket = new TokenBucket(2, 1, 1, clock::get);
+        bucket.acquire(0);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Long> waiting = executor.submit(() -> {
+            started.countDown();
+            return bucket.acquire(SECOND);
+        });
+        started.await();
+        while (bucket.queued() == 0 && !waiting.isDone()) {
+            Thread.onSpinWait();
+        }
+
+        assertThat(bucket.acquire(10 * SECOND)).isEqualTo(TokenBucket.REJECTED);
+        assertThat(bucket.queueFullRejections()).isEqualTo(1);
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void drainEmptiesTheBucket() throws Exception {
+        TokenBucket bucket = new TokenBucket(10, 5, 0, clock::get);
+
+        bucket.drain();
+
+        assertThat(bucket.acquire(0)).isEqualTo(TokenBucket.REJECTED);
+        clock.addAndGet(SECOND / 10);
+        assertThat(bucket.acquire(0)).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheRate() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 50, 0, clock::get);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(
+                executor.submit(() -> {
+                    int granted = 0;
+                    for (int call = 0; call < 1000; call++) {
+                        if (bucket.acquire(0) == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                })
+            );
+        }
+
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            granted += result.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(granted).isEqualTo(50);
+    }
+
+    @Test
+    void invalidSettingsAreRefused() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
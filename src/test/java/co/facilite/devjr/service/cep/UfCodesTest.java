@@ -0,0 +1,33 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import org.junit.jupiter.api.Test;
+
+class UfCodesTest {
+
+    @Test
+    void everyUfIsResolvedInEitherCase() {
+        for (Uf uf : Uf.values()) {
+            assertThat(UfCodes.parse(uf.name())).isEqualTo(uf);
+            assertThat(UfCodes.parse(uf.name().toLowerCase())).isEqualTo(uf);
+        }
+    }
+
+    @Test
+    void codeIsReadFromACharacterBuffer() {
+        char[] buffer = "{\"uf\":\"df\"}".toCharArray();
+
+        assertThat(UfCodes.parse(buffer, 7, 2)).isEqualTo(Uf.DF);
+    }
+
+    @Test
+    void unknownCodesAreNull() {
+        assertThat(UfCodes.parse("XX")).isNull();
+        assertThat(UfCodes.parse("S")).isNull();
+        assertThat(UfCodes.parse("SPA")).isNull();
+        assertThat(UfCodes.parse("S1")).isNull();
+        assertThat(UfCodes.parse((CharSequence) null)).isNull();
+    }
+}
@@ -0,0 +1,63 @@
+package co.facilite.devjr.service.cep;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.dto.AddressDTO;
+import com.fasterxml.jackson.core.JsonParseException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class ViaCepDecoderTest {
+
+    private static final String ANSWER =
+        "{\"cep\":\"72006-206\",\"logradouro\":\"Rua 4A Blocos 2 e 3\",\"complemento\":\"\",\"unidade\":\"\"," +
+        "\"bairro\":\"Setor Habitacional Vicente Pires\",\"localidade\":\"Brasília\",\"uf\":\"df\",\"estado\":\"Distrito Federal\"," +
+        "\"regiao\":\"Centro-Oeste\",\"ibge\":\"5300108\",\"gia\":\"\",\"ddd\":\"61\",\"siafi\":\"9701\"}";
+
+    @Test
+    void answerIsDecodedIntoAnAddress() throws IOException {
+        AddressDTO addressDTO = ViaCepDecoder.decode(body(ANSWER));
+
+        assertThat(addressDTO.getCep()).isEqualTo("72006-206");
+        assertThat(addressDTO.getStreet()).isEqualTo("Rua 4A Blocos 2 e 3");
+        assertThat(addressDTO.getComplement()).isEmpty();
+        assertThat(addressDTO.getDistrict()).isEqualTo("Setor Habitacional Vicente Pires");
+        assertThat(addressDTO.getCity()).isEqualTo("Brasília");
+        assertThat(addressDTO.getUf()).isEqualTo(Uf.DF);
+    }
+
+    @Test
+    void unknownFieldsAreSkippedWhateverTheirShape() throws IOException {
+        AddressDTO addressDTO = ViaCepDecoder.decode(
+            body("{\"extra\":{\"nested\":[1,{\"uf\":\"XX\"}]},\"cep\":\"01310-100\",\"list\":[\"a\"],\"uf\":\"SP\",\"n\":null}")
+        );
+
+        assertThat(addressDTO.getCep()).isEqualTo("01310-100");
+        assertThat(addressDTO.getUf()).isEqualTo(Uf.SP);
+    }
+
+    @Test
+    void erroAnswersAndEmptyBodiesAreNotFound() throws IOException {
+        assertThat(ViaCepDecoder.decode(body("{\"erro\":true}"))).isNull();
+        assertThat(ViaCepDecoder.decode(body("{\"erro\":\"true\"}"))).isNull();
+        assertThat(ViaCepDecoder.decode(body(""))).isNull();
+        assertThat(ViaCepDecoder.decode(body("{\"erro\":false,\"cep\":\"01310-100\"}"))).isNotNull();
+    }
+
+    @Test
+    void truncatedOrUnexpectedBodiesAreRefused() {
+        assertThatThrownBy(() -> ViaCepDecoder.decode(body(ANSWER.substring(0, ANSWER.length() / 2)))).isInstanceOf(
+            JsonParseException.class
+        );
+        assertThatThrownBy(() -> ViaCepDecoder.decode(body("[]"))).isInstanceOf(JsonParseException.class);
+        assertThatThrownBy(() -> ViaCepDecoder.decode(body("{\"uf\":\"XX\"}"))).isInstanceOf(JsonParseException.class);
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,6 +3,8 @@ package co.facilite.devjr.service.dto;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import co.facilite.devjr.web.rest.TestUtil;
+import java.math.BigDecimal;
+import java.time.Instant;
 import org.junit.jupiter.api.Test;
 
 class EmployeeDTOTest {
@@ -21,4 +23,23 @@ class EmployeeDTOTest {
         employeeDTO1.setId(null);
         assertThat(employeeDTO1).isNotEqualTo(employeeDTO2);
     }
+
+    @Test
+    void flatConstructorNestsTheAddressAndDepartment() {
+        Instant hireDate = Instant.parse("2024-03-01T12:00:00Z");
+        EmployeeDTO employeeDTO = new EmployeeDTO(1L, "Maria", "Silva", "maria@ex.com", null, hireDate, BigDecimal.TEN, true, 3L, 5L, "TI");
+
+        assertThat(employeeDTO.getHireDate()).isEqualTo(hireDate);
+        assertThat(employeeDTO.getAddress().getId()).isEqualTo(3L);
+        assertThat(employeeDTO.getDepartment().getId()).isEqualTo(5L);
+        assertThat(employeeDTO.getDepartment().getName()).isEqualTo("TI");
+    }
+
+    @Test
+    void flatConstructorLeavesMissingRelationshipsNull() {
+        EmployeeDTO employeeDTO = new EmployeeDTO(1L, "Maria", "Silva", "maria@example.com", null, null, null, true, null, null, null);
+
+        assertThat(employeeDTO.getAddress()).isNull();
+        assertThat(employeeDTO.getDepartment()).isNull();
+    }
 }
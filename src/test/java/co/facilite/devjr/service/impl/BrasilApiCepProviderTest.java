@@ -0,0 +1,84 @@
+package co.facilite.devjr.service.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.CepProviderChain;
+import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.BrasilApiCepResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class BrasilApiCepProviderTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private BrasilApiCepProvider brasilApiCepProvider;
+
+    @BeforeEach
+    void setUp() {
+        brasilApiCepProvider = new BrasilApiCepProvider(restTemplate, new ApplicationProperties());
+    }
+
+    /**
+     * TESTE 1: Resposta da BrasilAPI é convertida em AddressDTO com o CEP formatado
+     */
+    @Test
+    void fetch_KnownCep_MapsResponse() {
+        BrasilApiCepResponse response = new BrasilApiCepResponse();
+        response.setCep("01310100");
+        response.setState("SP");
+        response.setCity("São Paulo");
+        response.setNeighborhood("Bela Vista");
+        response.setStreet("Avenida Paulista");
+        when(restTemplate.getForObject(anyString(), eq(BrasilApiCepResponse.class), eq("01310100"))).thenReturn(response);
+
+        AddressDTO result = brasilApiCepProvider.fetch("01310100");
+
+        assertThat(result.getCep()).isEqualTo("01310-100");
+        assertThat(result.getStreet()).isEqualTo("Avenida Paulista");
+        assertThat(result.getComplement()).isEmpty();
+        assertThat(result.getDistrict()).isEqualTo("Bela Vista");
+        assertThat(result.getCity()).isEqualTo("São Paulo");
+        assertThat(result.getUf()).isEqualTo(Uf.SP);
+    }
+
+    /**
+     * TESTE 2: 404 da BrasilAPI significa CEP não encontrado
+     */
+    @Test
+    void fetch_UnknownCep_ReturnsNull() {
+        when(restTemplate.getForObject(anyString(), eq(BrasilApiCepResponse.class), anyString())).thenThrow(
+            HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)
+        );
+
+        assertThat(brasilApiCepProvider.fetch("99999999")).isNull();
+    }
+
+    /**
+     * TESTE 3: UF desconhecida é tratada como erro de decodificação
+     */
+    @Test
+    void fetch_UnknownUf_IsDecodeError() {
+        BrasilApiCepResponse response = new BrasilApiCepResponse();
+        response.setCep("01310100");
+        response.setState("XX");
+        when(restTemplate.getForObject(anyString(), eq(BrasilApiCepResponse.class), anyString())).thenReturn(response);
+
+        assertThatThrownBy(() -> brasilApiCepProvider.fetch("01310100"))
+            .isInstanceOfSatisfying(RestClientException.class, e ->
+                assertThat(CepProviderChain.upstreamOutcome(e)).isEqualTo(CepProviderChain.UPSTREAM_DECODE_ERROR)
+            );
+    }
+}
@@ -3,16 +3,41 @@ package co.facilite.devjr.service.impl;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import co.facilite.devjr.config.ApplicationProperties;
 import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.CepLookupService;
+import co.facilite.devjr.service.CepProvider;
+import co.facilite.devjr.service.CepProviderChain;
+import co.facilite.devjr.service.CepSharedCacheService;
+import co.facilite.devjr.service.CepSnapshotService;
+import co.facilite.devjr.service.cep.CepDataset;
 import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.PartialAddressDTO;
 import co.facilite.devjr.service.dto.ViaCepResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
@@ -23,13 +48,23 @@ class CepLookupServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
     private CepLookupServiceImpl cepLookupService;
 
     private ViaCepResponse validViaCepResponse;
 
+    private ConcurrentMapCacheManager cacheManager;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        meterRegistry = new SimpleMeterRegistry();
+        cepLookupService = newCepLookupService(Optional.empty());
+
         validViaCepResponse = new ViaCepResponse();
         validViaCepResponse.setCep("72006-206");
         validViaCepResponse.setLogradouro("Rua Rua 4A Blocos 2 e 3 Travessa 3");
@@ -84,9 +119,9 @@ class CepLookupServiceImplTest {
     @Test
     void lookup_ValidCep_ReturnsAddressDTO() {
         String cep = "72006206";
-        String url = "https://viacep.com.br/ws/72006206/json/";
+        String url = "https://viacep.com.br/ws/{cep}/json/";
 
-        when(restTemplate.getForObject(url, ViaCepResponse.class)).thenReturn(validViaCepResponse);
+        when(restTemplate.getForObject(url, ViaCepResponse.class, cep)).thenReturn(validViaCepResponse);
 
         AddressDTO result = cepLookupService.lookup(cep);
 
@@ -97,7 +132,7 @@ class CepLookupServiceImplTest {
         assertThat(result.getCity()).isEqualTo("Brasília");
         assertThat(result.getUf()).isEqualTo(Uf.DF);
 
-        verify(restTemplate).getForObject(url, ViaCepResponse.class);
+        verify(restTemplate).getForObject(url, ViaCepResponse.class, cep);
     }
 
     /**
@@ -109,14 +144,14 @@ class CepLookupServiceImplTest {
         ViaCepResponse errorResponse = new ViaCepResponse();
         errorResponse.setErro(true);
 
-        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class))).thenReturn(errorResponse);
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(errorResponse);
 
         assertThatThrownBy(() -> cepLookupService.lookup(cep))
             .isInstanceOf(ResponseStatusException.class)
             .extracting("status")
             .isEqualTo(HttpStatus.NOT_FOUND);
 
-        verify(restTemplate).getForObject(anyString(), eq(ViaCepResponse.class));
+        verify(restTemplate).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
     }
 
     /**
@@ -126,7 +161,7 @@ class CepLookupServiceImplTest {
     void lookup_NullResponse_ThrowsNotFoundException() {
         String cep = "99999999";
 
-        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class))).thenReturn(null);
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(null);
 
         assertThatThrownBy(() -> cepLookupService.lookup(cep))
             .isInstanceOf(ResponseStatusException.class)
@@ -141,7 +176,7 @@ class CepLookupServiceImplTest {
     void lookup_RestClientException_ThrowsBadGateway() {
         String cep = "72006206";
 
-        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class))).thenThrow(new RestClientException("Connection timeout"));
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenThrow(new RestClientException("Connection timeout"));
 
         assertThatThrownBy(() -> cepLookupService.lookup(cep))
             .isInstanceOf(ResponseStatusException.class)
@@ -162,11 +197,540 @@ class CepLookupServiceImplTest {
         rjResponse.setUf("DF");
         rjResponse.setErro(false);
 
-        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class))).thenReturn(rjResponse);
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(rjResponse);
 
         AddressDTO result = cepLookupService.lookup("72006206");
 
         assertThat(result.getUf()).isEqualTo(Uf.DF);
         assertThat(result.getCity()).isEqualTo("Brasília");
     }
+
+    /**
+     * TESTE 9: Segunda consulta do mesmo CEP é respondida pelo cache
+     */
+    @Test
+    void lookup_SameCepTwice_CallsViaCepOnce() {
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+
+        AddressDTO first = cepLookupService.lookup("72006206");
+        AddressDTO second = cepLookupService.lookup("72006206");
+
+        assertThat(second).isSameAs(first);
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
+    }
+
+    /**
+     * TESTE 10: CEP não encontrado também é mantido em cache
+     */
+    @Test
+    void lookup_CepNotFoundTwice_CallsViaCepOnce() {
+        ViaCepResponse errorResponse = new ViaCepResponse();
+        errorResponse.setErro(true);
+
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(errorResponse);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> cepLookupService.lookup("99999999"))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting("status")
+                .isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
+    }
+
+    /**
+     * TESTE 11: Falha na comunicação não é mantida em cache
+     */
+    @Test
+    void lookup_RestClientException_IsNotCached() {
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString()))
+            .thenThrow(new RestClientException("Connection timeout"))
+            .thenReturn(validViaCepResponse);
+
+        assertThatThrownBy(() -> cepLookupService.lookup("72006206")).isInstanceOf(ResponseStatusException.class);
+        assertThat(cepLookupService.lookup("72006206").getUf()).isEqualTo(Uf.DF);
+    }
+
+    /**
+     * TESTE 12: CEP presente no dataset offline não consulta o ViaCEP
+     */
+    @Test
+    void lookup_CepInOfflineDataset_DoesNotCallViaCep() {
+        CepDataset cepDataset = mock(CepDataset.class);
+        AddressDTO offline = new AddressDTO();
+        offline.setCep("72006-206");
+        offline.setUf(Uf.DF);
+        when(cepDataset.find(72006206)).thenReturn(Optional.of(offline));
+        cepLookupService = newCepLookupService(Optional.of(cepDataset));
+
+        assertThat(cepLookupService.lookup("72006206")).isSameAs(offline);
+        verifyNoInteractions(restTemplate);
+    }
+
+    /**
+     * TESTE 13: CEP ausente do dataset offline é consultado no ViaCEP
+     */
+    @Test
+    void lookup_CepMissingFromOfflineDataset_CallsViaCep() {
+        CepDataset cepDataset = mock(CepDataset.class);
+        when(cepDataset.find(72006206)).thenReturn(Optional.empty());
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+        cepLookupService = newCepLookupService(Optional.of(cepDataset));
+
+        assertThat(cepLookupService.lookup("72006206").getCity()).isEqualTo("Brasília");
+    }
+
+    /**
+     * TESTE 14: Circuito aberto devolve o último endereço conhecido, mesmo expirado
+     */
+    @Test
+    void lookup_CircuitOpen_ReturnsLastKnownGoodAddress() {
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+        AddressDTO resolved = cepLookupService.lookup("72006206");
+        expireCepCache();
+        viaCepCircuitBreaker().transitionToOpenState();
+
+        assertThat(cepLookupService.lookup("72006206")).isSameAs(resolved);
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
+        assertThat(fallbacks("stale")).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 15: Circuito aberto sem endereço conhecido falha rapidamente com 502
+     */
+    @Test
+    void lookup_CircuitOpenWithoutLastKnownGood_ThrowsBadGateway() {
+        viaCepCircuitBreaker().transitionToOpenState();
+
+        assertThatThrownBy(() -> cepLookupService.lookup("72006206"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.BAD_GATEWAY);
+        verifyNoInteractions(restTemplate);
+        assertThat(fallbacks("unavailable")).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 16: Endereço servido do último conhecido é atualizado quando o circuito fecha
+     */
+    @Test
+    void lookup_CircuitCloses_RefreshesStaleAddressInBackground() {
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+        cepLookupService.lookup("72006206");
+        expireCepCache();
+        viaCepCircuitBreaker().transitionToOpenState();
+        cepLookupService.lookup("72006206");
+
+        viaCepCircuitBreaker().transitionToHalfOpenState();
+        viaCepCircuitBreaker().transitionToClosedState();
+
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
+        assertThat(cacheManager.getCache(CepLookupService.CEP_CACHE).get("72006206")).isNotNull();
+    }
+
+    /**
+     * TESTE 17: Lookup assíncrono de CEP em cache completa sem usar o executor
+     */
+    @Test
+    void lookupAsync_CachedCep_CompletesOnCallingThread() {
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+        cepLookupService.lookup("72006206");
+        Executor rejecting = command -> {
+            throw new RejectedExecutionException();
+        };
+        CepLookupServiceImpl asyncService = newCepLookupService(new ApplicationProperties(), rejecting);
+
+        CompletableFuture<AddressDTO> result = asyncService.lookupAsync("72006206");
+
+        assertThat(result).isCompleted();
+        assertThat(result.join().getCity()).isEqualTo("Brasília");
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
+    }
+
+    /**
+     * TESTE 18: Lookup assíncrono com executor cheio retorna 503
+     */
+    @Test
+    void lookupAsync_ExecutorFull_ReturnsServiceUnavailable() {
+        Executor rejecting = command -> {
+            throw new RejectedExecutionException();
+        };
+        CepLookupServiceImpl asyncService = newCepLookupService(new ApplicationProperties(), rejecting);
+
+        assertThatThrownBy(() -> asyncService.lookupAsync("72006206").join())
+            .isInstanceOf(CompletionException.class)
+            .cause()
+            .extracting("status")
+            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verifyNoInteractions(restTemplate);
+    }
+
+    /**
+     * TESTE 19: Lookup assíncrono que excede o timeout retorna 504
+     */
+    @Test
+    void lookupAsync_Timeout_ReturnsGatewayTimeout() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getExecutor().setTimeout(Duration.ofMillis(50));
+        Executor neverRuns = command -> {};
+        CepLookupServiceImpl asyncService = newCepLookupService(applicationProperties, neverRuns);
+
+        assertThatThrownBy(() -> asyncService.lookupAsync("72006206").join())
+            .isInstanceOf(CompletionException.class)
+            .cause()
+            .extracting("status")
+            .isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    /**
+     * TESTE 20: Tabela compacta habilitada atende o CEP sem consultar o cache nem o ViaCEP
+     */
+    @Test
+    void lookup_PackedCacheEnabled_ServesFromPackedTable() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getCache().setPackedMaxEntries(100);
+        CepLookupServiceImpl packedService = newCepLookupService(applicationProperties, Runnable::run);
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+        packedService.lookup("72006206");
+        expireCepCache();
+
+        AddressDTO result = packedService.lookup("72006206");
+
+        assertThat(result.getCep()).isEqualTo("72006-206");
+        assertThat(result.getCity()).isEqualTo("Brasília");
+        assertThat(result.getUf()).isEqualTo(Uf.DF);
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
+    }
+
+    /**
+     * TESTE 21: CEPs resolvidos e não encontrados são registrados no snapshot
+     */
+    @Test
+    void lookup_SnapshotEnabled_RecordsResolvedAndNotFoundCeps() {
+        CepSnapshotService cepSnapshotService = mock(CepSnapshotService.class);
+        CepLookupServiceImpl snapshotService = new CepLookupServiceImpl(
+            providerChain(new ApplicationProperties()),
+            cacheManager,
+            Optional.empty(),
+            Optional.of(cepSnapshotService),
+            Optional.empty(),
+            new ApplicationProperties(),
+            meterRegistry,
+            Runnable::run,
+            Runnable::run
+        );
+        ViaCepResponse notFound = new ViaCepResponse();
+        notFound.setErro(true);
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), eq("72006206"))).thenReturn(validViaCepResponse);
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), eq("99999999"))).thenReturn(notFound);
+
+        AddressDTO result = snapshotService.lookup("72006206");
+        assertThatThrownBy(() -> snapshotService.lookup("99999999")).isInstanceOf(ResponseStatusException.class);
+
+        verify(cepSnapshotService).record("72006206", result);
+        verify(cepSnapshotService).record("99999999", null);
+    }
+
+    /**
+     * TESTE 22: CEP presente na tabela compartilhada é servido sem chamar o ViaCEP
+     */
+    @Test
+    void lookup_SharedCacheHit_SkipsViaCep() {
+        CepSharedCacheService cepSharedCacheService = mock(CepSharedCacheService.class);
+        AddressDTO shared = new AddressDTO();
+        shared.setCep("72006-206");
+        shared.setCity("Brasília");
+        when(cepSharedCacheService.find("72006206")).thenReturn(Optional.of(shared));
+        CepLookupServiceImpl sharedService = newCepLookupService(cepSharedCacheService);
+
+        assertThat(sharedService.lookup("72006206")).isSameAs(shared);
+        assertThat(cacheManager.getCache(CepLookupService.CEP_CACHE).get("72006206", AddressDTO.class)).isSameAs(shared);
+        verifyNoInteractions(restTemplate);
+        verify(cepSharedCacheService, never()).save(anyString(), any());
+    }
+
+    /**
+     * TESTE 23: CEP resolvido no ViaCEP é gravado na tabela compartilhada
+     */
+    @Test
+    void lookup_SharedCacheMiss_SavesResolvedAddress() {
+        CepSharedCacheService cepSharedCacheService = mock(CepSharedCacheService.class);
+        when(cepSharedCacheService.find("72006206")).thenReturn(Optional.empty());
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+        CepLookupServiceImpl sharedService = newCepLookupService(cepSharedCacheService);
+
+        AddressDTO result = sharedService.lookup("72006206");
+
+        verify(cepSharedCacheService).save("72006206", result);
+    }
+
+    /**
+     * TESTE 24: Limite de taxa esgotado rejeita a chamada ao ViaCEP com 503 sem enfileirá-la além do prazo
+     */
+    @Test
+    void lookup_RateLimitExhausted_ReturnsServiceUnavailable() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getRateLimit().setPermitsPerSecond(0.1);
+        applicationProperties.getCep().getRateLimit().setBurst(1);
+        applicationProperties.getCep().getRateLimit().setMaxWait(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+        CepLookupServiceImpl limitedService = newCepLookupService(applicationProperties, Runnable::run);
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+        limitedService.lookup("72006206");
+
+        assertThatThrownBy(() -> limitedService.lookup("01310100"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
+        assertThat(
+            meterRegistry.get(CepProviderChain.RATE_LIMIT_REJECTED_METER_NAME).tag("reason", "deadline").functionCounter().count()
+        ).isEqualTo(1);
+        assertThat(fallbacks("unavailable")).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 25: Resposta 429 do ViaCEP esvazia o balde, e a chamada seguinte serve o último endereço conhecido
+     */
+    @Test
+    void lookup_ViaCepThrottles_DrainsBucketAndServesLastKnownGood() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getRateLimit().setPermitsPerSecond(1);
+        applicationProperties.getCep().getRateLimit().setMaxWait(Duration.ofMillis(100));
+        CepLookupServiceImpl limitedService = newCepLookupService(applicationProperties, Runnable::run);
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString()))
+            .thenReturn(validViaCepResponse)
+            .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+        limitedService.lookup("72006206");
+        expireCepCache();
+
+        assertThatThrownBy(() -> limitedService.lookup("01310100"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.BAD_GATEWAY);
+        AddressDTO result = limitedService.lookup("72006206");
+
+        assertThat(result.getCity()).isEqualTo("Brasília");
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(ViaCepResponse.class), anyString());
+        assertThat(fallbacks("stale")).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 26: CEPs inválidos são contados por motivo
+     */
+    @Test
+    void normalizeCep_Failures_AreCountedByReason() {
+        assertThatThrownBy(() -> cepLookupService.normalizeCep(null)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> cepLookupService.normalizeCep("123")).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> cepLookupService.normalizeCep("abc")).isInstanceOf(ResponseStatusException.class);
+
+        assertThat(normalizationFailures("missing")).isEqualTo(1);
+        assertThat(normalizationFailures("invalid")).isEqualTo(2);
+    }
+
+    /**
+     * TESTE 27: Acertos e falhas de cache são contados por camada, e a chamada ao ViaCEP é cronometrada
+     */
+    @Test
+    void lookup_CacheGetsAndUpstreamCalls_AreMetered() {
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+
+        cepLookupService.lookup("72006206");
+        cepLookupService.lookup("72006206");
+
+        assertThat(cacheGets(CepLookupService.CEP_CACHE, "miss")).isEqualTo(1);
+        assertThat(cacheGets(CepLookupService.CEP_CACHE, "hit")).isEqualTo(1);
+        assertThat(cacheGets(CepLookupService.CEP_NOT_FOUND_CACHE, "miss")).isEqualTo(1);
+        assertThat(meterRegistry.find(CepLookupServiceImpl.CACHE_GETS_METER_NAME).tag("cache", "packed").counters()).allSatisfy(counter ->
+            assertThat(counter.count()).isZero()
+        );
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_SUCCESS)).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 28: Falhas do ViaCEP são classificadas por tipo
+     */
+    @Test
+    void upstreamOutcome_ClassifiesFailures() {
+        RestClientException timeout = new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"));
+        RestClientException refused = new ResourceAccessException("I/O error", new ConnectException("Connection refused"));
+        RestClientException malformed = new RestClientException(
+            "Error while extracting response",
+            new HttpMessageNotReadableException("JSON parse error", (HttpInputMessage) null)
+        );
+        RestClientException throttled = HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null);
+        RestClientException badGateway = HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null);
+
+        assertThat(CepProviderChain.upstreamOutcome(timeout)).isEqualTo(CepProviderChain.UPSTREAM_TIMEOUT);
+        assertThat(CepProviderChain.upstreamOutcome(refused)).isEqualTo(CepProviderChain.UPSTREAM_CONNECTION_ERROR);
+        assertThat(CepProviderChain.upstreamOutcome(malformed)).isEqualTo(CepProviderChain.UPSTREAM_DECODE_ERROR);
+        assertThat(CepProviderChain.upstreamOutcome(throttled)).isEqualTo(CepProviderChain.UPSTREAM_THROTTLED);
+        assertThat(CepProviderChain.upstreamOutcome(badGateway)).isEqualTo(CepProviderChain.UPSTREAM_SERVER_ERROR);
+        assertThat(CepProviderChain.upstreamOutcome(new RestClientException("Connection timeout"))).isEqualTo(
+            CepProviderChain.UPSTREAM_ERROR
+        );
+    }
+
+    /**
+     * TESTE 29: UF desconhecida na resposta do ViaCEP é tratada como erro de decodificação
+     */
+    @Test
+    void lookup_UnknownUf_IsDecodeError() {
+        validViaCepResponse.setUf("XX");
+        when(restTemplate.getForObject(anyString(), eq(ViaCepResponse.class), anyString())).thenReturn(validViaCepResponse);
+
+        assertThatThrownBy(() -> cepLookupService.lookup("72006206"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_DECODE_ERROR)).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 30: CEP fora das faixas de todas as UFs retorna 404 sem consultar o ViaCEP
+     */
+    @Test
+    void lookup_CepOutOfUfRanges_ThrowsNotFoundWithoutCallingViaCep() {
+        assertThatThrownBy(() -> cepLookupService.lookup("00999999"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThatThrownBy(() -> cepLookupService.lookupAsync("00000000").join())
+            .isInstanceOf(CompletionException.class)
+            .cause()
+            .extracting("status")
+            .isEqualTo(HttpStatus.NOT_FOUND);
+        verifyNoInteractions(restTemplate);
+        assertThat(normalizationFailures("out-of-range")).isEqualTo(2);
+    }
+
+    /**
+     * TESTE 31: Circuito aberto sem endereço conhecido retorna endereço parcial com a UF da faixa do CEP
+     */
+    @Test
+    void lookup_CircuitOpenWithPartialFallback_ReturnsCepAndUf() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getFallback().setPartial(true);
+        CepLookupServiceImpl partialService = newCepLookupService(applicationProperties, Runnable::run);
+        viaCepCircuitBreaker().transitionToOpenState();
+
+        AddressDTO result = partialService.lookup("72006206");
+
+        assertThat(result).isInstanceOf(PartialAddressDTO.class);
+        assertThat(result.getCep()).isEqualTo("72006-206");
+        assertThat(result.getUf()).isEqualTo(Uf.DF);
+        assertThat(result.getCity()).isNull();
+        assertThat(cacheManager.getCache(CepLookupService.CEP_CACHE).get("72006206")).isNull();
+        assertThat(fallbacks("partial")).isEqualTo(1);
+        verifyNoInteractions(restTemplate);
+    }
+
+    /**
+     * TESTE 32: Lookup assíncrono que excede o timeout retorna endereço parcial
+     */
+    @Test
+    void lookupAsync_TimeoutWithPartialFallback_ReturnsCepAndUf() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getExecutor().setTimeout(Duration.ofMillis(50));
+        applicationProperties.getCep().getFallback().setPartial(true);
+        Executor neverRuns = command -> {};
+        CepLookupServiceImpl asyncService = newCepLookupService(applicationProperties, neverRuns);
+
+        AddressDTO result = asyncService.lookupAsync("01310100").join();
+
+        assertThat(result).isInstanceOf(PartialAddressDTO.class);
+        assertThat(result.getCep()).isEqualTo("01310-100");
+        assertThat(result.getUf()).isEqualTo(Uf.SP);
+    }
+
+    /**
+     * TESTE 33: Lookup assíncrono com executor cheio retorna endereço parcial
+     */
+    @Test
+    void lookupAsync_ExecutorFullWithPartialFallback_ReturnsCepAndUf() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getFallback().setPartial(true);
+        Executor rejecting = command -> {
+            throw new RejectedExecutionException();
+        };
+        CepLookupServiceImpl asyncService = newCepLookupService(applicationProperties, rejecting);
+
+        AddressDTO result = asyncService.lookupAsync("20040020").join();
+
+        assertThat(result).isInstanceOf(PartialAddressDTO.class);
+        assertThat(result.getUf()).isEqualTo(Uf.RJ);
+        verifyNoInteractions(restTemplate);
+    }
+
+    private CepLookupServiceImpl newCepLookupService(Optional<CepDataset> cepDataset) {
+        return new CepLookupServiceImpl(
+            providerChain(new ApplicationProperties()),
+            cacheManager,
+            cepDataset,
+            Optional.empty(),
+            Optional.empty(),
+            new ApplicationProperties(),
+            meterRegistry,
+            Runnable::run,
+            Runnable::run
+        );
+    }
+
+    private CepLookupServiceImpl newCepLookupService(CepSharedCacheService cepSharedCacheService) {
+        return new CepLookupServiceImpl(
+            providerChain(new ApplicationProperties()),
+            cacheManager,
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(cepSharedCacheService),
+            new ApplicationProperties(),
+            meterRegistry,
+            Runnable::run,
+            Runnable::run
+        );
+    }
+
+    private CepLookupServiceImpl newCepLookupService(ApplicationProperties applicationProperties, Executor cepLookupExecutor) {
+        return new CepLookupServiceImpl(
+            providerChain(applicationProperties),
+            cacheManager,
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            applicationProperties,
+            meterRegistry,
+            Runnable::run,
+            cepLookupExecutor
+        );
+    }
+
+    private CepProviderChain providerChain(ApplicationProperties applicationProperties) {
+        List<CepProvider> providers = List.of(new ViaCepProvider(restTemplate, applicationProperties));
+        return new CepProviderChain(providers, applicationProperties, circuitBreakerRegistry, meterRegistry, Runnable::run);
+    }
+
+    private CircuitBreaker viaCepCircuitBreaker() {
+        return circuitBreakerRegistry.circuitBreaker(ViaCepProvider.NAME);
+    }
+
+    private void expireCepCache() {
+        cacheManager.getCache(CepLookupService.CEP_CACHE).clear();
+    }
+
+    private double fallbacks(String outcome) {
+        return meterRegistry.get(CepLookupServiceImpl.FALLBACK_METER_NAME).tag("outcome", outcome).counter().count();
+    }
+
+    private double normalizationFailures(String reason) {
+        return meterRegistry.get(CepLookupServiceImpl.NORMALIZATION_FAILURES_METER_NAME).tag("reason", reason).counter().count();
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get(CepLookupServiceImpl.CACHE_GETS_METER_NAME).tag("cache", cache).tag("result", result).counter().count();
+    }
+
+    private long upstreamCalls(String outcome) {
+        return meterRegistry.get(CepProviderChain.UPSTREAM_METER_NAME).tag("outcome", outcome).timer().count();
+    }
 }
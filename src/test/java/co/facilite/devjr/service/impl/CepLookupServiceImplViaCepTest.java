@@ -0,0 +1,189 @@
+package co.facilite.devjr.service.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.config.WebConfig;
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.CepProviderChain;
+import co.facilite.devjr.service.cep.CepCodec;
+import co.facilite.devjr.service.cep.FakeViaCepServer;
+import co.facilite.devjr.service.dto.AddressDTO;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Testes do CepLookupServiceImpl com o cliente HTTP real contra o {@link FakeViaCepServer}.
+ */
+class CepLookupServiceImplViaCepTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private FakeViaCepServer fakeViaCep;
+
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties.getCep().getHttp().setResponseTimeout(Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        if (fakeViaCep != null) {
+            fakeViaCep.close();
+        }
+    }
+
+    /**
+     * TESTE 1: CEP do conjunto gerado é resolvido, e CEP desconhecido retorna 404
+     */
+    @Test
+    void lookup_GeneratedDataset_ResolvesKnownCeps() throws IOException {
+        CepLookupServiceImpl cepLookupService = newCepLookupService(FakeViaCepServer.builder());
+
+        AddressDTO result = cepLookupService.lookup(FakeViaCepServer.cep(30));
+
+        assertThat(result.getStreet()).isEqualTo("Rua 30");
+        assertThat(result.getUf()).isEqualTo(Uf.values()[30 % Uf.values().length]);
+        assertThatThrownBy(() -> cepLookupService.lookup("99999999"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_SUCCESS)).isEqualTo(1);
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_NOT_FOUND)).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 2: Resposta mais lenta que o timeout é contada como timeout
+     */
+    @Test
+    void lookup_SlowViaCep_IsTimeout() throws IOException {
+        CepLookupServiceImpl cepLookupService = newCepLookupService(FakeViaCepServer.builder().latency(FakeViaCepServer.Latency.fixed(1000)));
+
+        assertThatThrownBy(() -> cepLookupService.lookup(FakeViaCepServer.cep(1)))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_TIMEOUT)).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 3: JSON truncado é contado como erro de decodificação, e erro 500 como erro do servidor
+     */
+    @Test
+    void lookup_FaultyViaCep_IsClassified() throws IOException {
+        CepLookupServiceImpl malformed = newCepLookupService(FakeViaCepServer.builder().malformedRate(1));
+        assertThatThrownBy(() -> malformed.lookup(FakeViaCepServer.cep(1))).isInstanceOf(ResponseStatusException.class);
+        tearDown();
+
+        CepLookupServiceImpl failing = newCepLookupService(FakeViaCepServer.builder().errorRate(1));
+        assertThatThrownBy(() -> failing.lookup(FakeViaCepServer.cep(2))).isInstanceOf(ResponseStatusException.class);
+
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_DECODE_ERROR)).isEqualTo(1);
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_SERVER_ERROR)).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 4: ViaCEP limitando a taxa responde 429, e as chamadas seguintes esperam no limitador local
+     */
+    @Test
+    void lookup_ThrottlingViaCep_DrainsLocalBucket() throws IOException {
+        applicationProperties.getCep().getRateLimit().setMaxWait(Duration.ZERO);
+        CepLookupServiceImpl cepLookupService = newCepLookupService(FakeViaCepServer.builder().throttle(0.1, 1));
+        cepLookupService.lookup(FakeViaCepServer.cep(1));
+
+        assertThatThrownBy(() -> cepLookupService.lookup(FakeViaCepServer.cep(2))).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> cepLookupService.lookup(FakeViaCepServer.cep(3)))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_THROTTLED)).isEqualTo(1);
+        assertThat(fakeViaCep.responses(429)).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 5: Decodificação em streaming resolve o CEP gerado, e CEP desconhecido retorna 404
+     */
+    @Test
+    void lookup_StreamingDecode_ResolvesKnownCeps() throws IOException {
+        applicationProperties.getCep().getViaCep().setStreamingDecode(true);
+        CepLookupServiceImpl cepLookupService = newCepLookupService(FakeViaCepServer.builder());
+
+        AddressDTO result = cepLookupService.lookup(FakeViaCepServer.cep(30));
+
+        assertThat(result.getCep()).isEqualTo(CepCodec.formatHyphenated(CepCodec.parse(FakeViaCepServer.cep(30))));
+        assertThat(result.getStreet()).isEqualTo("Rua 30");
+        assertThat(result.getComplement()).isEqualTo("lado par");
+        assertThat(result.getUf()).isEqualTo(Uf.values()[30 % Uf.values().length]);
+        assertThatThrownBy(() -> cepLookupService.lookup("99999999"))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_SUCCESS)).isEqualTo(1);
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_NOT_FOUND)).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 6: JSON truncado na decodificação em streaming é contado como erro de decodificação
+     */
+    @Test
+    void lookup_StreamingDecodeOfTruncatedJson_IsDecodeError() throws IOException {
+        applicationProperties.getCep().getViaCep().setStreamingDecode(true);
+        CepLookupServiceImpl cepLookupService = newCepLookupService(FakeViaCepServer.builder().malformedRate(1));
+
+        assertThatThrownBy(() -> cepLookupService.lookup(FakeViaCepServer.cep(1)))
+            .isInstanceOf(ResponseStatusException.class)
+            .extracting("status")
+            .isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(upstreamCalls(CepProviderChain.UPSTREAM_DECODE_ERROR)).isEqualTo(1);
+    }
+
+    private CepLookupServiceImpl newCepLookupService(FakeViaCepServer.Builder fakeViaCepBuilder) throws IOException {
+        fakeViaCep = fakeViaCepBuilder.start();
+        applicationProperties.getCep().getViaCep().setUrl(fakeViaCep.url());
+        httpClient = new WebConfig().cepHttpClient(applicationProperties, meterRegistry);
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        CepProviderChain cepProviderChain = new CepProviderChain(
+            List.of(new ViaCepProvider(restTemplate, applicationProperties)),
+            applicationProperties,
+            CircuitBreakerRegistry.ofDefaults(),
+            meterRegistry,
+            Runnable::run
+        );
+        return new CepLookupServiceImpl(
+            cepProviderChain,
+            new ConcurrentMapCacheManager(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            applicationProperties,
+            meterRegistry,
+            Runnable::run,
+            Runnable::run
+        );
+    }
+
+    private long upstreamCalls(String outcome) {
+        return meterRegistry.get(CepProviderChain.UPSTREAM_METER_NAME).tag("outcome", outcome).timer().count();
+    }
+}
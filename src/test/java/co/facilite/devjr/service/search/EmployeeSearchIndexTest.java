@@ -0,0 +1,133 @@
+package co.facilite.devjr.service.search;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EmployeeSearchIndexTest {
+
+    private EmployeeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EmployeeSearchIndex();
+        index.add(new EmployeeSearchEntry(1, "João", "Silva", "joao.silva@example.com", "(11) 98765-4321", "Financeiro", "São Paulo"));
+        index.add(new EmployeeSearchEntry(2, "Maria", "Souza", "maria.souza@example.com", null, "Engenharia", "Campinas"));
+        index.add(new EmployeeSearchEntry(3, "Mariana", "Costa", "mari@example.com", "(21) 3333-4444", null, null));
+        index.add(new EmployeeSearchEntry(4, "Pedro", "Silveira", "pedro@example.com", null, "Engenharia", "São Paulo"));
+        index.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void findsWholeWordsIgnoringCaseAndAccents() {
+        assertThat(index.search("JOAO", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("sao paulo", 0, 10).getIds()).containsExactlyInAnyOrder(1L, 4L);
+    }
+
+    @Test
+    void completesPrefixes() {
+        assertThat(index.search("mar", 0, 10).getIds()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("engenharia silv", 0, 10).getIds()).containsExactly(4L);
+    }
+
+    @Test
+    void toleratesTyposWhenNothingMatchesAsTyped() {
+        assertThat(index.search("sauza", 0, 10).getIds()).containsExactly(2L);
+        assertThat(index.search("finaceiro", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("joao sivla", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("mariana", 0, 10).getIds()).containsExactly(3L);
+    }
+
+    @Test
+    void completesOnlyTheLastWord() {
+        assertThat(index.search("silv joao", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("joao silv", 0, 10).getIds()).containsExactly(1L);
+    }
+
+    @Test
+    void ranksExactMatchesFirst() {
+        EmployeeSearchIndex.Hits hits = index.search("maria", 0, 10);
+
+        assertThat(hits.getIds()).containsExactly(2L, 3L);
+        assertThat(hits.getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void findsPhonesByTheirDigits() {
+        assertThat(index.search("98765", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("1198765", 0, 10).getIds()).containsExactly(1L);
+        assertThat(index.search("2133334444", 0, 10).getIds()).containsExactly(3L);
+    }
+
+    @Test
+    void findsEmailsByTheirParts() {
+        assertThat(index.search("maria.souza@example", 0, 10).getIds()).containsExactly(2L);
+    }
+
+    @Test
+    void requiresEveryWord() {
+        assertThat(index.search("maria campinas", 0, 10).getIds()).containsExactly(2L);
+        assertThat(index.search("maria recife", 0, 10).getIds()).isEmpty();
+    }
+
+    @Test
+    void pagesThroughTheMatchesWithTheirTotal() {
+        EmployeeSearchIndex.Hits first = index.search("example", 0, 3);
+        EmployeeSearchIndex.Hits second = index.search("example", 3, 3);
+
+        assertThat(first.getIds()).hasSize(3);
+        assertThat(second.getIds()).hasSize(1);
+        assertThat(first.getTotal()).isEqualTo(4);
+        assertThat(second.getTotal()).isEqualTo(4);
+        assertThat(first.getIds()).doesNotContainAnyElementsOf(second.getIds());
+    }
+
+    @Test
+    void countsExactlyUpToTheThreshold() {
+        for (int id = 100; id < 100 + EmployeeSearchIndex.TOTAL_HITS_THRESHOLD * 2; id++) {
+            index.add(new EmployeeSearchEntry(id, "Ana", "Lima", "ana" + id + "@example.com", null, "Vendas", "Natal"));
+        }
+        index.refresh();
+
+        EmployeeSearchIndex.Hits few = index.search("maria", 0, 10);
+        EmployeeSearchIndex.Hits many = index.search("ana lima", 0, 10);
+
+        assertThat(few.isExact()).isTrue();
+        assertThat(many.isExact()).isFalse();
+        assertThat(many.getTotal()).isGreaterThanOrEqualTo(EmployeeSearchIndex.TOTAL_HITS_THRESHOLD);
+        assertThat(many.getIds()).hasSize(10);
+    }
+
+    @Test
+    void emptyQueriesMatchNothing() {
+        assertThat(index.search("", 0, 10).getIds()).isEmpty();
+        assertThat(index.search(" - ", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void writesAreVisibleAfterRefresh() {
+        index.update(new EmployeeSearchEntry(2, "Maria", "Souza", "maria.souza@example.com", null, "Jurídico", "Recife"));
+        index.delete(4);
+
+        assertThat(index.search("recife", 0, 10).getIds()).isEmpty();
+
+        index.refresh();
+
+        assertThat(index.search("recife", 0, 10).getIds()).containsExactly(2L);
+        assertThat(index.search("engenharia", 0, 10).getIds()).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void ignoresWordsBeyondTheLimit() {
+        assertThat(index.terms("a b c d e f g")).hasSize(EmployeeSearchIndex.MAX_TERMS);
+    }
+}
@@ -0,0 +1,61 @@
+package co.facilite.devjr.web.filter;
+
+import static org.assertj.core.api.Assertions.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class CepQuotaFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CepQuotaFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties.Cep.Quota properties = new ApplicationProperties().getCep().getQuota();
+        properties.setLimit(2);
+        properties.setWindow(Duration.ofMinutes(1));
+        filter = new CepQuotaFilter(properties, meterRegistry);
+    }
+
+    @Test
+    void requestsOverTheQuotaAreAnsweredTooManyRequests() throws Exception {
+        assertThat(perform("/api/cep/01310100", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(perform("/api/cep/autocomplete", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse throttled = perform("/api/cep/01310100", "10.0.0.1");
+
+        assertThat(throttled.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(Long.parseLong(throttled.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 60L);
+        assertThat(perform("/api/cep/01310100", "10.0.0.2").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get(CepQuotaFilter.THROTTLED_REQUESTS_METER_NAME).functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CepQuotaFilter.THROTTLED_CLIENTS_METER_NAME).functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void otherPathsAreNotCounted() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("/api/employees", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        assertThat(perform("/api/cep/01310100", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private MockHttpServletResponse perform(String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
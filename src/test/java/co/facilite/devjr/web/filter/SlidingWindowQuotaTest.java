@@ -0,0 +1,155 @@
+package co.facilite.devjr.web.filter;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowQuotaTest {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(60);
+
+    private final AtomicLong nanoTime = new AtomicLong(1000);
+
+    @Test
+    void clientIsThrottledOnceItReachesTheLimitAndOthersAreNot() {
+        SlidingWindowQuota quota = new SlidingWindowQuota(3, WINDOW, 16, nanoTime::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(quota.tryAcquire("10.0.0.1")).isEqualTo(SlidingWindowQuota.ALLOWED);
+        }
+        long retryAfter = quota.tryAcquire("10.0.0.1");
+
+        assertThat(retryAfter).isGreaterThan(0).isLessThanOrEqualTo(2 * WINDOW);
+        assertThat(quota.tryAcquire("10.0.0.2")).isEqualTo(SlidingWindowQuota.ALLOWED);
+        assertThat(quota.tryAcquire("10.0.0.1")).isNotEqualTo(SlidingWindowQuota.ALLOWED);
+        assertThat(quota.throttledRequests()).isEqualTo(2);
+        assertThat(quota.throttledClients()).isEqualTo(1);
+    }
+
+    @Test
+    void previousWindowWeighsLessAsTheCurrentOneElapses() {
+        SlidingWindowQuota quota = new SlidingWindowQuota(10, WINDOW, 16, nanoTime::get);
+        for (int i = 0; i < 10; i++) {
+            quota.tryAcquire("10.0.0.1");
+        }
+
+        // A quarter into the next window, the 10 requests of the previous one still count as 7.5.
+        nanoTime.addAndGet(WINDOW + WINDOW / 4);
+        assertThat(quota.tryAcquire("10.0.0.1")).isEqualTo(SlidingWindowQuota.ALLOWED);
+        assertThat(quota.tryAcquire("10.0.0.1")).isEqualTo(SlidingWindowQuota.ALLOWED);
+        assertThat(quota.tryAcquire("10.0.0.1")).isEqualTo(SlidingWindowQuota.ALLOWED);
+        long retryAfter = quota.tryAcquire("10.0.0.1");
+
+        // 7.5 + 3 >= 10 until the previous window weighs less than 7, past 30% of the current one.
+        assertThat(retryAfter).isCloseTo(WINDOW * 30 / 100 - WINDOW / 4, within(1000L));
+        nanoTime.addAndGet(retryAfter);
+        assertThat(quota.tryAcquire("10.0.0.1")).isEqualTo(SlidingWindowQuota.ALLOWED);
+    }
+
+    @Test
+    void retryAfterFullCurrentWindowPointsIntoTheNextOne() {
+        SlidingWindowQuota quota = new SlidingWindowQuota(4, WINDOW, 16, nanoTime::get);
+        nanoTime.addAndGet(WINDOW / 2);
+        for (int i = 0; i < 4; i++) {
+            quota.tryAcquire("10.0.0.1");
+        }
+
+        long retryAfter = quota.tryAcquire("10.0.0.1");
+
+        nanoTime.addAndGet(retryAfter - 1);
+        assertThat(quota.tryAcquire("10.0.0.1")).isNotEqualTo(SlidingWindowQuota.ALLOWED);
+        nanoTime.addAndGet(1);
+        assertThat(quota.tryAcquire("10.0.0.1")).isEqualTo(SlidingWindowQuota.ALLOWED);
+    }
+
+    @Test
+    void requestWorthManyPermitsIsAllowedUnderTheLimitAndExhaustsIt() {
+        SlidingWindowQuota quota = new SlidingWindowQuota(10, WINDOW, 16, nanoTime::get);
+        assertThat(quota.tryAcquire("10.0.0.1")).isEqualTo(SlidingWindowQuota.ALLOWED);
+
+        assertThat(quota.tryAcquire("10.0.0.1", 50)).isEqualTo(SlidingWindowQuota.ALLOWED);
+
+        long retryAfter = quota.tryAcquire("10.0.0.1");
+        // 51 requests in the previous window weigh less than 10 past 80% of the next one.
+        assertThat(retryAfter).isCloseTo(WINDOW + WINDOW * 41 / 51, within(1000L));
+        assertThatIllegalArgumentException().isThrownBy(() -> quota.tryAcquire("10.0.0.1", 0));
+    }
+
+    @Test
+    void clientKeepsItsSlotPastTheExpiredSlotOfAnotherOne() {
+        // Room for 16 clients.
+        SlidingWindowQuota quota = new SlidingWindowQuota(3, WINDOW, 8, nanoTime::get);
+        String idle = "10.0.0.0";
+        String active = null;
+        for (int i = 1; active == null; i++) {
+            if (quota.home("10.0.0." + i) == quota.home(idle)) {
+                active = "10.0.0." + i;
+            }
+        }
+        // The idle client takes the home slot of both, the active one the next slot.
+        quota.tryAcquire(idle);
+        quota.tryAcquire(active);
+        nanoTime.addAndGet(WINDOW);
+        // Up to the limit: 1 request of the previous window, 2 of this one.
+        assertThat(quota.tryAcquire(active)).isEqualTo(SlidingWindowQuota.ALLOWED);
+        assertThat(quota.tryAcquire(active)).isEqualTo(SlidingWindowQuota.ALLOWED);
+        assertThat(quota.tryAcquire(active)).isNotEqualTo(SlidingWindowQuota.ALLOWED);
+
+        // The idle client's slot has expired; the active client's 2 requests of the previous window still count.
+        nanoTime.addAndGet(WINDOW);
+        assertThat(quota.tryAcquire(active)).isEqualTo(SlidingWindowQuota.ALLOWED);
+        assertThat(quota.tryAcquire(active)).isNotEqualTo(SlidingWindowQuota.ALLOWED);
+    }
+
+    @Test
+    void idleClientsMakeRoomForNewOnes() {
+        // Room for 16 clients.
+        SlidingWindowQuota quota = new SlidingWindowQuota(1, WINDOW, 8, nanoTime::get);
+        for (int i = 0; i < 64; i++) {
+            quota.tryAcquire("10.0.0." + i);
+        }
+        long untracked = quota.untrackedRequests();
+        assertThat(quota.tryAcquire("10.0.1.1")).isEqualTo(SlidingWindowQuota.ALLOWED);
+        assertThat(quota.untrackedRequests()).isEqualTo(untracked + 1);
+
+        nanoTime.addAndGet(2 * WINDOW);
+        for (int i = 0; i < 8; i++) {
+            assertThat(quota.tryAcquire("10.0.2." + i)).isEqualTo(SlidingWindowQuota.ALLOWED);
+        }
+
+        assertThat(quota.untrackedRequests()).isEqualTo(untracked + 1);
+        assertThat(quota.tryAcquire("10.0.2.0")).isNotEqualTo(SlidingWindowQuota.ALLOWED);
+    }
+
+    @Test
+    void concurrentRequestsOfOneClientAreAllCounted() throws Exception {
+        SlidingWindowQuota quota = new SlidingWindowQuota(20000, WINDOW, 16, nanoTime::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            AtomicLongArray allowed = new AtomicLongArray(1);
+            Future<?>[] futures = new Future<?>[8];
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        if (quota.tryAcquire("10.0.0.1") == SlidingWindowQuota.ALLOWED) {
+                            allowed.incrementAndGet(0);
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertThat(allowed.get(0)).isEqualTo(20000);
+            assertThat(quota.throttledRequests()).isEqualTo(20000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package co.facilite.devjr.web.rest;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import co.facilite.devjr.domain.enumeration.Uf;
+import co.facilite.devjr.service.CepAutocompleteService;
+import co.facilite.devjr.service.dto.AddressDTO;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Testes unitários para CepAutocompleteResource
+ */
+@ExtendWith(MockitoExtension.class)
+class CepAutocompleteResourceTest {
+
+    @Mock
+    private CepAutocompleteService cepAutocompleteService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new CepAutocompleteResource(cepAutocompleteService)).build();
+    }
+
+    /**
+     * TESTE 1: Consulta retorna os endereços sugeridos
+     */
+    @Test
+    void autocomplete_Query_ReturnsSuggestions() throws Exception {
+        AddressDTO address = new AddressDTO();
+        address.setCep("01310-100");
+        address.setStreet("Avenida Paulista");
+        address.setCity("São Paulo");
+        address.setUf(Uf.SP);
+        when(cepAutocompleteService.suggest("paulista", 5)).thenReturn(List.of(address));
+
+        mockMvc
+            .perform(get("/api/cep/autocomplete").param("q", "paulista").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].cep").value("01310-100"))
+            .andExpect(jsonPath("$[0].uf").value("SP"));
+    }
+
+    /**
+     * TESTE 2: Consulta sem o parâmetro q retorna 400
+     */
+    @Test
+    void autocomplete_MissingQuery_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/cep/autocomplete")).andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cepAutocompleteService);
+    }
+}
@@ -0,0 +1,126 @@
+package co.facilite.devjr.web.rest;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import co.facilite.devjr.config.ApplicationProperties;
+import co.facilite.devjr.service.CepBatchLookupService;
+import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.CepLookupResultDTO;
+import co.facilite.devjr.web.filter.CepQuotaFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+class CepBatchLookupResourceTest {
+
+    @Mock
+    private CepBatchLookupService cepBatchLookupService;
+
+    private ApplicationProperties applicationProperties;
+
+    private CepBatchLookupResource resource;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCep().getBatch().setMaxSize(3);
+        resource = new CepBatchLookupResource(cepBatchLookupService, new ObjectMapper(), applicationProperties);
+        mockMvc = MockMvcBuilders.standaloneSetup(resource).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getCeps_StreamsOneResultPerLine() throws Exception {
+        AddressDTO address = new AddressDTO();
+        address.setCep("01310-100");
+        doAnswer(invocation -> {
+            Consumer<CepLookupResultDTO> consumer = invocation.getArgument(1);
+            consumer.accept(CepLookupResultDTO.found("01310100", address));
+            consumer.accept(CepLookupResultDTO.failed("99999999", 404, "CEP não encontrado"));
+            return null;
+        })
+            .when(cepBatchLookupService)
+            .lookupAll(anyCollection(), any(Consumer.class));
+
+        MvcResult mvcResult = mockMvc
+            .perform(post("/api/cep/batch").contentType(MediaType.APPLICATION_JSON).content("[\"01310100\", \"99999999\"]"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc
+            .perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body.split("\n")).containsExactly(
+            "{\"cep\":\"01310100\",\"status\":200,\"address\":{\"id\":null,\"cep\":\"01310-100\",\"street\":null,\"number\":null," +
+            "\"complement\":null,\"district\":null,\"city\":null,\"uf\":null},\"error\":null}",
+            "{\"cep\":\"99999999\",\"status\":404,\"address\":null,\"error\":\"CEP não encontrado\"}"
+        );
+    }
+
+    @Test
+    void getCeps_TooManyCeps_ReturnsBadRequest() throws Exception {
+        mockMvc
+            .perform(
+                post("/api/cep/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[\"01310100\", \"01310200\", \"01310300\", \"01310400\"]")
+            )
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cepBatchLookupService);
+    }
+
+    @Test
+    void getCeps_OneBatch_ExhaustsTheQuota() throws Exception {
+        ApplicationProperties.Cep.Quota quota = applicationProperties.getCep().getQuota();
+        quota.setLimit(3);
+        mockMvc = MockMvcBuilders.standaloneSetup(resource).addFilters(new CepQuotaFilter(quota, new SimpleMeterRegistry())).build();
+
+        mockMvc
+            .perform(post("/api/cep/batch").contentType(MediaType.APPLICATION_JSON).content("[\"01310100\", \"01310200\", \"01310300\"]"))
+            .andExpect(request().asyncStarted());
+
+        mockMvc
+            .perform(post("/api/cep/batch").contentType(MediaType.APPLICATION_JSON).content("[\"01310400\"]"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void getCeps_BatchOverTheQuotaLeft_ReturnsTooManyRequests() throws Exception {
+        ApplicationProperties.Cep.Quota quota = applicationProperties.getCep().getQuota();
+        quota.setLimit(3);
+        mockMvc = MockMvcBuilders.standaloneSetup(resource).addFilters(new CepQuotaFilter(quota, new SimpleMeterRegistry())).build();
+        mockMvc
+            .perform(post("/api/cep/batch").contentType(MediaType.APPLICATION_JSON).content("[\"01310100\", \"01310200\"]"))
+            .andExpect(request().asyncStarted());
+
+        mockMvc
+            .perform(post("/api/cep/batch").contentType(MediaType.APPLICATION_JSON).content("[\"01310300\", \"01310400\"]"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -1,5 +1,6 @@
 package co.facilite.devjr.web.rest;
 
+import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -7,16 +8,19 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import co.facilite.devjr.domain.enumeration.Uf;
 import co.facilite.devjr.service.CepLookupService;
 import co.facilite.devjr.service.dto.AddressDTO;
+import co.facilite.devjr.service.dto.PartialAddressDTO;
 import co.facilite.devjr.web.rest.errors.BadRequestAlertException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -30,14 +34,14 @@ class CepLookupResourceTest {
     @Mock
     private CepLookupService cepLookupService;
 
-    @InjectMocks
-    private CepLookupResource cepLookupResource;
+    private SimpleMeterRegistry meterRegistry;
 
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(cepLookupResource).build();
+        meterRegistry = new SimpleMeterRegistry();
+        mockMvc = MockMvcBuilders.standaloneSetup(new CepLookupResource(cepLookupService, meterRegistry)).build();
     }
 
     /**
@@ -54,10 +58,12 @@ class CepLookupResourceTest {
         expectedAddress.setUf(Uf.SP);
 
         when(cepLookupService.normalizeCep(cep)).thenReturn(cep);
-        when(cepLookupService.lookup(cep)).thenReturn(expectedAddress);
+        when(cepLookupService.lookupAsync(cep)).thenReturn(CompletableFuture.completedFuture(expectedAddress));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/cep/{cep}", cep)).andExpect(request().asyncStarted()).andReturn();
 
         mockMvc
-            .perform(get("/api/cep/{cep}", cep))
+            .perform(asyncDispatch(mvcResult))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON))
             .andExpect(jsonPath("$.cep").value("01310-100"))
@@ -67,7 +73,7 @@ class CepLookupResourceTest {
             .andExpect(jsonPath("$.uf").value("SP"));
 
         verify(cepLookupService).normalizeCep(cep);
-        verify(cepLookupService).lookup(cep);
+        verify(cepLookupService).lookupAsync(cep);
     }
 
     /**
@@ -84,7 +90,7 @@ class CepLookupResourceTest {
         mockMvc.perform(get("/api/cep/{cep}", invalidCep)).andExpect(status().isBadRequest());
 
         verify(cepLookupService).normalizeCep(invalidCep);
-        verify(cepLookupService, never()).lookup(anyString());
+        verify(cepLookupService, never()).lookupAsync(anyString());
     }
 
     /**
@@ -95,12 +101,15 @@ class CepLookupResourceTest {
         String cep = "99999999";
 
         when(cepLookupService.normalizeCep(cep)).thenReturn(cep);
-        when(cepLookupService.lookup(cep)).thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "CEP não encontrado"));
+        when(cepLookupService.lookupAsync(cep)).thenReturn(
+            CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.NOT_FOUND, "CEP não encontrado"))
+        );
 
-        mockMvc.perform(get("/api/cep/{cep}", cep)).andExpect(status().isNotFound());
+        MvcResult mvcResult = mockMvc.perform(get("/api/cep/{cep}", cep)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isNotFound());
 
         verify(cepLookupService).normalizeCep(cep);
-        verify(cepLookupService).lookup(cep);
+        verify(cepLookupService).lookupAsync(cep);
     }
 
     /**
@@ -111,11 +120,52 @@ class CepLookupResourceTest {
         String cep = "01310100";
 
         when(cepLookupService.normalizeCep(cep)).thenReturn(cep);
-        when(cepLookupService.lookup(cep)).thenThrow(new ResponseStatusException(HttpStatus.BAD_GATEWAY, "CEP service unavailable"));
+        when(cepLookupService.lookupAsync(cep)).thenReturn(
+            CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.BAD_GATEWAY, "CEP service unavailable"))
+        );
 
-        mockMvc.perform(get("/api/cep/{cep}", cep)).andExpect(status().isBadGateway());
+        MvcResult mvcResult = mockMvc.perform(get("/api/cep/{cep}", cep)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isBadGateway());
 
         verify(cepLookupService).normalizeCep(cep);
-        verify(cepLookupService).lookup(cep);
+        verify(cepLookupService).lookupAsync(cep);
+    }
+
+    /**
+     * TESTE 5: Requisições são cronometradas com o status da resposta
+     */
+    @Test
+    void getCep_RequestsAreTimedByStatus() throws Exception {
+        when(cepLookupService.normalizeCep("01310100")).thenReturn("01310100");
+        when(cepLookupService.lookupAsync("01310100")).thenReturn(CompletableFuture.completedFuture(new AddressDTO()));
+        when(cepLookupService.normalizeCep("123")).thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "CEP deve ter 8 digitos"));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/cep/{cep}", "01310100")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/cep/{cep}", "123")).andExpect(status().isBadRequest());
+
+        assertThat(meterRegistry.get(CepLookupResource.REQUESTS_METER_NAME).tag("status", "200").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CepLookupResource.REQUESTS_METER_NAME).tag("status", "400").timer().count()).isEqualTo(1);
+    }
+
+    /**
+     * TESTE 6: Endereço parcial é retornado com o cabeçalho X-Cep-Partial
+     */
+    @Test
+    void getCep_PartialAddress_SetsPartialHeader() throws Exception {
+        PartialAddressDTO partial = new PartialAddressDTO();
+        partial.setCep("72006-206");
+        partial.setUf(Uf.DF);
+        when(cepLookupService.normalizeCep("72006206")).thenReturn("72006206");
+        when(cepLookupService.lookupAsync("72006206")).thenReturn(CompletableFuture.completedFuture(partial));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/cep/{cep}", "72006206")).andExpect(request().asyncStarted()).andReturn();
+        mockMvc
+            .perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CepLookupResource.PARTIAL_HEADER, "true"))
+            .andExpect(jsonPath("$.cep").value("72006-206"))
+            .andExpect(jsonPath("$.uf").value("DF"))
+            .andExpect(jsonPath("$.city").doesNotExist());
     }
 }
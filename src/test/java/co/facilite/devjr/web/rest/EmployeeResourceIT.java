@@ -23,6 +23,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -37,7 +38,9 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -314,6 +317,123 @@ class EmployeeResourceIT {
             .andExpect(jsonPath("$.[*].active").value(hasItem(DEFAULT_ACTIVE)));
     }
 
+    @Test
+    @Transactional
+    void getAllEmployeesWithoutCount() throws Exception {
+        // Initialize the database
+        insertedEmployee = employeeRepository.saveAndFlush(employee);
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&count=none&id.equals=" + employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(EmployeeResource.HAS_NEXT_PAGE_HEADER, "false"));
+    }
+
+    @Test
+    @Transactional
+    void getAllEmployeesWithCachedCount() throws Exception {
+        // Initialize the database
+        insertedEmployee = employeeRepository.saveAndFlush(employee);
+        String filter = "?count=cached&email.equals=" + DEFAULT_EMAIL;
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + filter))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(header().string(EmployeeResource.TOTAL_COUNT_EXACT_HEADER, "true"));
+
+        // Reused, the count may miss writes of other nodes
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + filter))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(header().string(EmployeeResource.TOTAL_COUNT_EXACT_HEADER, "false"));
+
+        // A write through the application makes the cached count stale
+        restEmployeeMockMvc.perform(delete(ENTITY_API_URL_ID, employee.getId())).andExpect(status().isNoContent());
+        insertedEmployee = null;
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL + "/count" + filter)).andExpect(status().isOk()).andExpect(content().string("0"));
+    }
+
+    @Test
+    @Transactional
+    void countEmployeesWithEstimate() throws Exception {
+        // Initialize the database
+        insertedEmployee = employeeRepository.saveAndFlush(employee);
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "/count?count=estimate"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(EmployeeResource.TOTAL_COUNT_EXACT_HEADER));
+
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "?count=estimate&id.equals=" + employee.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(header().string(EmployeeResource.TOTAL_COUNT_EXACT_HEADER, "true"));
+    }
+
+    @Test
+    @Transactional
+    void getAllEmployeesWithUnknownCountMode() throws Exception {
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL + "?count=sometimes")).andExpect(status().isBadRequest());
+
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL + "/count?count=none")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllEmployeesPastTheLargestOffset() throws Exception {
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL + "?page=2000000&size=2000")).andExpect(status().isBadRequest());
+
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL + "?page=2000000&size=2000&count=none")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllEmployeesByCursor() throws Exception {
+        // Initialize the database, with ties on the sort key
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Employee tied = createEntity().lastName("Keyset" + (i / 2)).email("keyset" + i + "@example.com");
+            ids.add(employeeRepository.saveAndFlush(tied).getId());
+        }
+
+        // Walk the pages by cursor, sorted by last name descending, then id ascending
+        List<Long> walked = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            MvcResult result = restEmployeeMockMvc
+                .perform(get(ENTITY_API_URL + "?sort=lastName,desc&size=2&lastName.contains=Keyset&cursor=" + cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andReturn();
+            for (EmployeeDTO page : om.readValue(result.getResponse().getContentAsByteArray(), EmployeeDTO[].class)) {
+                walked.add(page.getId());
+            }
+            cursor = result.getResponse().getHeader(EmployeeResource.NEXT_CURSOR_HEADER);
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(walked).containsExactly(ids.get(4), ids.get(2), ids.get(3), ids.get(0), ids.get(1));
+        employeeRepository.deleteAllById(ids);
+    }
+
+    @Test
+    @Transactional
+    void getAllEmployeesByInvalidCursor() throws Exception {
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL + "?sort=id,desc&cursor=not-a-cursor")).andExpect(status().isBadRequest());
+
+        restEmployeeMockMvc.perform(get(ENTITY_API_URL + "?sort=phone,asc&cursor=")).andExpect(status().isBadRequest());
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllEmployeesWithEagerRelationshipsIsEnabled() throws Exception {
         when(employeeServiceMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -763,6 +883,12 @@ class EmployeeResourceIT {
             .andExpect(jsonPath("$.[*].salary").value(hasItem(sameNumber(DEFAULT_SALARY))))
             .andExpect(jsonPath("$.[*].active").value(hasItem(DEFAULT_ACTIVE)));
 
+        // Check, that the cursor mode also returns it
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&cursor=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(employee.getId().intValue())));
+
         // Check, that the count call also returns 1
         restEmployeeMockMvc
             .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
@@ -782,6 +908,13 @@ class EmployeeResourceIT {
             .andExpect(jsonPath("$").isArray())
             .andExpect(jsonPath("$").isEmpty());
 
+        // Check, that the cursor mode also returns nothing, and no next cursor
+        restEmployeeMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&cursor=&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty())
+            .andExpect(header().doesNotExist(EmployeeResource.NEXT_CURSOR_HEADER));
+
         // Check, that the count call also returns 0
         restEmployeeMockMvc
             .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
@@ -0,0 +1,91 @@
+package co.facilite.devjr.web.rest;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import co.facilite.devjr.service.EmployeeSearchService;
+import co.facilite.devjr.service.dto.EmployeeDTO;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * Testes unitários para EmployeeSearchResource
+ */
+@ExtendWith(MockitoExtension.class)
+class EmployeeSearchResourceTest {
+
+    @Mock
+    private EmployeeSearchService employeeSearchService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new EmployeeSearchResource(employeeSearchService))
+            .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+            .build();
+    }
+
+    /**
+     * TESTE 1: Busca retorna a página de funcionários com o total no cabeçalho
+     */
+    @Test
+    void search_Query_ReturnsPageWithTotal() throws Exception {
+        EmployeeDTO employee = new EmployeeDTO();
+        employee.setId(7L);
+        employee.setFirstName("João");
+        when(employeeSearchService.search(eq("joao"), any())).thenReturn(
+            new EmployeeSearchService.Results(new PageImpl<>(List.of(employee), PageRequest.of(0, 1), 3), true)
+        );
+
+        mockMvc
+            .perform(get("/api/employees/_search").param("query", "joao").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(header().string(EmployeeResource.TOTAL_COUNT_EXACT_HEADER, "true"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(7))
+            .andExpect(jsonPath("$[0].firstName").value("João"));
+    }
+
+    /**
+     * TESTE 2: Busca sem o parâmetro query retorna 400
+     */
+    @Test
+    void search_MissingQuery_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/employees/_search")).andExpect(status().isBadRequest());
+
+        verifyNoInteractions(employeeSearchService);
+    }
+
+    /**
+     * TESTE 3: Página além da janela de resultados retorna 400
+     */
+    @Test
+    void search_PageBeyondWindow_ReturnsBadRequest() throws Exception {
+        when(employeeSearchService.search(eq("joao"), any())).thenThrow(new IllegalArgumentException("Search results are limited"));
+
+        mockMvc.perform(get("/api/employees/_search").param("query", "joao").param("page", "1000")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * TESTE 4: Reconstrução do índice é aceita e roda em segundo plano
+     */
+    @Test
+    void rebuild_StartsInBackground() throws Exception {
+        mockMvc.perform(post("/api/employees/_search/rebuild")).andExpect(status().isAccepted());
+
+        verify(employeeSearchService).rebuildInBackground();
+    }
+}